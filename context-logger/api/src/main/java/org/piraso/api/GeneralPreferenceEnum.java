@@ -27,6 +27,22 @@ public enum GeneralPreferenceEnum implements PreferenceEnum {
      */
     STACK_TRACE_ENABLED("general.stack.trace.enabled"),
 
+    /**
+     * property name for the stack trace sampling, only every nth intercepted call of a request has its stack trace.
+     */
+    STACK_TRACE_SAMPLE_RATE("general.stack.trace.sample.rate", false),
+
+    /**
+     * property name for the maximum number of stack trace frames.
+     */
+    STACK_TRACE_MAX_DEPTH("general.stack.trace.max.depth", false),
+
+    /**
+     * property name for capturing a distinct stack trace once per request, calls with an already captured stack
+     * trace have none.
+     */
+    STACK_TRACE_DISTINCT_ENABLED("general.stack.trace.distinct.enabled", false),
+
     /**
      * property name for scoped enabled. This means that only monitor request under logging scoped.
      * <p>
@@ -45,13 +61,20 @@ public enum GeneralPreferenceEnum implements PreferenceEnum {
      */
     private final String propertyName;
 
+    private final boolean level;
+
     /**
      * Construct enum given the enum property name.
      *
      * @param newPropertyName  the property name
      */
     private GeneralPreferenceEnum(final String newPropertyName) {
+        this(newPropertyName, true);
+    }
+
+    private GeneralPreferenceEnum(final String newPropertyName, final boolean level) {
         this.propertyName = newPropertyName;
+        this.level = level;
     }
 
     /**
@@ -64,6 +87,6 @@ public enum GeneralPreferenceEnum implements PreferenceEnum {
     }
 
     public boolean isLevel() {
-        return true;
+        return level;
     }
 }
@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.api;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Regular expressions compiled once from {@link Preferences} keys or url patterns. The first matching expression
+ * decides the result, which is memoized per queried name in a bounded cache.
+ */
+class PatternMatcher {
+
+    /**
+     * Maximum number of memoized names, the cache is cleared once exceeded.
+     */
+    static final int MAX_CACHED_NAMES = 1024;
+
+    private final Object source;
+
+    private final int sourceSize;
+
+    private final Pattern[] patterns;
+
+    private final PatternSyntaxException[] errors;
+
+    private final boolean[] values;
+
+    private final Map<String, Boolean> cache = new ConcurrentHashMap<String, Boolean>();
+
+    /**
+     * Compiles the keys of the given boolean properties, a matching key yields its property value.
+     *
+     * @param properties the boolean properties
+     * @return the matcher
+     */
+    static PatternMatcher forProperties(Map<String, Boolean> properties) {
+        PatternMatcher matcher = new PatternMatcher(properties, properties.size());
+
+        int i = 0;
+        for(Map.Entry<String, Boolean> entry : properties.entrySet()) {
+            matcher.compile(i++, entry.getKey(), Boolean.TRUE.equals(entry.getValue()));
+        }
+
+        return matcher;
+    }
+
+    /**
+     * Compiles the given url patterns, a matching pattern yields <code>true</code>.
+     *
+     * @param urlPatterns the url patterns
+     * @return the matcher
+     */
+    static PatternMatcher forUrlPatterns(List<String> urlPatterns) {
+        PatternMatcher matcher = new PatternMatcher(urlPatterns, urlPatterns.size());
+
+        for(int i = 0; i < urlPatterns.size(); i++) {
+            matcher.compile(i, urlPatterns.get(i), true);
+        }
+
+        return matcher;
+    }
+
+    private PatternMatcher(Object source, int size) {
+        this.source = source;
+        this.sourceSize = size;
+        this.patterns = new Pattern[size];
+        this.errors = new PatternSyntaxException[size];
+        this.values = new boolean[size];
+    }
+
+    private void compile(int index, String regex, boolean value) {
+        try {
+            patterns[index] = Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            // reported only when reached, same as String#matches(String)
+            errors[index] = e;
+        }
+
+        values[index] = value;
+    }
+
+    /**
+     * Determines whether this matcher was compiled from the given source and is still current.
+     *
+     * @param other the boolean properties or url patterns
+     * @param size the current size of the source
+     * @return <code>true</code> if no recompilation is needed
+     */
+    boolean isCompiledFrom(Object other, int size) {
+        return source == other && sourceSize == size;
+    }
+
+    int getCacheSize() {
+        return cache.size();
+    }
+
+    boolean matches(String name) {
+        Boolean result = cache.get(name);
+
+        if(result != null) {
+            return result;
+        }
+
+        result = Boolean.FALSE;
+        for(int i = 0; i < patterns.length; i++) {
+            if(errors[i] != null) {
+                throw errors[i];
+            }
+
+            if(patterns[i].matcher(name).matches()) {
+                result = values[i];
+                break;
+            }
+        }
+
+        if(cache.size() >= MAX_CACHED_NAMES) {
+            cache.clear();
+        }
+
+        cache.put(name, result);
+
+        return result;
+    }
+}
@@ -51,6 +51,28 @@ public final class PirasoConstants {
 
     public static final String SERVICE_LOG_PARAMETER_VALUE = "log";
 
+    public static final String SERVICE_STATISTICS_PARAMETER_VALUE = "statistics";
+
+    /**
+     * Request parameter name for the maximum number of items in a statistics snapshot.
+     */
+    public static final String LIMIT_PARAMETER = "limit";
+
+    /**
+     * Request parameter name for the number of request ids leased at once by the bridge.
+     */
+    public static final String COUNT_PARAMETER = "count";
+
+    /**
+     * Request parameter name for the registry version known by the bridge, the registry is returned once it changed.
+     */
+    public static final String REGISTRY_VERSION_PARAMETER = "registryVersion";
+
+    /**
+     * Request parameter name for the maximum time in milliseconds to wait for a registry change.
+     */
+    public static final String WAIT_PARAMETER = "wait";
+
     public static final String ENTRY_PARAMETER = "entry";
 
     public static final String ENTRY_CLASS_NAME_PARAMETER = "entryClassName";
@@ -59,6 +81,11 @@ public final class PirasoConstants {
 
     public static final String ENTRY_REQUEST_ID_PARAMETER = "entryRequestId";
 
+    /**
+     * Request parameter name for a json array of entries logged in one batch by the bridge.
+     */
+    public static final String ENTRIES_PARAMETER = "entries";
+
     public static final String ENCODING_UTF_8 = "UTF-8";
 
     public static final String STATUS_OK = "SUCCESS";
@@ -69,6 +96,33 @@ public final class PirasoConstants {
 
     public static final String JSON_CONTENT_TYPE = "application/json";
 
+    /**
+     * Content type of the compact binary entry stream, see {@link org.piraso.api.io.PirasoBinaryEntryWriter}.
+     */
+    public static final String BINARY_CONTENT_TYPE = "application/x-piraso-binary";
+
+    /**
+     * Request parameter name for the requested entry stream format.
+     */
+    public static final String FORMAT_PARAMETER = "format";
+
+    public static final String FORMAT_XML_PARAMETER_VALUE = "xml";
+
+    public static final String FORMAT_BINARY_PARAMETER_VALUE = "binary";
+
+    /**
+     * Request parameter name, {@code true} when the monitoring client reads binary streams with a string dictionary.
+     */
+    public static final String DICTIONARY_PARAMETER = "dictionary";
+
+    public static final String ACCEPT_ENCODING_HEADER = "Accept-Encoding";
+
+    public static final String CONTENT_ENCODING_HEADER = "Content-Encoding";
+
+    public static final String GZIP_CONTENT_ENCODING = "gzip";
+
+    public static final String DEFLATE_CONTENT_ENCODING = "deflate";
+
     //--- These are the cascaded properties for call propagation.
 
     public static final String REMOTE_ADDRESS_HEADER = "Piraso-Remote-Address";
@@ -30,6 +30,9 @@ import java.util.Map;
 
 /**
  * Monitor preferences.
+ * <p>
+ * Regular expression property keys and url patterns are compiled on first use and recompiled only when changed
+ * through this class, or when the size of the underlying map or list changes.
  */
 public class Preferences {
 
@@ -39,6 +42,10 @@ public class Preferences {
 
     private List<String> urlPatterns;
 
+    private transient volatile PatternMatcher regexMatcher;
+
+    private transient volatile PatternMatcher urlMatcher;
+
     public Map<String, Boolean> getBooleanProperties() {
         return booleanProperties;
     }
@@ -49,6 +56,7 @@ public class Preferences {
         }
 
         booleanProperties.put(name, value);
+        regexMatcher = null;
     }
 
     public void addProperty(String name, int value) {
@@ -65,10 +73,12 @@ public class Preferences {
         }
 
         urlPatterns.add(pattern);
+        urlMatcher = null;
     }
 
     public void setBooleanProperties(Map<String, Boolean> booleanProperties) {
         this.booleanProperties = booleanProperties;
+        regexMatcher = null;
     }
 
     public Map<String, Integer> getIntegerProperties() {
@@ -85,6 +95,7 @@ public class Preferences {
 
     public void setUrlPatterns(List<String> urlPatterns) {
         this.urlPatterns = urlPatterns;
+        urlMatcher = null;
     }
 
     public boolean isUrlAcceptable(String url) {
@@ -93,13 +104,13 @@ public class Preferences {
             return true;
         }
 
-        for(String pattern : urlPatterns) {
-            if(url.matches(pattern)) {
-                return true;
-            }
+        PatternMatcher matcher = urlMatcher;
+        if(matcher == null || !matcher.isCompiledFrom(urlPatterns, urlPatterns.size())) {
+            matcher = PatternMatcher.forUrlPatterns(urlPatterns);
+            urlMatcher = matcher;
         }
 
-        return false;
+        return matcher.matches(url);
     }
 
     public boolean isEnabled(String property) {
@@ -111,13 +122,13 @@ public class Preferences {
             return false;
         }
 
-        for(Map.Entry<String, Boolean> value : booleanProperties.entrySet()) {
-            if(name.matches(value.getKey())) {
-                return value.getValue();
-            }
+        PatternMatcher matcher = regexMatcher;
+        if(matcher == null || !matcher.isCompiledFrom(booleanProperties, booleanProperties.size())) {
+            matcher = PatternMatcher.forProperties(booleanProperties);
+            regexMatcher = matcher;
         }
 
-        return false;
+        return matcher.matches(name);
     }
 
     public Integer getIntValue(String property) {
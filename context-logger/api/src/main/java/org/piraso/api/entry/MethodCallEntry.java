@@ -61,15 +61,18 @@ public class MethodCallEntry extends Entry implements ElapseTimeAware, Throwable
         init(method);
     }
 
+    /**
+     * Initializes the method names, the parameter class names array is shared by the entries of the same method.
+     *
+     * @param method the called method
+     */
     public void init(Method method) {
-        methodName = method.getName();
-        genericString = method.toGenericString();
-        returnClassName = method.getReturnType().getName();
-
-        parameterClassNames = new String[method.getParameterTypes().length];
-        for(int i = 0; i < method.getParameterTypes().length; i++) {
-            parameterClassNames[i] = method.getParameterTypes()[i].getName();
-        }
+        MethodMetadata metadata = MethodMetadata.get(method);
+
+        methodName = metadata.getMethodName();
+        genericString = metadata.getGenericString();
+        returnClassName = metadata.getReturnClassName();
+        parameterClassNames = metadata.getParameterClassNames();
     }
 
     public ObjectEntry[] getArguments() {
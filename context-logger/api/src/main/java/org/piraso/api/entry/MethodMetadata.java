@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.api.entry;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Names of a {@link Method} logged by {@link MethodCallEntry}, computed once per method and shared by the entries.
+ * Methods are memoized in a bounded cache, cleared once exceeded.
+ */
+class MethodMetadata {
+
+    /**
+     * Maximum number of memoized methods.
+     */
+    static final int MAX_CACHED_METHODS = 4096;
+
+    private static final Map<Method, MethodMetadata> CACHE = new ConcurrentHashMap<Method, MethodMetadata>();
+
+    private final String methodName;
+
+    private final String genericString;
+
+    private final String returnClassName;
+
+    private final String[] parameterClassNames;
+
+    private MethodMetadata(Method method) {
+        methodName = method.getName();
+        genericString = method.toGenericString();
+        returnClassName = method.getReturnType().getName();
+
+        Class<?>[] parameterTypes = method.getParameterTypes();
+        parameterClassNames = new String[parameterTypes.length];
+        for(int i = 0; i < parameterTypes.length; i++) {
+            parameterClassNames[i] = parameterTypes[i].getName();
+        }
+    }
+
+    static MethodMetadata get(Method method) {
+        MethodMetadata metadata = CACHE.get(method);
+
+        if(metadata == null) {
+            metadata = new MethodMetadata(method);
+
+            if(CACHE.size() >= MAX_CACHED_METHODS) {
+                CACHE.clear();
+            }
+
+            CACHE.put(method, metadata);
+        }
+
+        return metadata;
+    }
+
+    static int getCacheSize() {
+        return CACHE.size();
+    }
+
+    String getMethodName() {
+        return methodName;
+    }
+
+    String getGenericString() {
+        return genericString;
+    }
+
+    String getReturnClassName() {
+        return returnClassName;
+    }
+
+    /**
+     * The parameter class names, shared by all the entries of the method and not to be modified.
+     *
+     * @return the parameter class names
+     */
+    String[] getParameterClassNames() {
+        return parameterClassNames;
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.api.io;
+
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonStreamContext;
+import org.codehaus.jackson.JsonToken;
+import org.codehaus.jackson.util.JsonGeneratorDelegate;
+
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Generator replacing the string values of the {@link #DICTIONARY_FIELDS} with a reference to the per stream
+ * string dictionary of {@link PirasoBinaryEntryWriter}.
+ * <p>
+ * A reference is the {@link #REFERENCE} character followed by the string id in base 36. Any other string value
+ * starting with the {@link #REFERENCE} character has it doubled.
+ */
+class DictionaryJsonGenerator extends JsonGeneratorDelegate {
+
+    static final char REFERENCE = '\u00A7';
+
+    /**
+     * Maximum number of strings of a stream dictionary, strings beyond are written as is.
+     */
+    static final int MAX_DICTIONARY_SIZE = 16 * 1024;
+
+    /**
+     * Strings shorter than this are always written as is.
+     */
+    static final int MIN_DICTIONARY_LENGTH = 8;
+
+    /**
+     * The entry properties holding class names, method signatures, file names and groups repeated across entries.
+     */
+    static final Set<String> DICTIONARY_FIELDS = new HashSet<String>(Arrays.asList(
+            "className", "genericString", "parameterClassNames", "returnClassName", "methodName",
+            "declaringClass", "fileName", "groups"
+    ));
+
+    private final Map<String, Integer> stringIds;
+
+    private final List<String> definedStrings;
+
+    /**
+     * Names of the properties of the arrays being written, the name is cleared from the output context once the
+     * array starts.
+     */
+    private final List<String> arrayNames = new ArrayList<String>();
+
+    /**
+     * @param delegate the generator writing the entry content
+     * @param stringIds the dictionary of the stream
+     * @param definedStrings receives the strings added to the dictionary while generating
+     */
+    DictionaryJsonGenerator(JsonGenerator delegate, Map<String, Integer> stringIds, List<String> definedStrings) {
+        super(delegate);
+
+        this.stringIds = stringIds;
+        this.definedStrings = definedStrings;
+    }
+
+    /**
+     * Decodes a string value written by this generator.
+     *
+     * @param text the written string value
+     * @param strings the dictionary strings by id
+     * @return the original string value
+     */
+    static String decode(String text, Map<Integer, String> strings) {
+        if(text.length() < 2 || text.charAt(0) != REFERENCE) {
+            return text;
+        }
+
+        if(text.charAt(1) == REFERENCE) {
+            return text.substring(1);
+        }
+
+        try {
+            String value = strings.get(Integer.parseInt(text.substring(1), 36));
+
+            return value != null ? value : text;
+        } catch (NumberFormatException e) {
+            return text;
+        }
+    }
+
+    private boolean isDictionaryField() {
+        JsonStreamContext context = getOutputContext();
+        String name;
+
+        if(context.inArray()) {
+            name = arrayNames.get(arrayNames.size() - 1);
+        } else {
+            name = context.getCurrentName();
+        }
+
+        return name != null && DICTIONARY_FIELDS.contains(name);
+    }
+
+    private Integer getStringId(String text) {
+        Integer id = stringIds.get(text);
+
+        if(id == null && text.length() >= MIN_DICTIONARY_LENGTH && stringIds.size() < MAX_DICTIONARY_SIZE) {
+            id = stringIds.size();
+            stringIds.put(text, id);
+            definedStrings.add(text);
+        }
+
+        return id;
+    }
+
+    @Override
+    public void writeStartArray() throws IOException {
+        JsonStreamContext context = getOutputContext();
+
+        arrayNames.add(context.inObject() ? context.getCurrentName() : null);
+        super.writeStartArray();
+    }
+
+    @Override
+    public void writeEndArray() throws IOException {
+        super.writeEndArray();
+        arrayNames.remove(arrayNames.size() - 1);
+    }
+
+    @Override
+    public void writeString(String text) throws IOException {
+        if(text != null && isDictionaryField()) {
+            Integer id = getStringId(text);
+
+            if(id != null) {
+                super.writeString(REFERENCE + Integer.toString(id, 36));
+                return;
+            }
+        }
+
+        if(text != null && text.length() > 0 && text.charAt(0) == REFERENCE) {
+            text = REFERENCE + text;
+        }
+
+        super.writeString(text);
+    }
+
+    @Override
+    public void writeString(char[] text, int offset, int len) throws IOException {
+        writeString(new String(text, offset, len));
+    }
+
+    /**
+     * Copies the already serialized content read by the given parser.
+     *
+     * @param parser the parser of the content
+     * @throws IOException on parse or generation error
+     */
+    void copy(JsonParser parser) throws IOException {
+        JsonToken token;
+
+        while((token = parser.nextToken()) != null) {
+            if(token == JsonToken.VALUE_STRING) {
+                writeString(parser.getText());
+            } else if(token == JsonToken.START_ARRAY) {
+                writeStartArray();
+            } else if(token == JsonToken.END_ARRAY) {
+                writeEndArray();
+            } else {
+                copyCurrentEvent(parser);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.piraso.api.io;
+
+import org.piraso.api.entry.Entry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Defines an interface of a piraso entry stream writer.
+ */
+public interface EntryWriter extends Closeable {
+
+    void write(Date date, Entry entry) throws IOException;
+
+    void write(Entry entry) throws IOException;
+
+    /**
+     * Sets whether the stream is flushed after every entry written.
+     *
+     * @param autoFlush {@code false} if the caller is responsible for calling {@link #flush()}
+     */
+    void setAutoFlush(boolean autoFlush);
+
+    void flush() throws IOException;
+
+    /**
+     * The number of bytes written so far to the stream.
+     *
+     * @return the bytes written
+     */
+    long getBytesWritten();
+
+    /**
+     * The number of times the stream was flushed.
+     *
+     * @return the flush count
+     */
+    long getFlushCount();
+}
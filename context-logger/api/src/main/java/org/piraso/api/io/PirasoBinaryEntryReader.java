@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.piraso.api.io;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.codehaus.jackson.JsonFactory;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.JsonToken;
+import org.piraso.api.JacksonUtils;
+import org.piraso.api.entry.Entry;
+
+import java.io.*;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.piraso.api.io.PirasoBinaryEntryWriter.*;
+
+/**
+ * Piraso entry reader for streams written by {@link PirasoBinaryEntryWriter}.
+ */
+public class PirasoBinaryEntryReader extends PirasoEntryReader {
+
+    private static final Log LOG = LogFactory.getLog(PirasoBinaryEntryReader.class);
+
+    private DataInputStream in;
+
+    private String id;
+
+    private String watchedAddr;
+
+    private Map<Integer, String> classNames = new HashMap<Integer, String>();
+
+    private Map<Integer, String> strings = new HashMap<Integer, String>();
+
+    private boolean dictionary;
+
+    private byte[] buffer = new byte[1024];
+
+    public PirasoBinaryEntryReader(InputStream in) {
+        super(in);
+
+        this.in = new DataInputStream(new BufferedInputStream(in));
+    }
+
+    @Override
+    public void start() throws IOException {
+        if(in.readInt() != MAGIC) {
+            throw new IOException("Invalid piraso binary stream.");
+        }
+
+        int version = in.readUnsignedByte();
+        if(version != VERSION && version != VERSION_DICTIONARY) {
+            throw new IOException(String.format("Unsupported piraso binary stream version '%d'.", version));
+        }
+
+        dictionary = version == VERSION_DICTIONARY;
+
+        id = readString();
+        watchedAddr = readString();
+
+        fireEntryReadStartedEvent(new EntryReadEvent(this, id, watchedAddr));
+
+        while(!isStopped()) {
+            int length;
+
+            try {
+                length = in.readInt();
+            } catch (EOFException e) {
+                // stream closed without an end frame
+                return;
+            }
+
+            byte type = in.readByte();
+
+            if(type == FRAME_END) {
+                return;
+            } else if(type == FRAME_CLASS) {
+                int classId = in.readInt();
+                classNames.put(classId, readString(length - 5));
+            } else if(type == FRAME_STRING) {
+                int stringId = in.readInt();
+                strings.put(stringId, readString(length - 5));
+            } else if(type == FRAME_ENTRY) {
+                readEntry(length - 1);
+            } else {
+                // unknown frame from a newer writer
+                skipFully(length - 1);
+            }
+        }
+    }
+
+    private void readEntry(int length) throws IOException {
+        long requestId = in.readLong();
+        Date date = new Date(in.readLong());
+        String className = classNames.get(in.readInt());
+        String content = readString(length - 20);
+
+        if(dictionary && content.indexOf(DictionaryJsonGenerator.REFERENCE) >= 0) {
+            content = decode(content);
+        }
+
+        if(className == null) {
+            LOG.warn(String.format("Unable to parse entry with value '%s'", content));
+            return;
+        }
+
+        try {
+            Entry entry = (Entry) PirasoObjectLoaderRegistry.INSTANCE.loadObject(className, content);
+            fireEntryReadEvent(new EntryReadEvent(this, requestId, entry, date));
+        } catch (Exception e) {
+            String msg = String.format("Unable to parse entry with class name '%s' and value '%s'", className, content);
+            LOG.warn(msg, e);
+        }
+    }
+
+    /**
+     * Replaces the dictionary references of the given content by the referenced strings.
+     *
+     * @param content the entry content
+     * @return the decoded content, or the given content if it is not json
+     */
+    private String decode(String content) {
+        JsonFactory factory = JacksonUtils.MAPPER.getJsonFactory();
+        StringWriter writer = new StringWriter(content.length() * 2);
+
+        try {
+            JsonParser parser = factory.createJsonParser(content);
+            JsonGenerator generator = factory.createJsonGenerator(writer);
+            JsonToken token;
+
+            while((token = parser.nextToken()) != null) {
+                if(token == JsonToken.VALUE_STRING) {
+                    generator.writeString(DictionaryJsonGenerator.decode(parser.getText(), strings));
+                } else {
+                    generator.copyCurrentEvent(parser);
+                }
+            }
+
+            generator.close();
+            parser.close();
+        } catch (IOException e) {
+            // raw entry content written as is
+            return content;
+        }
+
+        return writer.toString();
+    }
+
+    private String readString() throws IOException {
+        int length = in.readInt();
+
+        if(length < 0) {
+            return null;
+        }
+
+        return readString(length);
+    }
+
+    private String readString(int length) throws IOException {
+        if(buffer.length < length) {
+            buffer = new byte[Math.max(length, buffer.length * 2)];
+        }
+
+        in.readFully(buffer, 0, length);
+
+        return new String(buffer, 0, length, CHARSET);
+    }
+
+    private void skipFully(int length) throws IOException {
+        int remaining = length;
+
+        while(remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+
+            if(skipped <= 0) {
+                throw new EOFException();
+            }
+
+            remaining -= skipped;
+        }
+    }
+
+    @Override
+    public String getId() {
+        return id;
+    }
+
+    @Override
+    public String getWatchedAddr() {
+        return watchedAddr;
+    }
+}
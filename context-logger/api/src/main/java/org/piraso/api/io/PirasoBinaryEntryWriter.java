@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.piraso.api.io;
+
+import org.apache.commons.lang.Validate;
+import org.codehaus.jackson.JsonEncoding;
+import org.codehaus.jackson.JsonGenerator;
+import org.codehaus.jackson.JsonParseException;
+import org.codehaus.jackson.JsonParser;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.piraso.api.JacksonUtils;
+import org.piraso.api.entry.Entry;
+import org.piraso.api.entry.RawEntry;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Piraso entry stream writer using a compact length prefixed binary framing instead of xml.
+ * <p>
+ * The stream starts with the {@link #MAGIC} number, the format {@link #VERSION}, the stream id and the watched
+ * address. It is followed by frames, each frame is prefixed by its length in bytes and its type:
+ * <ul>
+ *     <li>{@link #FRAME_CLASS}: class id and class name, written once per stream for each entry class.</li>
+ *     <li>{@link #FRAME_ENTRY}: entry request id, date millis, class id and the UTF-8 encoded json content.</li>
+ *     <li>{@link #FRAME_STRING}: string id and string, written once per stream for each string of the dictionary,
+ *     only in {@link #VERSION_DICTIONARY} streams.</li>
+ *     <li>{@link #FRAME_END}: marks the end of the stream.</li>
+ * </ul>
+ * Strings are written as their UTF-8 encoded byte count, {@code -1} for {@code null}, followed by the bytes.
+ * <p>
+ * The entry content is the same json as the xml stream, so a {@link RawEntry} is written as is. With the string
+ * dictionary enabled, the class names, method signatures, file names and groups of the content are replaced by
+ * references to strings defined once per stream, see {@link DictionaryJsonGenerator}.
+ */
+public class PirasoBinaryEntryWriter implements EntryWriter {
+
+    static final int MAGIC = 0x5052534F;
+
+    static final byte VERSION = 1;
+
+    static final byte VERSION_DICTIONARY = 2;
+
+    static final byte FRAME_END = 0;
+
+    static final byte FRAME_CLASS = 1;
+
+    static final byte FRAME_ENTRY = 2;
+
+    static final byte FRAME_STRING = 3;
+
+    static final String CHARSET = "UTF-8";
+
+    /**
+     * Payload buffers that grew beyond this number of bytes while encoding a large entry are not retained.
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private ObjectMapper mapper;
+
+    private DataOutputStream out;
+
+    private ByteArrayOutputStream payload;
+
+    private Map<String, Integer> classIds = new HashMap<String, Integer>();
+
+    private Map<String, Integer> stringIds;
+
+    private List<String> definedStrings;
+
+    private boolean autoFlush = true;
+
+    private volatile long bytesWritten;
+
+    private volatile long flushCount;
+
+    public PirasoBinaryEntryWriter(String id, String watchedAddr, OutputStream out) throws IOException {
+        this(id, watchedAddr, out, false);
+    }
+
+    /**
+     * @param id the stream id
+     * @param watchedAddr the watched address
+     * @param out the target stream
+     * @param dictionary {@code true} to write a {@link #VERSION_DICTIONARY} stream
+     * @throws IOException on io error
+     */
+    public PirasoBinaryEntryWriter(String id, String watchedAddr, OutputStream out, boolean dictionary) throws IOException {
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.payload = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+        this.mapper = JacksonUtils.createMapper();
+
+        if(dictionary) {
+            stringIds = new HashMap<String, Integer>();
+            definedStrings = new ArrayList<String>();
+        }
+
+        init(id, watchedAddr);
+    }
+
+    private void init(String id, String watchedAddr) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeByte(stringIds != null ? VERSION_DICTIONARY : VERSION);
+
+        bytesWritten += 5 + writeString(id) + writeString(watchedAddr);
+
+        flush();
+    }
+
+    private int writeString(String str) throws IOException {
+        if(str == null) {
+            out.writeInt(-1);
+            return 4;
+        }
+
+        byte[] bytes = str.getBytes(CHARSET);
+
+        out.writeInt(bytes.length);
+        out.write(bytes);
+
+        return 4 + bytes.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Defaults to {@code true}.
+     */
+    public void setAutoFlush(boolean autoFlush) {
+        this.autoFlush = autoFlush;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getFlushCount() {
+        return flushCount;
+    }
+
+    private String encode(Entry entry) throws IOException {
+        if(stringIds != null) {
+            return encodeWithDictionary(entry);
+        }
+
+        if(RawEntry.class.isInstance(entry)) {
+            RawEntry raw = (RawEntry) entry;
+            payload.write(String.valueOf(raw.getRawContent()).getBytes(CHARSET));
+
+            return raw.getRawClassName();
+        }
+
+        // jackson closes the target stream, which does nothing for a ByteArrayOutputStream
+        mapper.writeValue(payload, entry);
+
+        return entry.getClass().getName();
+    }
+
+    private String encodeWithDictionary(Entry entry) throws IOException {
+        JsonGenerator generator = new DictionaryJsonGenerator(
+                mapper.getJsonFactory().createJsonGenerator(payload, JsonEncoding.UTF8), stringIds, definedStrings);
+
+        if(!RawEntry.class.isInstance(entry)) {
+            mapper.writeValue(generator, entry);
+            generator.flush();
+
+            return entry.getClass().getName();
+        }
+
+        RawEntry raw = (RawEntry) entry;
+        String content = String.valueOf(raw.getRawContent());
+        JsonParser parser = mapper.getJsonFactory().createJsonParser(content);
+
+        try {
+            ((DictionaryJsonGenerator) generator).copy(parser);
+            generator.flush();
+        } catch (JsonParseException e) {
+            // not json, written as is
+            rollbackStrings();
+            payload.reset();
+            payload.write(content.getBytes(CHARSET));
+        } finally {
+            parser.close();
+        }
+
+        return raw.getRawClassName();
+    }
+
+    /**
+     * Removes the strings defined while encoding an entry which will not be written.
+     */
+    private void rollbackStrings() {
+        for(String str : definedStrings) {
+            stringIds.remove(str);
+        }
+
+        definedStrings.clear();
+    }
+
+    private void writeDefinedStrings() throws IOException {
+        for(String str : definedStrings) {
+            byte[] bytes = str.getBytes(CHARSET);
+
+            out.writeInt(1 + 4 + bytes.length);
+            out.writeByte(FRAME_STRING);
+            out.writeInt(stringIds.get(str));
+            out.write(bytes);
+
+            bytesWritten += 4 + 1 + 4 + bytes.length;
+        }
+
+        definedStrings.clear();
+    }
+
+    private int getClassId(String className) throws IOException {
+        Integer classId = classIds.get(className);
+
+        if(classId != null) {
+            return classId;
+        }
+
+        classId = classIds.size();
+        classIds.put(className, classId);
+
+        byte[] name = className.getBytes(CHARSET);
+
+        out.writeInt(1 + 4 + name.length);
+        out.writeByte(FRAME_CLASS);
+        out.writeInt(classId);
+        out.write(name);
+
+        bytesWritten += 4 + 1 + 4 + name.length;
+
+        return classId;
+    }
+
+    public void write(Date date, Entry entry) throws IOException {
+        Validate.notNull(entry.getRequestId(), "Entry id should not be null.");
+
+        payload.reset();
+
+        try {
+            // encode first, so only completely encoded entries reaches the stream
+            String className = null;
+
+            try {
+                className = encode(entry);
+            } finally {
+                if(className == null && stringIds != null) {
+                    rollbackStrings();
+                }
+            }
+
+            int classId = getClassId(className);
+
+            if(stringIds != null) {
+                writeDefinedStrings();
+            }
+            int length = 1 + 8 + 8 + 4 + payload.size();
+
+            out.writeInt(length);
+            out.writeByte(FRAME_ENTRY);
+            out.writeLong(entry.getRequestId());
+            out.writeLong(date.getTime());
+            out.writeInt(classId);
+            payload.writeTo(out);
+
+            bytesWritten += 4 + length;
+
+            if(autoFlush) {
+                flush();
+            }
+        } finally {
+            if(payload.size() > MAX_RETAINED_BUFFER_SIZE) {
+                payload = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+            }
+        }
+    }
+
+    public void write(Entry entry) throws IOException {
+        write(new Date(), entry);
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+        flushCount++;
+    }
+
+    public void close() throws IOException {
+        try {
+            out.writeInt(1);
+            out.writeByte(FRAME_END);
+            out.flush();
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -82,6 +82,10 @@ public class PirasoEntryReader extends DefaultHandler {
         owningThread.interrupt();
     }
 
+    protected boolean isStopped() {
+        return stopped;
+    }
+
     private void validateStopped() throws SAXException {
         if(stopped) {
             throw new SAXException("Reader was stopped");
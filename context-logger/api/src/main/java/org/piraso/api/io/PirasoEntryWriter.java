@@ -18,56 +18,109 @@
 
 package org.piraso.api.io;
 
-import org.codehaus.jackson.JsonGenerationException;
 import org.piraso.api.JacksonUtils;
 import org.piraso.api.entry.Entry;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.piraso.api.entry.RawEntry;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.*;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
+
 import java.io.*;
 import java.util.Date;
 
 /**
  * Piraso entry stream writer.
+ * <p>
+ * Each entry is encoded directly into a reusable buffer, escaping the xml reserved characters on the fly, and only
+ * reaches the underlying writer once completely encoded.
+ * <p>
+ * By default the writer is flushed after every entry, see {@link #setAutoFlush(boolean)} to let the caller
+ * decide when to {@link #flush()}.
  */
-public class PirasoEntryWriter implements Closeable {
+public class PirasoEntryWriter implements EntryWriter {
+
+    /**
+     * Buffers that grew beyond this number of chars while encoding a large entry are not retained.
+     */
+    private static final int MAX_RETAINED_BUFFER_SIZE = 64 * 1024;
+
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    private static final int LINE_SEPARATOR_LENGTH = System.getProperty("line.separator").length();
 
     private ObjectMapper mapper;
 
     private PrintWriter writer;
 
-    private DocumentBuilder builder;
+    private EntryBuffer buffer;
+
+    private Writer attributeValue;
+
+    private Writer textContent;
+
+    private boolean autoFlush = true;
+
+    private volatile long bytesWritten;
 
-    private Transformer transformer;
+    private volatile long flushCount;
 
-    public PirasoEntryWriter(String id, String watchedAddr, PrintWriter writer) throws ParserConfigurationException, TransformerConfigurationException {
+    public PirasoEntryWriter(String id, String watchedAddr, PrintWriter writer) {
         this.writer = writer;
         mapper = JacksonUtils.createMapper();
 
-        DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-        TransformerFactory transformerFactory = TransformerFactory.newInstance();
-
-        builder = factory.newDocumentBuilder();
-        transformer = transformerFactory.newTransformer();
+        buffer = new EntryBuffer();
+        attributeValue = new XMLEscapeWriter(true);
+        textContent = new XMLEscapeWriter(false);
 
         init(id, watchedAddr);
     }
 
     private void init(String id, String watchedAddr) {
-        writer.println("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
-        writer.println(String.format("<piraso id=\"%s\" watched-address=\"%s\">", id, watchedAddr));
-        writer.flush();
+        buffer.reset();
+
+        try {
+            buffer.write("<piraso id=\"");
+            attributeValue.write(String.valueOf(id));
+            buffer.write("\" watched-address=\"");
+            attributeValue.write(String.valueOf(watchedAddr));
+            buffer.write("\">");
+        } catch (IOException e) {
+            // never thrown by a CharArrayWriter
+            throw new IllegalStateException(e);
+        }
+
+        String declaration = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>";
+
+        writer.println(declaration);
+        writer.write(buffer.toCharArray());
+        writer.println();
+
+        bytesWritten += declaration.length() + buffer.utf8Length() + 2 * LINE_SEPARATOR_LENGTH;
+
+        flush();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Defaults to {@code true}.
+     */
+    public void setAutoFlush(boolean autoFlush) {
+        this.autoFlush = autoFlush;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Computed as UTF-8 encoded bytes.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public long getFlushCount() {
+        return flushCount;
     }
 
     private String getEntryClassName(Entry entry) {
@@ -78,45 +131,171 @@ public class PirasoEntryWriter implements Closeable {
         return entry.getClass().getName();
     }
 
-    private String getEntryContent(Entry entry) throws IOException {
+    private void writeEntryContent(Entry entry) throws IOException {
         if(RawEntry.class.isInstance(entry)) {
-            return ((RawEntry) entry).getRawContent();
+            textContent.write(String.valueOf(((RawEntry) entry).getRawContent()));
+        } else {
+            mapper.writeValue(textContent, entry);
         }
+    }
 
-        return mapper.writeValueAsString(entry);
+    /**
+     * Encodes the given entry into {@link #buffer}, attributes are in the same order as they were when the
+     * entry was serialized through a DOM transformer.
+     *
+     * @param date the entry date
+     * @param entry the entry to encode
+     * @throws IOException on serialization error
+     */
+    private void encode(Date date, Entry entry) throws IOException {
+        buffer.write("<entry class-name=\"");
+        attributeValue.write(getEntryClassName(entry));
+        buffer.write("\" date=\"");
+        mapper.writeValue(attributeValue, date);
+        buffer.write("\" id=\"");
+        buffer.write(String.valueOf(entry.getRequestId()));
+        buffer.write("\">");
+        writeEntryContent(entry);
+        buffer.write("</entry>");
     }
 
-    private String createXMLString(Date date, Entry entry) throws ParserConfigurationException, SAXException, IOException, TransformerException {
-        StringReader reader = new StringReader(String.format("<entry id=\"%d\" date=\"%s\" class-name=\"%s\"></entry>",
-                entry.getRequestId(), mapper.writeValueAsString(date), getEntryClassName(entry)));
+    public void write(Date date, Entry entry) throws IOException {
+        buffer.reset();
 
-        Document document = builder.parse(new InputSource(reader));
+        try {
+            encode(date, entry);
 
-        NodeList nodeList = document.getElementsByTagName("entry");
-        Element node = (Element) nodeList.item(0);
-        node.appendChild(document.createTextNode(getEntryContent(entry)));
+            // only completely encoded entries reaches the writer
+            buffer.writeTo(writer);
+            writer.println();
 
-        StringWriter out = new StringWriter();
-        StreamResult outputTarget = new StreamResult(out);
-        DOMSource source = new DOMSource(document);
+            bytesWritten += buffer.utf8Length() + LINE_SEPARATOR_LENGTH;
 
-        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "yes");
-        transformer.transform(source, outputTarget);
+            if(autoFlush) {
+                flush();
+            }
+        } finally {
+            if(buffer.size() > MAX_RETAINED_BUFFER_SIZE) {
+                buffer = new EntryBuffer();
+            }
+        }
+    }
 
-        StringBuffer buf = out.getBuffer();
-        return buf.toString();
+    public void write(Entry entry) throws IOException {
+        write(new Date(), entry);
     }
 
-    public void write(Date date, Entry entry) throws ParserConfigurationException, SAXException, IOException, TransformerException {
-        writer.println(createXMLString(date, entry));
+    public void flush() {
         writer.flush();
-    }
-    public void write(Entry entry) throws ParserConfigurationException, SAXException, IOException, TransformerException {
-        write(new Date(), entry);
+        flushCount++;
     }
 
     public void close() {
         writer.write("</piraso>");
         writer.close();
     }
+
+    /**
+     * Writes to {@link #buffer} escaping xml reserved characters, contiguous runs of characters that
+     * need no escaping are copied as is.
+     */
+    private class XMLEscapeWriter extends Writer {
+
+        private boolean attribute;
+
+        private XMLEscapeWriter(boolean attribute) {
+            this.attribute = attribute;
+        }
+
+        private String escape(char c) {
+            switch (c) {
+                case '&': return "&amp;";
+                case '<': return "&lt;";
+                case '>': return attribute ? null : "&gt;";
+                case '"': return attribute ? "&quot;" : null;
+                case '\r': return "&#13;";
+                case '\n': return attribute ? "&#10;" : null;
+                case '\t': return attribute ? "&#9;" : null;
+                default: return null;
+            }
+        }
+
+        @Override
+        public void write(char[] chars, int off, int len) throws IOException {
+            int start = off;
+            int end = off + len;
+
+            for(int i = off; i < end; i++) {
+                String escaped = escape(chars[i]);
+
+                if(escaped != null) {
+                    buffer.write(chars, start, i - start);
+                    buffer.write(escaped);
+                    start = i + 1;
+                }
+            }
+
+            buffer.write(chars, start, end - start);
+        }
+
+        @Override
+        public void write(String str, int off, int len) throws IOException {
+            int start = off;
+            int end = off + len;
+
+            for(int i = off; i < end; i++) {
+                String escaped = escape(str.charAt(i));
+
+                if(escaped != null) {
+                    buffer.write(str, start, i - start);
+                    buffer.write(escaped);
+                    start = i + 1;
+                }
+            }
+
+            buffer.write(str, start, end - start);
+        }
+
+        @Override
+        public void flush() throws IOException {
+        }
+
+        /**
+         * Jackson closes the target writer after each value, the buffer is reused so this does nothing.
+         */
+        @Override
+        public void close() throws IOException {
+        }
+    }
+
+    /**
+     * Entry buffer which is able to compute the UTF-8 encoded length of its content without copying it.
+     */
+    private static class EntryBuffer extends CharArrayWriter {
+
+        private EntryBuffer() {
+            super(INITIAL_BUFFER_SIZE);
+        }
+
+        private int utf8Length() {
+            int length = 0;
+
+            for(int i = 0; i < count; i++) {
+                char c = buf[i];
+
+                if(c < 0x80) {
+                    length++;
+                } else if(c < 0x800) {
+                    length += 2;
+                } else if(Character.isHighSurrogate(c) && i + 1 < count && Character.isLowSurrogate(buf[i + 1])) {
+                    length += 4;
+                    i++;
+                } else {
+                    length += 3;
+                }
+            }
+
+            return length;
+        }
+    }
 }
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.api;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Test for {@link PatternMatcher} class.
+ */
+public class PatternMatcherTest {
+
+    @Test
+    public void testFirstMatchingPropertyDecides() throws Exception {
+        Map<String, Boolean> properties = new LinkedHashMap<String, Boolean>();
+        properties.put("a\\..*", false);
+        properties.put(".*", true);
+
+        PatternMatcher matcher = PatternMatcher.forProperties(properties);
+
+        assertFalse(matcher.matches("a.b"));
+        assertTrue(matcher.matches("b.c"));
+    }
+
+    @Test
+    public void testIsCompiledFrom() throws Exception {
+        List<String> urlPatterns = Arrays.asList("/a/.*", "/b/.*");
+        PatternMatcher matcher = PatternMatcher.forUrlPatterns(urlPatterns);
+
+        assertTrue(matcher.isCompiledFrom(urlPatterns, 2));
+        assertFalse(matcher.isCompiledFrom(urlPatterns, 3));
+        assertFalse(matcher.isCompiledFrom(Arrays.asList("/a/.*", "/b/.*"), 2));
+    }
+
+    @Test
+    public void testBoundedCache() throws Exception {
+        PatternMatcher matcher = PatternMatcher.forUrlPatterns(Arrays.asList("/even/.*"));
+
+        for(int i = 0; i < PatternMatcher.MAX_CACHED_NAMES * 3; i++) {
+            assertTrue(matcher.matches("/even/" + i));
+            assertFalse(matcher.matches("/odd/" + i));
+        }
+
+        assertTrue(matcher.getCacheSize() <= PatternMatcher.MAX_CACHED_NAMES);
+    }
+}
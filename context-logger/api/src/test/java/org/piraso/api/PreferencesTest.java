@@ -21,8 +21,8 @@ package org.piraso.api;
 import org.hamcrest.CoreMatchers;
 import org.junit.Test;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
+import java.util.regex.PatternSyntaxException;
 
 import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertTrue;
@@ -126,6 +126,78 @@ public class PreferencesTest extends AbstractJacksonTest {
 
     @Test
     public void testIsRegex() throws Exception {
+        Preferences preferences = new Preferences();
+
+        assertFalse(preferences.isRegexEnabled("log4j.org.piraso.DEBUG"));
+
+        preferences.addProperty("log4j\\.org\\.piraso\\..*", true);
+        preferences.addProperty("log4j\\.org\\.apache\\..*", false);
+
+        assertTrue(preferences.isRegexEnabled("log4j.org.piraso.DEBUG"));
+        assertTrue(preferences.isRegexEnabled("log4j.org.piraso.DEBUG"));
+        assertFalse(preferences.isRegexEnabled("log4j.org.apache.DEBUG"));
+        assertFalse(preferences.isRegexEnabled("log4j.com.example.DEBUG"));
+    }
+
+    @Test
+    public void testIsRegexRecompiledOnChange() throws Exception {
+        Preferences preferences = new Preferences();
+
+        preferences.addProperty("bridge\\..*", false);
+        assertFalse(preferences.isRegexEnabled("bridge.server1"));
+
+        preferences.addProperty("bridge\\..*", true);
+        assertTrue(preferences.isRegexEnabled("bridge.server1"));
+
+        // changed directly on the map
+        preferences.getBooleanProperties().put("other\\..*", true);
+        assertTrue(preferences.isRegexEnabled("other.value"));
+
+        Map<String, Boolean> properties = new HashMap<String, Boolean>();
+        properties.put("bridge\\..*", false);
+        preferences.setBooleanProperties(properties);
+        assertFalse(preferences.isRegexEnabled("bridge.server1"));
+    }
+
+    @Test(expected = PatternSyntaxException.class)
+    public void testIsRegexInvalidPattern() throws Exception {
+        Preferences preferences = new Preferences();
+
+        preferences.addProperty("invalid[", true);
+        preferences.isRegexEnabled("invalid");
+    }
+
+    @Test
+    public void testUrlPatternRecompiledOnChange() throws Exception {
+        Preferences preferences = new Preferences();
+
+        preferences.addUrlPattern("/valid/.*");
+        assertTrue(preferences.isUrlAcceptable("/valid/page"));
+        assertFalse(preferences.isUrlAcceptable("/other/page"));
+
+        preferences.addUrlPattern("/other/.*");
+        assertTrue(preferences.isUrlAcceptable("/other/page"));
+
+        preferences.setUrlPatterns(new ArrayList<String>(Arrays.asList("/third/.*")));
+        assertFalse(preferences.isUrlAcceptable("/valid/page"));
+        assertTrue(preferences.isUrlAcceptable("/third/page"));
+    }
+
+    @Test
+    public void testCompiledMatchersIgnoredByEquals() throws Exception {
+        Preferences p1 = new Preferences();
+        p1.addProperty("true", true);
+        p1.addUrlPattern("/test");
+
+        Preferences p2 = new Preferences();
+        p2.addProperty("true", true);
+        p2.addUrlPattern("/test");
+
+        p1.isRegexEnabled("true");
+        p1.isUrlAcceptable("/test");
 
+        assertThat(p1, is(p2));
+        assertThat(p1.hashCode(), is(p2.hashCode()));
+        assertThat(mapper.writeValueAsString(p1), is(mapper.writeValueAsString(p2)));
     }
 }
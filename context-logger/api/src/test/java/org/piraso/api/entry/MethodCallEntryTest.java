@@ -141,6 +141,20 @@ public class MethodCallEntryTest extends AbstractJacksonTest {
         assertThat(set.size(), is(3));
     }
 
+    @Test
+    public void testSharedMetadata() throws NoSuchMethodException {
+        Method method = Integer.class.getMethod("valueOf", new Class[] {String.class});
+
+        MethodCallEntry e1 = new MethodCallEntry(method);
+        MethodCallEntry e2 = new MethodCallEntry(Integer.class.getMethod("valueOf", new Class[] {String.class}));
+
+        assertThat(e1.getGenericString(), is(method.toGenericString()));
+        assertThat(e1.getParameterClassNames(), is(new String[] {String.class.getName()}));
+        assertThat(e1.getParameterClassNames() == e2.getParameterClassNames(), is(true));
+        assertThat(e1.getGenericString() == e2.getGenericString(), is(true));
+        assertThat(MethodMetadata.getCacheSize() <= MethodMetadata.MAX_CACHED_METHODS, is(true));
+    }
+
     private static class ClassWithException {
 
         public void methodWrapRethrown() {
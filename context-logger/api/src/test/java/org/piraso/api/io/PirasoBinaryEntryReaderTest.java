@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.piraso.api.io;
+
+import org.junit.Test;
+import org.piraso.api.entry.*;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link PirasoBinaryEntryReader} and {@link PirasoBinaryEntryWriter} classes.
+ */
+public class PirasoBinaryEntryReaderTest {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        Date date = new Date(1319349832439l);
+        String message = "<tag> & \u00e9\u4e2d\ud83d\ude00";
+
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        PirasoBinaryEntryWriter writer = new PirasoBinaryEntryWriter("id", null, buf);
+        writer.write(date, new MessageEntry(1l, message));
+        writer.write(date, new MessageEntry(2l, "second"));
+        writer.write(date, new RawEntry(3l, MessageEntry.class.getName(), "{\"requestId\":3,\"message\":\"raw\"}"));
+        writer.close();
+
+        assertEquals(buf.size() - 5, writer.getBytesWritten());
+
+        final List<Entry> entriesRead = new ArrayList<Entry>();
+        final List<Long> idsRead = new ArrayList<Long>();
+        final List<Date> datesRead = new ArrayList<Date>();
+
+        PirasoBinaryEntryReader reader = new PirasoBinaryEntryReader(new ByteArrayInputStream(buf.toByteArray()));
+        reader.addListener(new EntryReadAdapter() {
+            @Override
+            public void readEntry(EntryReadEvent evt) {
+                entriesRead.add(evt.getEntry());
+                idsRead.add(evt.getRequestId());
+                datesRead.add(evt.getDate());
+            }
+        });
+        reader.start();
+
+        assertEquals("id", reader.getId());
+        assertNull(reader.getWatchedAddr());
+        assertEquals(3, entriesRead.size());
+        assertEquals(new MessageEntry(1l, message), entriesRead.get(0));
+        assertEquals(new MessageEntry(2l, "second"), entriesRead.get(1));
+        assertEquals(new MessageEntry(3l, "raw"), entriesRead.get(2));
+        assertEquals(Long.valueOf(3l), idsRead.get(2));
+        assertEquals(date, datesRead.get(0));
+    }
+
+    @Test
+    public void testDictionaryRoundTrip() throws Exception {
+        List<Entry> entries = new ArrayList<Entry>();
+        for(int i = 0; i < 3; i++) {
+            MethodCallEntry entry = new MethodCallEntry(Integer.class.getMethod("valueOf", new Class[] {String.class}));
+            entry.setRequestId((long) i);
+            entry.setArguments(EntryUtils.toEntry(new Object[] {"\u00A7" + i}));
+            entry.setStackTrace(EntryUtils.toEntry(Thread.currentThread().getStackTrace()));
+            entries.add(entry);
+        }
+
+        entries.add(new MessageEntry(3l, "\u00A71"));
+        entries.add(new RawEntry(4l, MessageEntry.class.getName(), "{\"requestId\":4,\"message\":\"raw\"}"));
+
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        PirasoBinaryEntryWriter plainWriter = new PirasoBinaryEntryWriter("id", "addr", plain);
+
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        PirasoBinaryEntryWriter writer = new PirasoBinaryEntryWriter("id", "addr", buf, true);
+
+        for(Entry entry : entries) {
+            plainWriter.write(entry);
+            writer.write(entry);
+        }
+
+        plainWriter.close();
+        writer.close();
+
+        assertEquals(buf.size() - 5, writer.getBytesWritten());
+        assertTrue(buf.size() < plain.size());
+
+        final List<Entry> entriesRead = new ArrayList<Entry>();
+
+        PirasoBinaryEntryReader reader = new PirasoBinaryEntryReader(new ByteArrayInputStream(buf.toByteArray()));
+        reader.addListener(new EntryReadAdapter() {
+            @Override
+            public void readEntry(EntryReadEvent evt) {
+                entriesRead.add(evt.getEntry());
+            }
+        });
+        reader.start();
+
+        assertEquals(entries.subList(0, 4), entriesRead.subList(0, 4));
+        assertEquals(new MessageEntry(4l, "raw"), entriesRead.get(4));
+    }
+
+    @Test
+    public void testSkipUnknownFrameAndMissingEnd() throws Exception {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        PirasoBinaryEntryWriter writer = new PirasoBinaryEntryWriter("1", "2", buf);
+        writer.write(new MessageEntry(1l, "before"));
+
+        DataOutputStream out = new DataOutputStream(buf);
+        out.writeInt(4);
+        out.writeByte(99);
+        out.write(new byte[] {1, 2, 3});
+
+        // stream ends abruptly without an end frame
+        writer.write(new MessageEntry(1l, "after"));
+
+        final List<Entry> entriesRead = new ArrayList<Entry>();
+
+        PirasoBinaryEntryReader reader = new PirasoBinaryEntryReader(new ByteArrayInputStream(buf.toByteArray()));
+        reader.addListener(new EntryReadAdapter() {
+            @Override
+            public void readEntry(EntryReadEvent evt) {
+                entriesRead.add(evt.getEntry());
+            }
+        });
+        reader.start();
+
+        assertEquals(2, entriesRead.size());
+        assertEquals(new MessageEntry(1l, "after"), entriesRead.get(1));
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidStream() throws Exception {
+        new PirasoBinaryEntryReader(new ByteArrayInputStream("<?xml version=\"1.0\"?>".getBytes())).start();
+    }
+}
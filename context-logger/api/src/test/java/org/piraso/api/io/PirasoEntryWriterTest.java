@@ -18,13 +18,21 @@
 
 package org.piraso.api.io;
 
+import org.piraso.api.entry.Entry;
 import org.piraso.api.entry.MessageEntry;
+import org.piraso.api.entry.RawEntry;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
 
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
 
 /**
  * Test for {@link PirasoEntryWriter} classes.
@@ -47,4 +55,96 @@ public class PirasoEntryWriterTest {
         assertTrue(actual.contains("message"));
         assertTrue(actual.contains(MessageEntry.class.getName()));
     }
+
+    @Test
+    public void testWriteEscapedRoundTrip() throws Exception {
+        String message = "<tag attr=\"value\">a & b ]]> \r\n\ttabbed \u00e9\u4e2d\ud83d\ude00</tag>";
+        String rawContent = "{\"requestId\":2,\"message\":\"raw <content> & \\\"quoted\\\"\"}";
+        Date date = new Date(1319349832439l);
+
+        StringWriter buf = new StringWriter();
+        PirasoEntryWriter writer = new PirasoEntryWriter("id&<\"'>", "127.0.0.1", new PrintWriter(buf));
+        writer.write(date, new MessageEntry(1l, message));
+        writer.write(date, new RawEntry(2l, MessageEntry.class.getName(), rawContent));
+        writer.close();
+
+        final List<Entry> entriesRead = new ArrayList<Entry>();
+        final List<Date> datesRead = new ArrayList<Date>();
+        final List<String> idsRead = new ArrayList<String>();
+
+        PirasoEntryReader reader = new PirasoEntryReader(new ByteArrayInputStream(buf.toString().getBytes("UTF-8")));
+        reader.addListener(new EntryReadAdapter() {
+            @Override
+            public void started(EntryReadEvent evt) {
+                idsRead.add(evt.getId());
+            }
+
+            @Override
+            public void readEntry(EntryReadEvent evt) {
+                entriesRead.add(evt.getEntry());
+                datesRead.add(evt.getDate());
+            }
+        });
+        reader.start();
+
+        assertEquals("id&<\"'>", idsRead.get(0));
+        assertEquals(2, entriesRead.size());
+        assertEquals(new MessageEntry(1l, message), entriesRead.get(0));
+        assertEquals(new MessageEntry(2l, "raw <content> & \"quoted\""), entriesRead.get(1));
+        assertEquals(date, datesRead.get(0));
+    }
+
+    @Test
+    public void testWriteFailureLeavesNoPartialEntry() throws Exception {
+        StringWriter buf = new StringWriter();
+
+        PirasoEntryWriter writer = new PirasoEntryWriter("1", "2", new PrintWriter(buf));
+        String header = buf.toString();
+
+        try {
+            writer.write(new ExceptionThrowEntry(1l));
+            fail("expected serialization failure");
+        } catch (IOException expected) {
+        }
+
+        assertEquals(header, buf.toString());
+
+        writer.write(new MessageEntry(1l, "message"));
+        writer.close();
+
+        assertFalse(buf.toString().contains(ExceptionThrowEntry.class.getName()));
+        assertTrue(buf.toString().contains("message"));
+    }
+
+    @Test
+    public void testNoAutoFlush() throws Exception {
+        StringWriter buf = new StringWriter();
+        PrintWriter out = spy(new PrintWriter(buf));
+
+        PirasoEntryWriter writer = new PirasoEntryWriter("1", "2", out);
+        writer.setAutoFlush(false);
+        writer.write(new MessageEntry(1l, "message"));
+        writer.write(new MessageEntry(1l, "\u00e9"));
+
+        // header only
+        verify(out, times(1)).flush();
+        assertEquals(1, writer.getFlushCount());
+
+        writer.flush();
+
+        verify(out, times(2)).flush();
+        assertEquals(2, writer.getFlushCount());
+        assertEquals(buf.toString().getBytes("UTF-8").length, writer.getBytesWritten());
+    }
+
+    private static class ExceptionThrowEntry extends Entry {
+
+        private ExceptionThrowEntry(Long requestId) {
+            setRequestId(requestId);
+        }
+
+        public String getPropertyThatThrowException() {
+            throw new IllegalStateException("always thrown");
+        }
+    }
 }
@@ -0,0 +1,312 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.piraso.client.net;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.params.ClientParamBean;
+import org.apache.http.conn.ClientConnectionRequest;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ManagedClientConnection;
+import org.apache.http.conn.params.ConnManagerParamBean;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
+import org.apache.http.params.BasicHttpParams;
+import org.apache.http.params.HttpConnectionParamBean;
+import org.apache.http.params.HttpParams;
+import org.apache.http.protocol.HttpContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Shared pool of persistent connections and the http client using it. Connections are kept alive for the time
+ * the server tells, or {@link #setKeepAlive(long)} if it does not, and are checked for staleness before reuse.
+ * Idle connections are closed from a background thread.
+ * <p>
+ * The number of leased and available connections and the time spent waiting for a connection are available
+ * as pool metrics.
+ */
+public class HttpClientPool {
+
+    public static final int DEFAULT_MAX_TOTAL = 100;
+
+    public static final int DEFAULT_MAX_PER_ROUTE = 20;
+
+    public static final int DEFAULT_CONNECTION_TIMEOUT = 3000;
+
+    public static final int DEFAULT_SO_TIMEOUT = 30000;
+
+    public static final long DEFAULT_CONNECTION_REQUEST_TIMEOUT = 5000l;
+
+    public static final long DEFAULT_KEEP_ALIVE = 30000l;
+
+    public static final long DEFAULT_IDLE_TIMEOUT = 60000l;
+
+    private int maxTotal = DEFAULT_MAX_TOTAL;
+
+    private int maxPerRoute = DEFAULT_MAX_PER_ROUTE;
+
+    private int connectionTimeout = DEFAULT_CONNECTION_TIMEOUT;
+
+    private int soTimeout = DEFAULT_SO_TIMEOUT;
+
+    private long connectionRequestTimeout = DEFAULT_CONNECTION_REQUEST_TIMEOUT;
+
+    private long keepAlive = DEFAULT_KEEP_ALIVE;
+
+    private long idleTimeout = DEFAULT_IDLE_TIMEOUT;
+
+    private boolean staleCheckingEnabled = true;
+
+    private volatile MeteredConnManager manager;
+
+    private DefaultHttpClient client;
+
+    private Thread evictor;
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public void setMaxPerRoute(int maxPerRoute) {
+        this.maxPerRoute = maxPerRoute;
+    }
+
+    public void setConnectionTimeout(int connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    public void setSoTimeout(int soTimeout) {
+        this.soTimeout = soTimeout;
+    }
+
+    /**
+     * @param connectionRequestTimeout the maximum time in milliseconds to wait for a pooled connection, a request
+     * fails with a {@link ConnectionPoolTimeoutException} afterwards
+     */
+    public void setConnectionRequestTimeout(long connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    /**
+     * @param keepAlive the time in milliseconds an idle connection is kept when the server does not tell
+     */
+    public void setKeepAlive(long keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * @param idleTimeout the time in milliseconds after which idle connections are closed
+     */
+    public void setIdleTimeout(long idleTimeout) {
+        this.idleTimeout = idleTimeout;
+    }
+
+    public void setStaleCheckingEnabled(boolean staleCheckingEnabled) {
+        this.staleCheckingEnabled = staleCheckingEnabled;
+    }
+
+    public synchronized void init() {
+        if(client != null) {
+            return;
+        }
+
+        manager = new MeteredConnManager();
+        manager.setMaxTotal(maxTotal);
+        manager.setDefaultMaxPerRoute(maxPerRoute);
+
+        HttpParams params = new BasicHttpParams();
+
+        HttpConnectionParamBean connParamBean = new HttpConnectionParamBean(params);
+        connParamBean.setConnectionTimeout(connectionTimeout);
+        connParamBean.setSoTimeout(soTimeout);
+        connParamBean.setStaleCheckingEnabled(staleCheckingEnabled);
+        connParamBean.setTcpNoDelay(true);
+
+        new ClientParamBean(params).setAllowCircularRedirects(true);
+        new ConnManagerParamBean(params).setTimeout(connectionRequestTimeout);
+
+        client = new DefaultHttpClient(manager, params);
+        client.setKeepAliveStrategy(new DefaultKeepAliveStrategy());
+
+        evictor = new Thread(new IdleConnectionEvictor(manager), "piraso-http-idle-evictor");
+        evictor.setDaemon(true);
+        evictor.start();
+    }
+
+    /**
+     * Closes every pooled connection, the client can not be used afterwards.
+     */
+    public synchronized void shutdown() {
+        if(client == null) {
+            return;
+        }
+
+        evictor.interrupt();
+        manager.shutdown();
+
+        evictor = null;
+        client = null;
+        manager = null;
+    }
+
+    public synchronized DefaultHttpClient getClient() {
+        init();
+
+        return client;
+    }
+
+    /**
+     * @return the number of connections currently in use
+     */
+    public int getLeasedConnections() {
+        MeteredConnManager current = manager;
+
+        return current != null ? current.leased.get() : 0;
+    }
+
+    /**
+     * @return the number of pooled connections not in use
+     */
+    public int getAvailableConnections() {
+        MeteredConnManager current = manager;
+
+        return current != null ? Math.max(current.getConnectionsInPool() - current.leased.get(), 0) : 0;
+    }
+
+    /**
+     * @return the number of connections leased since the pool was created
+     */
+    public long getLeaseCount() {
+        MeteredConnManager current = manager;
+
+        return current != null ? current.leaseCount.get() : 0;
+    }
+
+    /**
+     * @return the total time in milliseconds spent waiting for a connection
+     */
+    public long getTotalWaitTime() {
+        MeteredConnManager current = manager;
+
+        return current != null ? TimeUnit.NANOSECONDS.toMillis(current.waitNanos.get()) : 0;
+    }
+
+    /**
+     * @return the longest time in milliseconds spent waiting for a connection
+     */
+    public long getMaxWaitTime() {
+        MeteredConnManager current = manager;
+
+        return current != null ? TimeUnit.NANOSECONDS.toMillis(current.maxWaitNanos.get()) : 0;
+    }
+
+    /**
+     * Counts the leased connections and the time spent waiting for them.
+     */
+    private static class MeteredConnManager extends ThreadSafeClientConnManager {
+
+        private final AtomicInteger leased = new AtomicInteger();
+
+        private final AtomicLong leaseCount = new AtomicLong();
+
+        private final AtomicLong waitNanos = new AtomicLong();
+
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        @Override
+        public ClientConnectionRequest requestConnection(HttpRoute route, Object state) {
+            final ClientConnectionRequest request = super.requestConnection(route, state);
+
+            return new ClientConnectionRequest() {
+                public ManagedClientConnection getConnection(long timeout, TimeUnit tunit) throws InterruptedException, ConnectionPoolTimeoutException {
+                    long start = System.nanoTime();
+                    ManagedClientConnection connection = request.getConnection(timeout, tunit);
+
+                    leased(System.nanoTime() - start);
+
+                    return connection;
+                }
+
+                public void abortRequest() {
+                    request.abortRequest();
+                }
+            };
+        }
+
+        private void leased(long wait) {
+            leased.incrementAndGet();
+            leaseCount.incrementAndGet();
+            waitNanos.addAndGet(wait);
+
+            long max = maxWaitNanos.get();
+            while(wait > max && !maxWaitNanos.compareAndSet(max, wait)) {
+                max = maxWaitNanos.get();
+            }
+        }
+
+        @Override
+        public void releaseConnection(ManagedClientConnection conn, long validDuration, TimeUnit timeUnit) {
+            try {
+                super.releaseConnection(conn, validDuration, timeUnit);
+            } finally {
+                leased.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Keeps connections alive for the time the server tells, {@link #keepAlive} otherwise.
+     */
+    private class DefaultKeepAliveStrategy implements ConnectionKeepAliveStrategy {
+        private final ConnectionKeepAliveStrategy delegate = new DefaultConnectionKeepAliveStrategy();
+
+        public long getKeepAliveDuration(HttpResponse response, HttpContext context) {
+            long duration = delegate.getKeepAliveDuration(response, context);
+
+            return duration > 0 ? duration : keepAlive;
+        }
+    }
+
+    private class IdleConnectionEvictor implements Runnable {
+        private final ThreadSafeClientConnManager manager;
+
+        private IdleConnectionEvictor(ThreadSafeClientConnManager manager) {
+            this.manager = manager;
+        }
+
+        public void run() {
+            try {
+                while(!Thread.currentThread().isInterrupted()) {
+                    Thread.sleep(Math.max(idleTimeout / 2, 1000l));
+
+                    manager.closeExpiredConnections();
+                    manager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                // pool shut down
+            }
+        }
+    }
+}
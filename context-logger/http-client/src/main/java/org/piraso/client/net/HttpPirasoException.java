@@ -24,7 +24,22 @@ import java.io.IOException;
  * Http piraso exception.
  */
 public class HttpPirasoException extends IOException {
+
+    private int statusCode;
+
     public HttpPirasoException(String s) {
         super(s);
     }
+
+    public HttpPirasoException(String s, int statusCode) {
+        super(s);
+        this.statusCode = statusCode;
+    }
+
+    /**
+     * @return the http status code answered, <code>0</code> if not caused by an error status
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
 }
@@ -21,6 +21,7 @@ package org.piraso.client.net;
 import org.piraso.api.JacksonUtils;
 import org.piraso.api.Preferences;
 import org.piraso.api.io.EntryReadListener;
+import org.piraso.api.io.PirasoBinaryEntryReader;
 import org.piraso.api.io.PirasoEntryReader;
 import org.apache.commons.lang.Validate;
 import org.apache.http.*;
@@ -35,15 +36,22 @@ import org.xml.sax.SAXException;
 
 import javax.xml.parsers.ParserConfigurationException;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import static org.piraso.api.PirasoConstants.*;
 
 /**
  * Piraso start handler
+ * <p>
+ * Requests the compact binary entry stream unless disabled, and falls back to the xml entry stream when the
+ * server responds with it. A gzip or deflate compressed stream is requested when enabled, and decompressed
+ * incrementally as it arrives.
  */
 public class HttpPirasoStartHandler extends AbstractHttpHandler {
 
@@ -57,6 +65,12 @@ public class HttpPirasoStartHandler extends AbstractHttpHandler {
 
     private boolean complete;
 
+    private boolean binaryFormat = true;
+
+    private boolean compressed;
+
+    private boolean dictionary = true;
+
     private HttpEntity responseEntity;
 
     private List<EntryReadListener> listeners = Collections.synchronizedList(new LinkedList<EntryReadListener>());
@@ -75,6 +89,23 @@ public class HttpPirasoStartHandler extends AbstractHttpHandler {
         this.watchedAddr = watchedAddr;
     }
 
+    public void setBinaryFormat(boolean binaryFormat) {
+        this.binaryFormat = binaryFormat;
+    }
+
+    public void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+
+    /**
+     * Determines whether binary streams may use a string dictionary, servers not supporting it ignore the request.
+     *
+     * @param dictionary {@code false} to request streams without dictionary
+     */
+    public void setDictionary(boolean dictionary) {
+        this.dictionary = dictionary;
+    }
+
     public String getWatchedAddr() {
         return reader.getWatchedAddr();
     }
@@ -102,6 +133,19 @@ public class HttpPirasoStartHandler extends AbstractHttpHandler {
             params.add(new BasicNameValuePair(WATCHED_ADDR_PARAMETER, watchedAddr));
         }
 
+        if(binaryFormat) {
+            params.add(new BasicNameValuePair(FORMAT_PARAMETER, FORMAT_BINARY_PARAMETER_VALUE));
+            post.setHeader("Accept", BINARY_CONTENT_TYPE + ", " + XML_CONTENT_TYPE);
+
+            if(dictionary) {
+                params.add(new BasicNameValuePair(DICTIONARY_PARAMETER, String.valueOf(true)));
+            }
+        }
+
+        if(compressed) {
+            post.setHeader(ACCEPT_ENCODING_HEADER, GZIP_CONTENT_ENCODING + ", " + DEFLATE_CONTENT_ENCODING);
+        }
+
         post.setEntity(new UrlEncodedFormEntity(params, ENCODING_UTF_8));
 
         HttpResponse response = client.execute(targetHost, post, context);
@@ -114,12 +158,15 @@ public class HttpPirasoStartHandler extends AbstractHttpHandler {
         responseEntity = response.getEntity();
         String contentType = responseEntity.getContentType().getValue().toLowerCase();
 
-        if(!contentType.contains(XML_CONTENT_TYPE)) {
+        if(contentType.contains(BINARY_CONTENT_TYPE)) {
+            reader = new PirasoBinaryEntryReader(getContent());
+        } else if(contentType.contains(XML_CONTENT_TYPE)) {
+            // servers not supporting the binary format
+            reader = new PirasoEntryReader(getContent());
+        } else {
             throw new HttpPirasoException("Invalid response content type: " + responseEntity.getContentType());
         }
 
-        reader = new PirasoEntryReader(responseEntity.getContent());
-
         for(EntryReadListener listener : listeners) {
             reader.addListener(listener);
         }
@@ -127,6 +174,18 @@ public class HttpPirasoStartHandler extends AbstractHttpHandler {
         reader.start();
     }
 
+    private InputStream getContent() throws IOException {
+        Header encoding = responseEntity.getContentEncoding();
+
+        if(encoding != null && GZIP_CONTENT_ENCODING.equalsIgnoreCase(encoding.getValue())) {
+            return new GZIPInputStream(responseEntity.getContent());
+        } else if(encoding != null && DEFLATE_CONTENT_ENCODING.equalsIgnoreCase(encoding.getValue())) {
+            return new InflaterInputStream(responseEntity.getContent());
+        }
+
+        return responseEntity.getContent();
+    }
+
     public boolean isComplete() {
         return complete;
     }
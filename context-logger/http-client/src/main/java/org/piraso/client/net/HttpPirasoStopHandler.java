@@ -28,6 +28,7 @@ import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.message.BasicNameValuePair;
 import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -65,8 +66,13 @@ public class HttpPirasoStopHandler extends AbstractHttpHandler {
         HttpResponse response = client.execute(targetHost, post, context);
         StatusLine status = response.getStatusLine();
 
-        if(status.getStatusCode() != HttpStatus.SC_OK) {
-            throw new HttpPirasoException(status.toString());
+        try {
+            if(status.getStatusCode() != HttpStatus.SC_OK) {
+                throw new HttpPirasoException(status.toString());
+            }
+        } finally {
+            // releases the connection to the pool
+            EntityUtils.consume(response.getEntity());
         }
     }
 }
@@ -0,0 +1,118 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.piraso.client.net;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.fail;
+
+/**
+ * Test for {@link HttpClientPool} class.
+ */
+public class HttpClientPoolTest {
+
+    private HttpServer server;
+
+    private HttpClientPool pool;
+
+    @Before
+    public void setUp() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/test", new HttpHandler() {
+            public void handle(HttpExchange exchange) throws IOException {
+                byte[] body = "ok".getBytes("UTF-8");
+                exchange.sendResponseHeaders(200, body.length);
+
+                OutputStream out = exchange.getResponseBody();
+                out.write(body);
+                out.close();
+            }
+        });
+        server.start();
+
+        pool = new HttpClientPool();
+        pool.setMaxPerRoute(2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        pool.shutdown();
+        server.stop(0);
+    }
+
+    @Test
+    public void testConnectionReused() throws Exception {
+        String uri = String.format("http://127.0.0.1:%d/test", server.getAddress().getPort());
+
+        for(int i = 0; i < 3; i++) {
+            HttpResponse response = pool.getClient().execute(new HttpGet(uri));
+
+            assertEquals(1, pool.getLeasedConnections());
+            assertEquals("ok", EntityUtils.toString(response.getEntity()));
+        }
+
+        assertEquals(0, pool.getLeasedConnections());
+        assertEquals(1, pool.getAvailableConnections());
+        assertEquals(3, pool.getLeaseCount());
+    }
+
+    @Test
+    public void testConnectionRequestTimeout() throws Exception {
+        String uri = String.format("http://127.0.0.1:%d/test", server.getAddress().getPort());
+
+        pool.setMaxPerRoute(1);
+        pool.setConnectionRequestTimeout(100l);
+
+        // the entity is not consumed, the connection stays leased
+        pool.getClient().execute(new HttpGet(uri));
+
+        try {
+            pool.getClient().execute(new HttpGet(uri));
+            fail("expected a pool timeout");
+        } catch(ConnectionPoolTimeoutException e) {
+            assertEquals(1, pool.getLeasedConnections());
+        }
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        assertNotNull(pool.getClient());
+
+        pool.shutdown();
+
+        assertEquals(0, pool.getLeasedConnections());
+        assertEquals(0, pool.getAvailableConnections());
+    }
+}
@@ -20,9 +20,11 @@ package org.piraso.client.net;
 
 import org.piraso.api.Preferences;
 import org.piraso.api.entry.Entry;
+import org.piraso.api.entry.MessageEntry;
 import org.piraso.api.io.EntryReadAdapter;
 import org.piraso.api.io.EntryReadEvent;
 import org.piraso.api.io.EntryReadListener;
+import org.piraso.api.io.PirasoBinaryEntryWriter;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.http.*;
 import org.apache.http.client.HttpClient;
@@ -30,6 +32,7 @@ import org.apache.http.client.entity.UrlEncodedFormEntity;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.message.BasicStatusLine;
 import org.apache.http.protocol.HttpContext;
+import org.apache.http.util.EntityUtils;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Matchers;
@@ -37,10 +40,12 @@ import org.mockito.invocation.InvocationOnMock;
 import org.mockito.stubbing.Answer;
 
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.zip.GZIPOutputStream;
 
-import static org.piraso.api.PirasoConstants.XML_CONTENT_TYPE;
+import static org.piraso.api.PirasoConstants.*;
 import static junit.framework.Assert.*;
 import static org.mockito.Mockito.*;
 
@@ -127,6 +132,79 @@ public class HttpPirasoEntryReaderTest {
         verify(client).execute(Matchers.<HttpHost>any(), Matchers.<HttpRequest>any(), Matchers.<HttpContext>any());
     }
 
+    @Test
+    public void testStartBinaryFormat() throws Exception {
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        PirasoBinaryEntryWriter writer = new PirasoBinaryEntryWriter("1", "127.0.0.1", buf);
+        writer.write(new MessageEntry(1l, "message"));
+        writer.close();
+
+        StatusLine line = new BasicStatusLine(new ProtocolVersion("http", 1, 0), HttpStatus.SC_OK, "");
+        doReturn(line).when(response).getStatusLine();
+
+        doReturn(new ByteArrayInputStream(buf.toByteArray())).when(entity).getContent();
+        doReturn(BINARY_CONTENT_TYPE).when(contentTypeHeader).getValue();
+
+        reader.getStartHandler().setPreferences(new Preferences());
+
+        final List<Entry> entries = new ArrayList<Entry>();
+
+        reader.getStartHandler().addListener(new EntryReadAdapter() {
+            @Override
+            public void readEntry(EntryReadEvent evt) {
+                entries.add(evt.getEntry());
+            }
+        });
+
+        reader.start();
+
+        assertEquals("1", reader.getStartHandler().getId());
+        assertEquals("127.0.0.1", reader.getStartHandler().getWatchedAddr());
+        assertEquals(1, CollectionUtils.size(entries));
+        assertTrue(capturedPost.getFirstHeader("Accept").getValue().contains(BINARY_CONTENT_TYPE));
+        assertTrue(EntityUtils.toString(capturedPost.getEntity()).contains(FORMAT_PARAMETER + "=" + FORMAT_BINARY_PARAMETER_VALUE));
+    }
+
+    @Test
+    public void testStartCompressed() throws Exception {
+        String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+                "<piraso id=\"1\" watched-address=\"127.0.0.1\">\n" +
+                "<entry class-name=\"org.piraso.api.entry.MessageEntry\" date=\"1319349832439\" id=\"1\">{\"message\":\"message\",\"elapseTime\":null}</entry>\n" +
+                "</piraso>";
+
+        ByteArrayOutputStream buf = new ByteArrayOutputStream();
+        GZIPOutputStream out = new GZIPOutputStream(buf);
+        out.write(xml.getBytes(ENCODING_UTF_8));
+        out.close();
+
+        Header contentEncodingHeader = mock(Header.class);
+        doReturn(GZIP_CONTENT_ENCODING).when(contentEncodingHeader).getValue();
+        doReturn(contentEncodingHeader).when(entity).getContentEncoding();
+
+        StatusLine line = new BasicStatusLine(new ProtocolVersion("http", 1, 0), HttpStatus.SC_OK, "");
+        doReturn(line).when(response).getStatusLine();
+
+        doReturn(new ByteArrayInputStream(buf.toByteArray())).when(entity).getContent();
+        doReturn(XML_CONTENT_TYPE).when(contentTypeHeader).getValue();
+
+        reader.getStartHandler().setPreferences(new Preferences());
+        reader.getStartHandler().setCompressed(true);
+
+        final List<Entry> entries = new ArrayList<Entry>();
+
+        reader.getStartHandler().addListener(new EntryReadAdapter() {
+            @Override
+            public void readEntry(EntryReadEvent evt) {
+                entries.add(evt.getEntry());
+            }
+        });
+
+        reader.start();
+
+        assertEquals(1, CollectionUtils.size(entries));
+        assertTrue(capturedPost.getFirstHeader(ACCEPT_ENCODING_HEADER).getValue().contains(GZIP_CONTENT_ENCODING));
+    }
+
     @Test(expected = HttpPirasoException.class)
     public void testStartInvalidStatusCode() throws Exception {
         Preferences preferences = new Preferences();
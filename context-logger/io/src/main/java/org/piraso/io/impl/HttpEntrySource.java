@@ -20,14 +20,9 @@ package org.piraso.io.impl;
 
 import org.piraso.api.Preferences;
 import org.piraso.api.io.EntryReadListener;
+import org.piraso.client.net.HttpClientPool;
 import org.piraso.client.net.HttpPirasoEntryReader;
 import org.piraso.io.IOEntrySource;
-import org.apache.http.client.HttpClient;
-import org.apache.http.impl.client.DefaultHttpClient;
-import org.apache.http.impl.conn.tsccm.ThreadSafeClientConnManager;
-import org.apache.http.params.BasicHttpParams;
-import org.apache.http.params.HttpConnectionParamBean;
-import org.apache.http.params.HttpParams;
 import org.apache.http.protocol.BasicHttpContext;
 import org.apache.http.protocol.HttpContext;
 
@@ -42,6 +37,11 @@ public class HttpEntrySource implements IOEntrySource {
     
     private static final Logger LOG = Logger.getLogger(HttpEntrySource.class.getName());
 
+    /**
+     * Connections shared by every source, a monitoring stream holds its connection until stopped.
+     */
+    private static final HttpClientPool CLIENT_POOL = createClientPool();
+
     private HttpPirasoEntryReader reader;
 
     private boolean alive;
@@ -54,6 +54,8 @@ public class HttpEntrySource implements IOEntrySource {
 
     private String name;
 
+    private boolean compressed;
+
     public HttpEntrySource(Preferences preferences, String uri) {
         this(preferences, uri, null);
     }
@@ -64,9 +66,21 @@ public class HttpEntrySource implements IOEntrySource {
         this.watchedAddr = watchedAddr;
     }
 
+    private static HttpClientPool createClientPool() {
+        HttpClientPool pool = new HttpClientPool();
+
+        pool.setMaxTotal(200);
+        pool.setMaxPerRoute(100);
+        pool.setConnectionTimeout(3000);
+        pool.setSoTimeout(1000 * 60 * 120);
+
+        return pool;
+    }
+
     public IOEntrySource createNew() {
         HttpEntrySource source =  new HttpEntrySource(preferences, uri, watchedAddr);
         source.setName(name);
+        source.setCompressed(compressed);
 
         return source;
     }
@@ -75,27 +89,25 @@ public class HttpEntrySource implements IOEntrySource {
         this.name = name;
     }
 
+    /**
+     * Sets whether a compressed stream is requested from the server, useful on slow links.
+     *
+     * @param compressed {@code true} to request a compressed stream
+     */
+    public void setCompressed(boolean compressed) {
+        this.compressed = compressed;
+    }
+
     private void initReader() {
         alive = false;
 
-        ThreadSafeClientConnManager manager = new ThreadSafeClientConnManager();
-        manager.setDefaultMaxPerRoute(2);
-        manager.setMaxTotal(2);
-
-        HttpParams params = new BasicHttpParams();
-
-        // set timeout
-        HttpConnectionParamBean connParamBean = new HttpConnectionParamBean(params);
-        connParamBean.setConnectionTimeout(3000);
-        connParamBean.setSoTimeout(1000 * 60 * 120);
-
-        HttpClient client = new DefaultHttpClient(manager, params);
         HttpContext context = new BasicHttpContext();
 
-        this.reader = new HttpPirasoEntryReader(client, context);
+        this.reader = new HttpPirasoEntryReader(CLIENT_POOL.getClient(), context);
 
         reader.setUri(uri);
         reader.getStartHandler().setPreferences(preferences);
+        reader.getStartHandler().setCompressed(compressed);
 
         if(watchedAddr != null) {
             reader.getStartHandler().setWatchedAddr(watchedAddr);
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.proxy;
+
+import net.sf.cglib.proxy.*;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Creates proxies from classes generated once per proxied class, which call the target directly through
+ * {@link MethodProxy} instead of reflection. Only referenced when cglib is on the classpath.
+ */
+class CglibProxyFactory {
+
+    private static final Map<Class<?>, Factory> FACTORIES = new ConcurrentHashMap<Class<?>, Factory>();
+
+    private static final CallbackFilter OBJECT_METHOD_FILTER = new ObjectMethodFilter();
+
+    private static final Callback SUPER_INTERCEPTOR = new TargetMethodInterceptor<Object>(null, null);
+
+    private CglibProxyFactory() {}
+
+    /**
+     * Creates a proxy that extends or implements the given class and delegates to the target.
+     *
+     * @param proxyClass the class or interface the proxy extends or implements
+     * @param target the proxied object
+     * @param interceptor the interceptor notified of the calls with listeners
+     * @param <T> the proxied type
+     * @return the proxy
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T getProxy(Class<? extends T> proxyClass, T target, RegexMethodInterceptor<T> interceptor) {
+        // calls made by the proxied class constructor stay on the proxy instance
+        Factory proxy = (Factory) getFactory(proxyClass).newInstance(new Callback[] {SUPER_INTERCEPTOR, NoOp.INSTANCE});
+        proxy.setCallback(0, new TargetMethodInterceptor<T>(target, interceptor));
+
+        return (T) proxy;
+    }
+
+    private static Factory getFactory(Class<?> proxyClass) {
+        Factory factory = FACTORIES.get(proxyClass);
+
+        if(factory == null) {
+            Enhancer enhancer = new Enhancer();
+
+            if(proxyClass.isInterface()) {
+                enhancer.setInterfaces(new Class[] {proxyClass});
+            } else {
+                enhancer.setSuperclass(proxyClass);
+            }
+
+            enhancer.setCallbackFilter(OBJECT_METHOD_FILTER);
+            enhancer.setCallbacks(new Callback[] {SUPER_INTERCEPTOR, NoOp.INSTANCE});
+
+            factory = (Factory) enhancer.create();
+            FACTORIES.put(proxyClass, factory);
+        }
+
+        return factory;
+    }
+
+    /**
+     * Only equals, hashCode and toString are delegated from the methods declared by {@link Object}. Non public
+     * methods can not be invoked on the target and stay on the proxy instance.
+     */
+    private static class ObjectMethodFilter implements CallbackFilter {
+        public int accept(Method method) {
+            if(!Modifier.isPublic(method.getModifiers())) {
+                return 1;
+            }
+
+            if(method.getDeclaringClass() != Object.class) {
+                return 0;
+            }
+
+            String name = method.getName();
+            if("equals".equals(name) || "hashCode".equals(name) || "toString".equals(name)) {
+                return 0;
+            }
+
+            return 1;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof ObjectMethodFilter;
+        }
+
+        @Override
+        public int hashCode() {
+            return ObjectMethodFilter.class.hashCode();
+        }
+    }
+
+    private static class TargetMethodInterceptor<T> implements MethodInterceptor {
+
+        private final T target;
+
+        private final RegexMethodInterceptor<T> interceptor;
+
+        private TargetMethodInterceptor(T target, RegexMethodInterceptor<T> interceptor) {
+            this.target = target;
+            this.interceptor = interceptor;
+        }
+
+        public Object intercept(Object proxy, Method method, Object[] args, MethodProxy methodProxy) throws Throwable {
+            if(target == null) {
+                // the instance kept as factory, or a proxy under construction
+                return methodProxy.invokeSuper(proxy, args);
+            }
+
+            if(args.length == 1 && args[0] == proxy && "equals".equals(method.getName())) {
+                return true;
+            }
+
+            if(!interceptor.isIntercepted(method)) {
+                return methodProxy.invoke(target, args);
+            }
+
+            return interceptor.invoke(new TargetMethodInvocation(target, method, args, methodProxy));
+        }
+    }
+
+    private static class TargetMethodInvocation implements ArgumentReplaceableInvocation {
+
+        private final Object target;
+
+        private final Method method;
+
+        private final Object[] arguments;
+
+        private final MethodProxy methodProxy;
+
+        private Object[] replacedArguments;
+
+        private TargetMethodInvocation(Object target, Method method, Object[] arguments, MethodProxy methodProxy) {
+            this.target = target;
+            this.method = method;
+            this.arguments = arguments;
+            this.methodProxy = methodProxy;
+        }
+
+        public Method getMethod() {
+            return method;
+        }
+
+        public Object[] getArguments() {
+            return arguments;
+        }
+
+        public void setReplacedArguments(Object[] replacedArguments) {
+            this.replacedArguments = replacedArguments;
+        }
+
+        public Object proceed() throws Throwable {
+            return methodProxy.invoke(target, replacedArguments != null ? replacedArguments : arguments);
+        }
+
+        public Object getThis() {
+            return target;
+        }
+
+        public AccessibleObject getStaticPart() {
+            return method;
+        }
+    }
+}
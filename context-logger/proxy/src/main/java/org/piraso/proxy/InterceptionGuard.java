@@ -0,0 +1,33 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.proxy;
+
+/**
+ * Decides whether proxied calls are intercepted at all, when not the call goes directly to the target without
+ * notifying any {@link RegexMethodInterceptorListener}.
+ */
+public interface InterceptionGuard {
+
+    /**
+     * Checked on every proxied call, implementations should be as cheap as reading a volatile field.
+     *
+     * @return <code>true</code> if the listeners should be notified
+     */
+    boolean isInterceptionEnabled();
+}
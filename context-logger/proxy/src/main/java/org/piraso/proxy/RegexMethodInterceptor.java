@@ -24,13 +24,16 @@ import org.apache.commons.lang.Validate;
 import org.apache.log4j.Logger;
 
 import java.lang.reflect.Method;
-import java.util.HashSet;
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Regular expression method interceptor.
+ * <p>
+ * The listeners matching a method are resolved once and kept in a dispatch table until a listener is added, methods
+ * without listeners are proceeded without creating any event. Which expressions match a method is shared by the
+ * interceptors with the same expressions through {@link RegexMethodMatcher}, so short lived proxies do not match
+ * the expressions again.
  */
 public class RegexMethodInterceptor<T> implements MethodInterceptor {
 
@@ -38,8 +41,22 @@ public class RegexMethodInterceptor<T> implements MethodInterceptor {
 
     private Map<String, Set<RegexMethodInterceptorListener<T>>> listeners = new LinkedHashMap<String, Set<RegexMethodInterceptorListener<T>>>();
 
+    private final Map<Method, List<RegexMethodInterceptorListener<T>>> dispatchTable = new ConcurrentHashMap<Method, List<RegexMethodInterceptorListener<T>>>();
+
+    private RegexMethodMatcher matcher;
+
+    private volatile InterceptionGuard guard;
+
     public Object invoke(MethodInvocation invocation) throws Throwable {
-        Set<RegexMethodInterceptorListener<T>> invokeListeners = getListeners(invocation.getMethod());
+        if(!isInterceptionEnabled()) {
+            return invocation.proceed();
+        }
+
+        List<RegexMethodInterceptorListener<T>> invokeListeners = getListeners(invocation.getMethod());
+
+        if(invokeListeners.isEmpty()) {
+            return invocation.proceed();
+        }
 
         RegexMethodInterceptorEvent event = fireBeforeCall(invokeListeners, invocation);
         Object returnValue;
@@ -47,8 +64,8 @@ public class RegexMethodInterceptor<T> implements MethodInterceptor {
         try {
             // do replacement of arguments
             if(event != null && event.getReplacedArguments() != null &&
-                    RegexProxyFactory.MethodInvocationWrapper.class.isInstance(invocation)) {
-                RegexProxyFactory.MethodInvocationWrapper wrapper = (RegexProxyFactory.MethodInvocationWrapper) invocation;
+                    ArgumentReplaceableInvocation.class.isInstance(invocation)) {
+                ArgumentReplaceableInvocation wrapper = (ArgumentReplaceableInvocation) invocation;
 
                 wrapper.setReplacedArguments(event.getReplacedArguments());
             }
@@ -63,7 +80,7 @@ public class RegexMethodInterceptor<T> implements MethodInterceptor {
         return fireAfterCall(invokeListeners, invocation, returnValue);
     }
 
-    private RegexMethodInterceptorEvent fireBeforeCall(Set<RegexMethodInterceptorListener<T>> listeners, MethodInvocation invocation) {
+    private RegexMethodInterceptorEvent fireBeforeCall(List<RegexMethodInterceptorListener<T>> listeners, MethodInvocation invocation) {
         try {
             RegexMethodInterceptorEvent<T> event = new RegexMethodInterceptorEvent<T>(this, invocation);
             for(RegexMethodInterceptorListener<T> listener : listeners) {
@@ -78,7 +95,7 @@ public class RegexMethodInterceptor<T> implements MethodInterceptor {
         return null;
     }
 
-    private void fireExceptionCall(Set<RegexMethodInterceptorListener<T>> listeners, MethodInvocation invocation, Exception ex) {
+    private void fireExceptionCall(List<RegexMethodInterceptorListener<T>> listeners, MethodInvocation invocation, Exception ex) {
         try {
             RegexMethodInterceptorEvent<T> event = new RegexMethodInterceptorEvent<T>(this, invocation);
             event.setException(ex);
@@ -90,7 +107,7 @@ public class RegexMethodInterceptor<T> implements MethodInterceptor {
         }
     }
 
-    private Object fireAfterCall(Set<RegexMethodInterceptorListener<T>> listeners, MethodInvocation invocation, Object returnedValue) {
+    private Object fireAfterCall(List<RegexMethodInterceptorListener<T>> listeners, MethodInvocation invocation, Object returnedValue) {
         try {
             RegexMethodInterceptorEvent<T> event = new RegexMethodInterceptorEvent<T>(this, invocation, returnedValue);
             for(RegexMethodInterceptorListener<T> listener : listeners) {
@@ -105,16 +122,67 @@ public class RegexMethodInterceptor<T> implements MethodInterceptor {
         return returnedValue;
     }
 
-    private Set<RegexMethodInterceptorListener<T>> getListeners(Method method) {
-        Set<RegexMethodInterceptorListener<T>> matchListeners = new HashSet<RegexMethodInterceptorListener<T>>();
+    /**
+     * Determines whether calls to the given method are intercepted, that is interception is enabled and any listener
+     * matches the method.
+     *
+     * @param method the invoked method
+     * @return <code>true</code> if the method is intercepted
+     */
+    boolean isIntercepted(Method method) {
+        return isInterceptionEnabled() && !getListeners(method).isEmpty();
+    }
+
+    private boolean isInterceptionEnabled() {
+        InterceptionGuard current = guard;
+
+        return current == null || current.isInterceptionEnabled();
+    }
+
+    public void setInterceptionGuard(InterceptionGuard guard) {
+        this.guard = guard;
+    }
+
+    private List<RegexMethodInterceptorListener<T>> getListeners(Method method) {
+        List<RegexMethodInterceptorListener<T>> matchListeners = dispatchTable.get(method);
 
-        String methodName = method.getName();
-        for(Map.Entry<String, Set<RegexMethodInterceptorListener<T>>> entry : listeners.entrySet()) {
-            if(methodName.matches(entry.getKey())) {
-                matchListeners.addAll(entry.getValue());
+        if(matchListeners == null) {
+            matchListeners = resolveListeners(method);
+        }
+
+        return matchListeners;
+    }
+
+    private synchronized List<RegexMethodInterceptorListener<T>> resolveListeners(Method method) {
+        List<RegexMethodInterceptorListener<T>> matchListeners = dispatchTable.get(method);
+
+        if(matchListeners != null) {
+            return matchListeners;
+        }
+
+        if(matcher == null) {
+            matcher = RegexMethodMatcher.get(listeners.keySet());
+        }
+
+        Set<String> matches = matcher.getMatches(method);
+        Set<RegexMethodInterceptorListener<T>> matchSet = new LinkedHashSet<RegexMethodInterceptorListener<T>>();
+
+        if(!matches.isEmpty()) {
+            for(Map.Entry<String, Set<RegexMethodInterceptorListener<T>>> entry : listeners.entrySet()) {
+                if(matches.contains(entry.getKey())) {
+                    matchSet.addAll(entry.getValue());
+                }
             }
         }
 
+        if(matchSet.isEmpty()) {
+            matchListeners = Collections.emptyList();
+        } else {
+            matchListeners = Collections.unmodifiableList(new ArrayList<RegexMethodInterceptorListener<T>>(matchSet));
+        }
+
+        dispatchTable.put(method, matchListeners);
+
         return matchListeners;
     }
 
@@ -126,16 +194,18 @@ public class RegexMethodInterceptor<T> implements MethodInterceptor {
         }
     }
 
-    public void addMethodListener(String regex, RegexMethodInterceptorListener<T> listener) {
+    public synchronized void addMethodListener(String regex, RegexMethodInterceptorListener<T> listener) {
         Validate.notNull("listener cannot be null.");
 
         Set<RegexMethodInterceptorListener<T>> set = listeners.get(regex);
 
         if(set == null) {
-            set = new HashSet<RegexMethodInterceptorListener<T>>();
+            set = new LinkedHashSet<RegexMethodInterceptorListener<T>>();
             listeners.put(regex, set);
+            matcher = null;
         }
 
         set.add(listener);
+        dispatchTable.clear();
     }
 }
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.piraso.proxy;
+
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Resolves which regular expressions of a set match a method name. Matchers are shared by every interceptor with
+ * the same set of expressions and remember the result per method, so a new proxy resolves its listeners without
+ * matching any expression again.
+ */
+final class RegexMethodMatcher {
+
+    private static final Map<Set<String>, RegexMethodMatcher> MATCHERS = new ConcurrentHashMap<Set<String>, RegexMethodMatcher>();
+
+    private final Map<String, Pattern> patterns = new LinkedHashMap<String, Pattern>();
+
+    private final Map<Method, Set<String>> matches = new ConcurrentHashMap<Method, Set<String>>();
+
+    private RegexMethodMatcher(Set<String> regexes) {
+        for(String regex : regexes) {
+            patterns.put(regex, Pattern.compile(regex));
+        }
+    }
+
+    /**
+     * @param regexes the regular expressions
+     * @return the shared matcher for the given regular expressions
+     */
+    static RegexMethodMatcher get(Set<String> regexes) {
+        RegexMethodMatcher matcher = MATCHERS.get(regexes);
+
+        if(matcher == null) {
+            Set<String> key = Collections.unmodifiableSet(new HashSet<String>(regexes));
+
+            // a matcher created concurrently for the same expressions only costs its resolution
+            matcher = new RegexMethodMatcher(key);
+            MATCHERS.put(key, matcher);
+        }
+
+        return matcher;
+    }
+
+    /**
+     * @param method the invoked method
+     * @return the regular expressions matching the method name
+     */
+    Set<String> getMatches(Method method) {
+        Set<String> matched = matches.get(method);
+
+        if(matched == null) {
+            matched = new HashSet<String>();
+
+            String methodName = method.getName();
+            for(Map.Entry<String, Pattern> entry : patterns.entrySet()) {
+                if(entry.getValue().matcher(methodName).matches()) {
+                    matched.add(entry.getKey());
+                }
+            }
+
+            matched = matched.isEmpty() ? Collections.<String>emptySet() : Collections.unmodifiableSet(matched);
+            matches.put(method, matched);
+        }
+
+        return matched;
+    }
+}
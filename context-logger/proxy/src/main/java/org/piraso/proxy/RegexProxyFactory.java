@@ -23,25 +23,49 @@ import org.springframework.aop.framework.AdvisedSupport;
 import org.springframework.aop.framework.AopProxy;
 import org.springframework.aop.framework.DefaultAopProxyFactory;
 import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.util.ClassUtils;
 
 import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 
 /**
  * Regular expression proxy factory.
+ * <p>
+ * When cglib is available the proxies are generated classes calling the target directly, otherwise interfaces are
+ * proxied through spring aop.
  */
 public class RegexProxyFactory<T> implements ProxyAware<T> {
 
+    private static final boolean CGLIB_AVAILABLE = ClassUtils.isPresent("net.sf.cglib.proxy.Enhancer",
+            RegexProxyFactory.class.getClassLoader());
+
     private Class<T> clazz;
 
-    private Map<String, Set<RegexMethodInterceptorListener<T>>> listeners = new HashMap<String, Set<RegexMethodInterceptorListener<T>>>();
+    private Class<? extends T> proxyClass;
+
+    private InterceptionGuard guard;
+
+    private Map<String, Set<RegexMethodInterceptorListener<T>>> listeners = new LinkedHashMap<String, Set<RegexMethodInterceptorListener<T>>>();
 
     public RegexProxyFactory(Class<T> clazz) {
+        this(clazz, clazz);
+    }
+
+    /**
+     * Creates a factory whose generated proxies extend the given proxy class, for proxied classes without a
+     * default constructor. Calls are still delegated to the proxied object.
+     *
+     * @param clazz the proxied class
+     * @param proxyClass the class the generated proxies extend
+     */
+    public RegexProxyFactory(Class<T> clazz, Class<? extends T> proxyClass) {
         this.clazz = clazz;
+        this.proxyClass = proxyClass;
     }
 
     public T getProxy(T object) {
@@ -52,8 +76,17 @@ public class RegexProxyFactory<T> implements ProxyAware<T> {
 
     @SuppressWarnings("unchecked")
     public ProxyInterceptorAware<T> getProxyInterceptor(T object) {
+        if(CGLIB_AVAILABLE) {
+            RegexMethodInterceptor<T> interceptor = new RegexMethodInterceptor<T>();
+            interceptor.addAllMethodListener(listeners);
+            interceptor.setInterceptionGuard(guard);
+
+            return new ProxyInterceptorAware<T>(CglibProxyFactory.getProxy(proxyClass, object, interceptor), interceptor);
+        }
+
         RegexMethodInterceptor<T> wrapper = new RegexMethodInterceptorWrapper(new RegexMethodInterceptor<T>(), object);
         wrapper.addAllMethodListener(listeners);
+        wrapper.setInterceptionGuard(guard);
 
         T proxy;
 
@@ -70,6 +103,22 @@ public class RegexProxyFactory<T> implements ProxyAware<T> {
         return new ProxyInterceptorAware<T>(proxy, wrapper);
     }
 
+    /**
+     * Sets the guard checked by the proxies created afterwards before notifying any listener.
+     *
+     * @param guard the interception guard, <code>null</code> to always intercept
+     */
+    public void setInterceptionGuard(InterceptionGuard guard) {
+        this.guard = guard;
+    }
+
+    /**
+     * Adds a listener notified of the calls to the methods whose name matches the regular expression. Listeners of a
+     * call are notified in the order added, a listener added for several matching expressions is notified once.
+     *
+     * @param regex the method name regular expression
+     * @param listener the listener
+     */
     public void addMethodListener(String regex, RegexMethodInterceptorListener<T> listener) {
         if(listener == null) {
             throw new IllegalArgumentException("listener cannot be null.");
@@ -77,7 +126,7 @@ public class RegexProxyFactory<T> implements ProxyAware<T> {
 
         Set<RegexMethodInterceptorListener<T>> set = listeners.get(regex);
         if(set == null) {
-            set = new HashSet<RegexMethodInterceptorListener<T>>();
+            set = new LinkedHashSet<RegexMethodInterceptorListener<T>>();
             listeners.put(regex, set);
         }
         
@@ -97,6 +146,14 @@ public class RegexProxyFactory<T> implements ProxyAware<T> {
 
         @Override
         public Object invoke(MethodInvocation invocation) throws Throwable {
+            if(!wrappedObject.isIntercepted(invocation.getMethod())) {
+                try {
+                    return invocation.getMethod().invoke(target, invocation.getArguments());
+                } catch (InvocationTargetException e) {
+                    throw e.getTargetException();
+                }
+            }
+
             return wrappedObject.invoke(new MethodInvocationWrapper(invocation, target));
         }
 
@@ -109,9 +166,14 @@ public class RegexProxyFactory<T> implements ProxyAware<T> {
         public void addMethodListener(String regex, RegexMethodInterceptorListener<T> tRegexMethodInterceptorListener) {
             wrappedObject.addMethodListener(regex, tRegexMethodInterceptorListener);
         }
+
+        @Override
+        public void setInterceptionGuard(InterceptionGuard guard) {
+            wrappedObject.setInterceptionGuard(guard);
+        }
     }
 
-    public class MethodInvocationWrapper implements MethodInvocation {
+    public class MethodInvocationWrapper implements ArgumentReplaceableInvocation {
         private MethodInvocation wrappedObject;
 
         private T target;
@@ -143,7 +205,11 @@ public class RegexProxyFactory<T> implements ProxyAware<T> {
                 arguments = replacedArguments;
             }
 
-            return method.invoke(target, arguments);
+            try {
+                return method.invoke(target, arguments);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
         }
 
         public Object getThis() {
@@ -22,9 +22,14 @@ import org.hamcrest.CoreMatchers;
 import org.junit.Test;
 import org.mockito.Matchers;
 
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+
 import javax.sql.DataSource;
+import java.lang.reflect.Method;
 import java.sql.Connection;
-import java.util.ArrayList;
+import java.sql.SQLException;
+import java.util.*;
 
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
@@ -157,6 +162,187 @@ public class RegexProxyFactoryTest {
         verify(actual, times(2)).getConnection();
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testMethodWithoutListener() throws Exception {
+        DataSource actual = mock(DataSource.class);
+        doReturn(30).when(actual).getLoginTimeout();
+
+        RegexMethodInterceptorAdapter<DataSource> adapter = mock(RegexMethodInterceptorAdapter.class);
+
+        RegexProxyFactory<DataSource> factory = new RegexProxyFactory<DataSource>(DataSource.class);
+        factory.addMethodListener("getConnection", adapter);
+
+        DataSource proxy = factory.getProxy(actual);
+
+        assertEquals(30, proxy.getLoginTimeout());
+        assertEquals(30, proxy.getLoginTimeout());
+
+        verify(actual, times(2)).getLoginTimeout();
+        verify(adapter, never()).beforeCall(Matchers.<RegexMethodInterceptorEvent<DataSource>>any());
+        verify(adapter, never()).afterCall(Matchers.<RegexMethodInterceptorEvent<DataSource>>any());
+    }
+
+    @Test
+    public void testListenersNotifiedInOrderAdded() throws Exception {
+        DataSource actual = mock(DataSource.class);
+        final List<Integer> notified = new ArrayList<Integer>();
+
+        RegexProxyFactory<DataSource> factory = new RegexProxyFactory<DataSource>(DataSource.class);
+        for(int i = 0; i < 20; i++) {
+            final int index = i;
+
+            // a different expression per listener, and a second listener for some of them
+            factory.addMethodListener("getConnection|other" + (i / 2), new RegexMethodInterceptorAdapter<DataSource>() {
+                @Override
+                public void afterCall(RegexMethodInterceptorEvent<DataSource> evt) {
+                    notified.add(index);
+                }
+            });
+        }
+
+        factory.getProxy(actual).getConnection();
+
+        List<Integer> expected = new ArrayList<Integer>();
+        for(int i = 0; i < 20; i++) {
+            expected.add(i);
+        }
+
+        assertEquals(expected, notified);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testShortLivedProxies() throws Exception {
+        DataSource actual = mock(DataSource.class);
+        doReturn(mock(Connection.class)).when(actual).getConnection();
+
+        RegexMethodInterceptorAdapter<DataSource> adapter = mock(RegexMethodInterceptorAdapter.class);
+
+        // a new factory and proxy for each object, the way statements and result sets are proxied
+        for(int i = 0; i < 100; i++) {
+            RegexProxyFactory<DataSource> factory = new RegexProxyFactory<DataSource>(DataSource.class);
+            factory.addMethodListener("getConnection", adapter);
+            factory.addMethodListener("set.*", adapter);
+
+            DataSource proxy = factory.getProxy(actual);
+
+            proxy.getConnection();
+            proxy.getLoginTimeout();
+        }
+
+        verify(actual, times(100)).getConnection();
+        verify(actual, times(100)).getLoginTimeout();
+        verify(adapter, times(100)).afterCall(Matchers.<RegexMethodInterceptorEvent<DataSource>>any());
+
+        Set<String> regexes = new HashSet<String>(Arrays.asList("getConnection", "set.*"));
+        Method method = DataSource.class.getMethod("getConnection");
+
+        RegexMethodMatcher matcher = RegexMethodMatcher.get(regexes);
+        assertSame(matcher, RegexMethodMatcher.get(new HashSet<String>(regexes)));
+        assertEquals(Collections.singleton("getConnection"), matcher.getMatches(method));
+        assertSame(matcher.getMatches(method), matcher.getMatches(method));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testListenerAddedAfterInvocation() throws Exception {
+        DataSource actual = mock(DataSource.class);
+        doReturn(mock(Connection.class)).when(actual).getConnection();
+
+        RegexMethodInterceptorAdapter<DataSource> adapter = mock(RegexMethodInterceptorAdapter.class);
+        RegexMethodInterceptorAdapter<DataSource> lateAdapter = mock(RegexMethodInterceptorAdapter.class);
+
+        RegexProxyFactory<DataSource> factory = new RegexProxyFactory<DataSource>(DataSource.class);
+        factory.addMethodListener("get.*", adapter);
+        factory.addMethodListener("getConnection", adapter);
+
+        ProxyInterceptorAware<DataSource> aware = factory.getProxyInterceptor(actual);
+        DataSource proxy = aware.getProxy();
+
+        proxy.getConnection();
+
+        // listener matching through several expressions is only notified once
+        verify(adapter, times(1)).beforeCall(Matchers.<RegexMethodInterceptorEvent<DataSource>>any());
+
+        aware.getInterceptor().addMethodListener("getConn.*", lateAdapter);
+        proxy.getConnection();
+
+        verify(adapter, times(2)).beforeCall(Matchers.<RegexMethodInterceptorEvent<DataSource>>any());
+        verify(lateAdapter, times(1)).beforeCall(Matchers.<RegexMethodInterceptorEvent<DataSource>>any());
+        verify(lateAdapter, times(1)).afterCall(Matchers.<RegexMethodInterceptorEvent<DataSource>>any());
+    }
+
+    @Test
+    public void testProxyClassWithoutDefaultConstructor() throws Exception {
+        Logger logger = Logger.getLogger("org.piraso.proxy.test");
+        logger.setLevel(Level.INFO);
+
+        RegexProxyFactory<Logger> factory = new RegexProxyFactory<Logger>(Logger.class, DefaultConstructorLogger.class);
+        factory.addMethodListener("isDebugEnabled", new RegexMethodInterceptorAdapter<Logger>() {
+            @Override
+            public void afterCall(RegexMethodInterceptorEvent<Logger> evt) {
+                evt.setReturnedValue(true);
+            }
+        });
+
+        Logger proxy = factory.getProxy(logger);
+
+        assertThat(proxy, instanceOf(DefaultConstructorLogger.class));
+        assertTrue(proxy.isDebugEnabled());
+        assertFalse(proxy.isTraceEnabled());
+        assertThat(proxy.getEffectiveLevel(), is(Level.INFO));
+    }
+
+    @Test
+    public void testTargetExceptionPropagated() throws Exception {
+        DataSource actual = mock(DataSource.class);
+        SQLException expected = new SQLException("expected");
+        doThrow(expected).when(actual).getConnection();
+        doThrow(expected).when(actual).getLoginTimeout();
+
+        final RegexProxyFactory<DataSource> factory = new RegexProxyFactory<DataSource>(DataSource.class);
+        final List<Exception> caught = new ArrayList<Exception>();
+        factory.addMethodListener("getConnection", new RegexMethodInterceptorAdapter<DataSource>() {
+            @Override
+            public void exceptionCall(RegexMethodInterceptorEvent<DataSource> evt) {
+                caught.add(evt.getException());
+            }
+        });
+
+        DataSource proxy = factory.getProxy(actual);
+
+        try {
+            proxy.getConnection();
+            fail("expected exception");
+        } catch(SQLException e) {
+            assertSame(expected, e);
+        }
+
+        try {
+            proxy.getLoginTimeout();
+            fail("expected exception");
+        } catch(SQLException e) {
+            assertSame(expected, e);
+        }
+
+        assertEquals(1, caught.size());
+        assertSame(expected, caught.get(0));
+    }
+
+    @Test
+    public void testProxyEquality() throws Exception {
+        DataSource actual = mock(DataSource.class);
+        RegexProxyFactory<DataSource> factory = new RegexProxyFactory<DataSource>(DataSource.class);
+
+        DataSource proxy = factory.getProxy(actual);
+        DataSource other = factory.getProxy(actual);
+
+        assertTrue(proxy.equals(proxy));
+        assertFalse(proxy.equals(other));
+        assertSame(proxy.getClass(), other.getClass());
+    }
+
     @Test
     public void testNonInterfaceTest() throws Exception {
         ArrayList<String> list = new ArrayList<String>();
@@ -198,4 +384,44 @@ public class RegexProxyFactoryTest {
         ArrayList listProxy = factory.getProxy(list);
         assertEquals(false, listProxy.contains("o"));
     }
+
+    @Test
+    public void testProxyClassConstructorCalls() throws Exception {
+        ConfiguredBean bean = new ConfiguredBean();
+        bean.setName("configured");
+
+        RegexProxyFactory<ConfiguredBean> factory = new RegexProxyFactory<ConfiguredBean>(ConfiguredBean.class);
+        factory.addMethodListener("setName", new RegexMethodInterceptorAdapter<ConfiguredBean>());
+
+        ConfiguredBean proxy = factory.getProxy(bean);
+
+        assertEquals("configured", bean.getName());
+        assertEquals("configured", proxy.getName());
+    }
+
+    public static class ConfiguredBean {
+        private String name;
+
+        public ConfiguredBean() {
+            setName("default");
+            init();
+        }
+
+        protected void init() {
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class DefaultConstructorLogger extends Logger {
+        public DefaultConstructorLogger() {
+            super(DefaultConstructorLogger.class.getName());
+        }
+    }
 }
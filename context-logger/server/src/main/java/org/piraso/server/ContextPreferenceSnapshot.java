@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server;
+
+import org.apache.commons.collections.MapUtils;
+import org.piraso.api.Preferences;
+import org.piraso.server.service.LoggerRegistry;
+import org.piraso.server.service.ResponseLoggerService;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The loggers watching a request and their merged preferences, resolved once for a given registry version.
+ * <p>
+ * Boolean and integer properties are merged up front, regular expression properties are resolved on first use and
+ * memoized since the queried names are not known in advance. The last resolved snapshot is shared with the next
+ * requests watched by the same loggers, so merging is only done again when a logger is started or stopped.
+ */
+class ContextPreferenceSnapshot {
+
+    private static volatile ContextPreferenceSnapshot last;
+
+    private final LoggerRegistry registry;
+
+    private final long version;
+
+    private final List<Preferences> preferences;
+
+    private final List<ResponseLoggerService> loggers;
+
+    private final Set<String> enabledProperties = new HashSet<String>();
+
+    private final Map<String, Integer> intValues = new HashMap<String, Integer>();
+
+    private final Map<String, Boolean> regexEnabled = new ConcurrentHashMap<String, Boolean>();
+
+    /**
+     * Resolves the loggers and preferences watching the given entry point.
+     *
+     * @param registry the logger registry
+     * @param entryPoint the request entry point
+     * @return the resolved snapshot
+     * @throws IOException on io error
+     */
+    static ContextPreferenceSnapshot resolve(LoggerRegistry registry, PirasoEntryPoint entryPoint) throws IOException {
+        long version = registry.getVersion();
+        List<Preferences> preferences = registry.getContextPreferences(entryPoint);
+
+        if(preferences.isEmpty()) {
+            return new ContextPreferenceSnapshot(registry, version, preferences,
+                    Collections.<ResponseLoggerService>emptyList());
+        }
+
+        ContextPreferenceSnapshot current = last;
+
+        if(current != null && current.registry == registry && current.version == version && current.isResolvedFrom(preferences)) {
+            return current;
+        }
+
+        current = new ContextPreferenceSnapshot(registry, version, preferences, registry.getContextLoggers(entryPoint));
+        last = current;
+
+        return current;
+    }
+
+    private ContextPreferenceSnapshot(LoggerRegistry registry, long version, List<Preferences> preferences, List<ResponseLoggerService> loggers) {
+        this.registry = registry;
+        this.version = version;
+        this.preferences = preferences;
+        this.loggers = loggers;
+
+        for(Preferences pref : preferences) {
+            if(MapUtils.isNotEmpty(pref.getBooleanProperties())) {
+                for(Map.Entry<String, Boolean> entry : pref.getBooleanProperties().entrySet()) {
+                    if(Boolean.TRUE.equals(entry.getValue())) {
+                        enabledProperties.add(entry.getKey());
+                    }
+                }
+            }
+
+            if(MapUtils.isNotEmpty(pref.getIntegerProperties())) {
+                for(Map.Entry<String, Integer> entry : pref.getIntegerProperties().entrySet()) {
+                    Integer max = intValues.get(entry.getKey());
+
+                    if(entry.getValue() != null && (max == null || entry.getValue() > max)) {
+                        intValues.put(entry.getKey(), entry.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isResolvedFrom(List<Preferences> other) {
+        if(preferences.size() != other.size()) {
+            return false;
+        }
+
+        for(int i = 0; i < other.size(); i++) {
+            if(preferences.get(i) != other.get(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    long getVersion() {
+        return version;
+    }
+
+    List<ResponseLoggerService> getLoggers() {
+        return loggers;
+    }
+
+    boolean isMonitored() {
+        return !preferences.isEmpty();
+    }
+
+    boolean isEnabled(String property) {
+        return enabledProperties.contains(property);
+    }
+
+    Integer getIntValue(String property) {
+        return intValues.get(property);
+    }
+
+    boolean isRegexEnabled(String property) {
+        Boolean enabled = regexEnabled.get(property);
+
+        if(enabled == null) {
+            enabled = false;
+
+            for(Preferences pref : preferences) {
+                if(pref.isRegexEnabled(property)) {
+                    enabled = true;
+                    break;
+                }
+            }
+
+            regexEnabled.put(property, enabled);
+        }
+
+        return enabled;
+    }
+}
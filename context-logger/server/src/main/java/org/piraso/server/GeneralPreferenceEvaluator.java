@@ -29,6 +29,28 @@ public class GeneralPreferenceEvaluator extends PreferenceEvaluator {
         return isEnabled(GeneralPreferenceEnum.STACK_TRACE_ENABLED);
     }
 
+    /**
+     * @return the stack trace sample rate, <code>1</code> when not set
+     */
+    public int getStackTraceSampleRate() {
+        Integer value = getIntValue(GeneralPreferenceEnum.STACK_TRACE_SAMPLE_RATE);
+
+        return value == null || value < 1 ? 1 : value;
+    }
+
+    /**
+     * @return the maximum number of stack trace frames, <code>0</code> for no limit
+     */
+    public int getStackTraceMaxDepth() {
+        Integer value = getIntValue(GeneralPreferenceEnum.STACK_TRACE_MAX_DEPTH);
+
+        return value == null || value < 0 ? 0 : value;
+    }
+
+    public boolean isStackTraceDistinctEnabled() {
+        return isEnabled(GeneralPreferenceEnum.STACK_TRACE_DISTINCT_ENABLED);
+    }
+
     public boolean isLoggingScopedEnabled() {
         return isEnabled(GeneralPreferenceEnum.SCOPE_ENABLED);
     }
@@ -21,7 +21,6 @@ package org.piraso.server;
 import org.piraso.api.*;
 import org.piraso.api.entry.*;
 import org.piraso.server.service.*;
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 
@@ -30,6 +29,9 @@ import java.util.*;
 
 /**
  * Represents the current request context.
+ * <p>
+ * The loggers watching this request and their preferences are resolved from the registry once, and only resolved
+ * again when the registry version changes, that is when a logger is started or stopped.
  */
 public class PirasoContext implements ContextPreference {
 
@@ -56,6 +58,8 @@ public class PirasoContext implements ContextPreference {
 
     private GroupChainId refGroupChainId;
 
+    private volatile ContextPreferenceSnapshot snapshot;
+
     public PirasoContext(PirasoEntryPoint entryPoint) {
         this(entryPoint, LoggerRegistrySingleton.INSTANCE.getRegistry());
     }
@@ -93,6 +97,7 @@ public class PirasoContext implements ContextPreference {
         context.scopedEntryQueue = scopedEntryQueue;
         context.requestScoped = requestScoped;
         context.propertyBag = propertyBag;
+        context.snapshot = snapshot;
 
         return context;
     }
@@ -144,12 +149,30 @@ public class PirasoContext implements ContextPreference {
         return entryPoint;
     }
 
+    /**
+     * Retrieves the loggers and preferences for this request, resolving them again from the registry only when
+     * the registry version changed since last resolved.
+     *
+     * @return the resolved snapshot
+     * @throws IOException on io error
+     */
+    private ContextPreferenceSnapshot getSnapshot() throws IOException {
+        ContextPreferenceSnapshot current = snapshot;
+
+        if(current == null || current.getVersion() != registry.getVersion()) {
+            current = ContextPreferenceSnapshot.resolve(registry, entryPoint);
+            snapshot = current;
+        }
+
+        return current;
+    }
+
     /**
      * {@inheritDoc}
      */
     public boolean isMonitored() {
         try {
-            return CollectionUtils.isNotEmpty(registry.getContextPreferences(entryPoint));
+            return getSnapshot().isMonitored();
         } catch (IOException e) {
             return false;
         }
@@ -160,15 +183,7 @@ public class PirasoContext implements ContextPreference {
      */
     public boolean isRegexEnabled(String property) {
         try {
-            List<Preferences> preferencesList = registry.getContextPreferences(entryPoint);
-
-            for(Preferences pref : preferencesList) {
-                if(pref.isRegexEnabled(property)) {
-                    return true;
-                }
-            }
-
-            return false;
+            return getSnapshot().isRegexEnabled(property);
         } catch (Exception e) {
             return false;
         }
@@ -179,15 +194,7 @@ public class PirasoContext implements ContextPreference {
      */
     public boolean isEnabled(String property) {
         try {
-            List<Preferences> preferencesList = registry.getContextPreferences(entryPoint);
-
-            for(Preferences pref : preferencesList) {
-                if(pref.isEnabled(property)) {
-                    return true;
-                }
-            }
-
-            return false;
+            return getSnapshot().isEnabled(property);
         } catch (IOException e) {
             return false;
         }
@@ -198,17 +205,7 @@ public class PirasoContext implements ContextPreference {
      */
     public Integer getIntValue(String property) {
         try {
-            List<Preferences> preferencesList = registry.getContextPreferences(entryPoint);
-            Integer max = null;
-
-            for(Preferences pref : preferencesList) {
-                Integer intValue = pref.getIntValue(property);
-                if(max == null || (intValue != null && intValue > max)) {
-                    max = intValue;
-                }
-            }
-
-            return max;
+            return getSnapshot().getIntValue(property);
         } catch (IOException e) {
             return null;
         }
@@ -237,7 +234,7 @@ public class PirasoContext implements ContextPreference {
         }
 
         try {
-            List<ResponseLoggerService> loggers = registry.getContextLoggers(entryPoint);
+            List<ResponseLoggerService> loggers = getSnapshot().getLoggers();
 
             if(Level.SCOPED.equals(level)) {
                 for(ResponseLoggerService logger : loggers) {
@@ -32,4 +32,25 @@ public interface PirasoRequest {
     String getWatchedAddr();
 
     String getActivityUuid();
+
+    /**
+     * The requested entry stream format, either {@code xml} or {@code binary}.
+     *
+     * @return the requested format
+     */
+    String getFormat();
+
+    /**
+     * The content encodings accepted by the monitoring client, the {@code Accept-Encoding} header value.
+     *
+     * @return the accepted encodings, {@code null} if none
+     */
+    String getAcceptEncoding();
+
+    /**
+     * Determines whether the monitoring client reads binary entry streams with a string dictionary.
+     *
+     * @return {@code true} if the string dictionary is accepted
+     */
+    boolean isDictionaryAccepted();
 }
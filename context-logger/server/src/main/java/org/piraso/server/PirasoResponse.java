@@ -19,6 +19,7 @@
 package org.piraso.server;
 
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 
 /**
@@ -30,5 +31,9 @@ public interface PirasoResponse {
 
     void setCharacterEncoding(String encoding);
 
+    void setHeader(String name, String value);
+
     PrintWriter getWriter() throws IOException;
+
+    OutputStream getOutputStream() throws IOException;
 }
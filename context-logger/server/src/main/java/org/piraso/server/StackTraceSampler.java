@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server;
+
+import org.piraso.api.GeneralPreferenceEnum;
+import org.piraso.api.entry.StackTraceElementEntry;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Captures the stack traces of intercepted calls, the sampling state is kept as a property of the request context.
+ * <p>
+ * Only every {@link GeneralPreferenceEnum#STACK_TRACE_SAMPLE_RATE}th call of a request is captured. The frames of
+ * the proxies and loggers on top of the stack are skipped, and the remaining frames are truncated to
+ * {@link GeneralPreferenceEnum#STACK_TRACE_MAX_DEPTH}. Identical stack traces are interned, the entries share the
+ * same frames.
+ */
+public class StackTraceSampler {
+
+    /**
+     * Maximum number of interned stack traces, the cache is cleared once exceeded.
+     */
+    static final int MAX_CACHED_TRACES = 1024;
+
+    private static final String PROPERTY_NAME = "sampler";
+
+    private static final Map<List<StackTraceElement>, StackTraceElementEntry[]> TRACES =
+            new ConcurrentHashMap<List<StackTraceElement>, StackTraceElementEntry[]>();
+
+    private static final String[] INFRASTRUCTURE_PREFIXES = {
+            "java.lang.reflect.",
+            "sun.reflect.",
+            "jdk.internal.reflect.",
+            "net.sf.cglib.",
+            "org.springframework.aop.",
+            "org.piraso.proxy.",
+            "org.piraso.replacer."
+    };
+
+    private int calls;
+
+    private final Map<StackTraceElementEntry[], Boolean> captured = new IdentityHashMap<StackTraceElementEntry[], Boolean>();
+
+    /**
+     * Captures the stack trace of the current call, if sampled.
+     *
+     * @param preference the preferences of the current request
+     * @return the stack trace, <code>null</code> if not sampled
+     */
+    public static StackTraceElementEntry[] capture(GeneralPreferenceEvaluator preference) {
+        StackTraceSampler sampler = null;
+        int rate = preference.getStackTraceSampleRate();
+        boolean distinct = preference.isStackTraceDistinctEnabled();
+
+        if(rate > 1 || distinct) {
+            sampler = get(preference.getContext());
+        }
+
+        if(sampler != null && !sampler.sample(rate)) {
+            return null;
+        }
+
+        StackTraceElementEntry[] trace = toEntry(Thread.currentThread().getStackTrace(), preference.getStackTraceMaxDepth());
+
+        if(sampler != null && distinct && !sampler.addCaptured(trace)) {
+            return null;
+        }
+
+        return trace;
+    }
+
+    /**
+     * Retrieves the sampler of the current request, created on first use.
+     *
+     * @param context the request context
+     * @return the sampler, <code>null</code> when there is no request context
+     */
+    static StackTraceSampler get(ContextPreference context) {
+        if(context == null) {
+            return null;
+        }
+
+        StackTraceSampler sampler = (StackTraceSampler) context.getProperty(StackTraceSampler.class, PROPERTY_NAME);
+
+        if(sampler == null) {
+            context.addProperty(StackTraceSampler.class, PROPERTY_NAME, new StackTraceSampler());
+            sampler = (StackTraceSampler) context.getProperty(StackTraceSampler.class, PROPERTY_NAME);
+        }
+
+        return sampler;
+    }
+
+    /**
+     * Converts the given frames, skipping the infrastructure frames on top of the stack.
+     *
+     * @param elements the stack trace
+     * @param maxDepth the maximum number of frames, <code>0</code> for no limit
+     * @return the interned stack trace entries
+     */
+    static StackTraceElementEntry[] toEntry(StackTraceElement[] elements, int maxDepth) {
+        int start = 0;
+        while(start < elements.length && isInfrastructure(elements[start].getClassName())) {
+            start++;
+        }
+
+        if(start == elements.length) {
+            start = 0;
+        }
+
+        int end = maxDepth > 0 ? Math.min(elements.length, start + maxDepth) : elements.length;
+        List<StackTraceElement> frames = Arrays.asList(elements).subList(start, end);
+        StackTraceElementEntry[] trace = TRACES.get(frames);
+
+        if(trace == null) {
+            trace = new StackTraceElementEntry[frames.size()];
+            for(int i = 0; i < trace.length; i++) {
+                trace[i] = new StackTraceElementEntry(frames.get(i));
+            }
+
+            if(TRACES.size() >= MAX_CACHED_TRACES) {
+                TRACES.clear();
+            }
+
+            TRACES.put(new ArrayList<StackTraceElement>(frames), trace);
+        }
+
+        return trace;
+    }
+
+    static int getCacheSize() {
+        return TRACES.size();
+    }
+
+    /**
+     * Proxies, reflection and the piraso loggers, which are in packages named <code>logger</code>.
+     *
+     * @param className the frame class name
+     * @return <code>true</code> if the frame is skipped on top of the stack
+     */
+    private static boolean isInfrastructure(String className) {
+        if(className.equals(Thread.class.getName()) || className.equals(StackTraceSampler.class.getName())) {
+            return true;
+        }
+
+        for(String prefix : INFRASTRUCTURE_PREFIXES) {
+            if(className.startsWith(prefix)) {
+                return true;
+            }
+        }
+
+        if(className.contains("$Proxy") || className.contains("$$EnhancerByCGLIB$$")) {
+            return true;
+        }
+
+        return className.startsWith("org.piraso.") && className.contains(".logger.");
+    }
+
+    private synchronized boolean sample(int rate) {
+        return calls++ % rate == 0;
+    }
+
+    private synchronized boolean addCaptured(StackTraceElementEntry[] trace) {
+        return captured.put(trace, Boolean.TRUE) == null;
+    }
+}
@@ -24,6 +24,7 @@ import org.piraso.proxy.RegexMethodInterceptorEvent;
 import org.piraso.proxy.RegexMethodInterceptorListener;
 import org.piraso.server.GeneralPreferenceEvaluator;
 import org.piraso.server.GroupChainId;
+import org.piraso.server.StackTraceSampler;
 import org.piraso.server.dispatcher.ContextLogDispatcher;
 
 /**
@@ -55,7 +56,7 @@ public class MethodCallLoggerListener<T> implements RegexMethodInterceptorListen
 
         // method stack trace only if debug is enabled
         if(preference.isStackTraceEnabled()) {
-            entry.setStackTrace(EntryUtils.toEntry(Thread.currentThread().getStackTrace()));
+            entry.setStackTrace(StackTraceSampler.capture(preference));
         }
 
         elapseTime.start();
@@ -0,0 +1,47 @@
+package org.piraso.server.service;
+
+/**
+ * An entry sent by the bridge within a batch, holding the entry json content together with what is needed to
+ * restore it as a {@link org.piraso.api.entry.RawEntry}.
+ */
+public class BridgeEntry {
+
+    private String className;
+
+    private Long requestId;
+
+    private String content;
+
+    public BridgeEntry() {
+    }
+
+    public BridgeEntry(String className, Long requestId, String content) {
+        this.className = className;
+        this.requestId = requestId;
+        this.content = content;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public void setClassName(String className) {
+        this.className = className;
+    }
+
+    public Long getRequestId() {
+        return requestId;
+    }
+
+    public void setRequestId(Long requestId) {
+        this.requestId = requestId;
+    }
+
+    public String getContent() {
+        return content;
+    }
+
+    public void setContent(String content) {
+        this.content = content;
+    }
+}
@@ -7,6 +7,8 @@ public class BridgeRegistry {
 
     private List<BridgeLogger> loggers;
 
+    private long version;
+
     public BridgeRegistry() {
         loggers = new ArrayList<BridgeLogger>();
     }
@@ -22,4 +24,15 @@ public class BridgeRegistry {
     public void setLoggers(List<BridgeLogger> loggers) {
         this.loggers = loggers;
     }
+
+    /**
+     * @return the version of the user registry the loggers were taken from
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    public void setVersion(long version) {
+        this.version = version;
+    }
 }
@@ -1,6 +1,5 @@
 package org.piraso.server.service;
 
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.logging.Log;
 import org.piraso.api.PirasoLogger;
 import org.piraso.api.Preferences;
@@ -9,6 +8,8 @@ import org.piraso.server.PirasoRequest;
 
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -21,11 +22,26 @@ public class DefaultUserRegistryImpl implements UserRegistry {
      */
     private final Lock lock = new ReentrantLock();
 
+    /**
+     * Signalled whenever the {@link #version} is incremented.
+     */
+    private final Condition versionChanged = lock.newCondition();
+
     /**
      * Contains the map of {@link User} and {@link ResponseLoggerService}.
      */
     private Map<User, ResponseLoggerService> userLoggerMap = Collections.synchronizedMap(new LinkedHashMap<User, ResponseLoggerService>(20));
 
+    /**
+     * Snapshot of {@link #userLoggerMap} used for watched lookups, rebuilt on every change.
+     */
+    private volatile WatchIndex index = WatchIndex.EMPTY;
+
+    /**
+     * Incremented whenever the {@link #index} is rebuilt.
+     */
+    private volatile long version;
+
     /**
      * Retrieve all {@link org.piraso.api.Preferences} given the monitored address.
      *
@@ -34,18 +50,13 @@ public class DefaultUserRegistryImpl implements UserRegistry {
      * @throws java.io.IOException on io error
      */
     public List<Preferences> getContextPreferences(PirasoEntryPoint entryPoint) throws IOException {
-        List<Preferences> list = new LinkedList<Preferences>();
-
-        List<ResponseLoggerService> tmp = new ArrayList<ResponseLoggerService>(userLoggerMap.values());
-        for(ResponseLoggerService rl : tmp) {
-            Preferences preferences = rl.getPreferences();
-            if(rl.isAlive() && rl.isWatched(getMonitoredAddr(entryPoint)) &&
-                    preferences.isUrlAcceptable(entryPoint.getPath())) {
-                list.add(preferences);
-            }
+        WatchIndex current = index;
+
+        if(current.isEmpty()) {
+            return Collections.emptyList();
         }
 
-        return list;
+        return current.getPreferences(getMonitoredAddr(entryPoint), entryPoint.getPath());
     }
 
     public Map<User, ResponseLoggerService> getUserLoggerMap() {
@@ -60,22 +71,65 @@ public class DefaultUserRegistryImpl implements UserRegistry {
      * @throws IOException on io error
      */
     public List<ResponseLoggerService> getContextLoggers(PirasoEntryPoint request) throws IOException {
-        List<ResponseLoggerService> list = new LinkedList<ResponseLoggerService>();
-
-        List<ResponseLoggerService> tmp = new ArrayList<ResponseLoggerService>(userLoggerMap.values());
-        for(ResponseLoggerService rl : tmp) {
-            Preferences preferences = rl.getPreferences();
-            if(rl.isAlive() && rl.isWatched(getMonitoredAddr(request)) &&
-                    preferences.isUrlAcceptable(request.getPath())) {
-                list.add(rl);
-            }
+        WatchIndex current = index;
+
+        if(current.isEmpty()) {
+            return Collections.emptyList();
         }
 
-        return list;
+        return current.getLoggers(getMonitoredAddr(request), request.getPath());
     }
 
     public void clear() {
-        userLoggerMap.clear();
+        lock.lock();
+
+        try {
+            userLoggerMap.clear();
+            index = WatchIndex.EMPTY;
+            version++;
+            versionChanged.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Rebuilds the {@link #index}, should be invoked while holding the {@link #lock}.
+     */
+    private void rebuildIndex() {
+        List<ResponseLoggerService> services;
+
+        synchronized (userLoggerMap) {
+            services = new ArrayList<ResponseLoggerService>(userLoggerMap.values());
+        }
+
+        index = services.isEmpty() ? WatchIndex.EMPTY : new WatchIndex(services);
+        version++;
+        versionChanged.signalAll();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public long awaitVersionChange(long version, long timeout) throws InterruptedException {
+        lock.lock();
+
+        try {
+            long remaining = TimeUnit.MILLISECONDS.toNanos(timeout);
+
+            while(this.version == version && remaining > 0) {
+                remaining = versionChanged.awaitNanos(remaining);
+            }
+
+            return this.version;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean hasLoggers() {
+        return !index.isEmpty();
     }
 
     private String getMonitoredAddr(PirasoEntryPoint request) {
@@ -83,7 +137,9 @@ public class DefaultUserRegistryImpl implements UserRegistry {
     }
 
     public boolean isWatched(PirasoEntryPoint request) throws IOException {
-        return CollectionUtils.isNotEmpty(getContextLoggers(request));
+        WatchIndex current = index;
+
+        return !current.isEmpty() && current.isWatched(getMonitoredAddr(request), request.getPath());
     }
 
     public boolean isUserExist(User user) {
@@ -141,6 +197,7 @@ public class DefaultUserRegistryImpl implements UserRegistry {
             service.addStopListener(new StoppedLoggerHandler());
 
             userLoggerMap.put(user, service);
+            rebuildIndex();
         } finally {
             lock.unlock();
         }
@@ -162,6 +219,7 @@ public class DefaultUserRegistryImpl implements UserRegistry {
                 stopServiceIfExist(user);
 
                 userLoggerMap.remove(user);
+                rebuildIndex();
             }
         } finally {
             lock.unlock();
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.service;
+
+/**
+ * Determines when the entries written by {@link ResponseLoggerServiceImpl} are flushed to the monitoring client.
+ * <p>
+ * Pending entries are always flushed once the transfer queue is drained. While entries keep on coming they are
+ * flushed when any of the configured limits is reached, a limit less than or equal to {@code 0} is ignored.
+ */
+public class FlushPolicy {
+
+    public static final int DEFAULT_MAX_ENTRIES = 100;
+
+    public static final long DEFAULT_MAX_BYTES = 64 * 1024;
+
+    public static final long DEFAULT_MAX_DELAY = 50l;
+
+    /**
+     * Flushes after every entry.
+     */
+    public static final FlushPolicy IMMEDIATE = new FlushPolicy(1, 0, 0);
+
+    private int maxEntries;
+
+    private long maxBytes;
+
+    private long maxDelay;
+
+    public FlushPolicy() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES, DEFAULT_MAX_DELAY);
+    }
+
+    /**
+     * Construct a flush policy given its limits.
+     *
+     * @param maxEntries the maximum number of unflushed entries
+     * @param maxBytes the maximum number of unflushed bytes
+     * @param maxDelay the maximum milliseconds an entry stays unflushed
+     */
+    public FlushPolicy(int maxEntries, long maxBytes, long maxDelay) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.maxDelay = maxDelay;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public long getMaxDelay() {
+        return maxDelay;
+    }
+
+    /**
+     * Determines whether the pending entries should be flushed.
+     *
+     * @param entries the number of unflushed entries
+     * @param bytes the number of unflushed bytes
+     * @param delay milliseconds elapsed since the oldest unflushed entry was written
+     * @return {@code true} if a flush is required
+     */
+    public boolean isFlushRequired(int entries, long bytes, long delay) {
+        return (maxEntries > 0 && entries >= maxEntries) ||
+                (maxBytes > 0 && bytes >= maxBytes) ||
+                (maxDelay > 0 && delay >= maxDelay);
+    }
+}
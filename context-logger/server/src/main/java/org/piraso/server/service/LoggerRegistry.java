@@ -25,4 +25,21 @@ public interface LoggerRegistry {
      */
     List<ResponseLoggerService> getContextLoggers(PirasoEntryPoint request) throws IOException;
 
+    /**
+     * The registry version, which changes whenever a logger is associated or removed. Results of
+     * {@link #getContextPreferences(PirasoEntryPoint)} and {@link #getContextLoggers(PirasoEntryPoint)} may be
+     * reused for as long as the version does not change.
+     *
+     * @return the registry version
+     */
+    long getVersion();
+
+    /**
+     * Whether any logger is associated, regardless of the addresses it watches. Checked on proxied calls to skip
+     * interception entirely when nobody is monitoring, so this must not do more than read a volatile field.
+     *
+     * @return <code>true</code> if at least one logger is associated
+     */
+    boolean hasLoggers();
+
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.service;
+
+/**
+ * Determines what {@link ResponseLoggerServiceImpl} does with the entries logged while its transfer queue is full,
+ * when the monitoring client does not keep up.
+ * <p>
+ * Except for {@link #FORCE_STOP}, dropped entries are counted and the monitoring client receives a message with
+ * the number of dropped entries before the next written entry.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Force stops the monitoring session.
+     */
+    FORCE_STOP,
+
+    /**
+     * Drops the logged entry.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Drops the oldest queued entry to queue the logged entry.
+     */
+    DROP_OLDEST,
+
+    /**
+     * Drops the method call entries first, a logged method call entry is dropped while any other entry replaces
+     * the oldest queued method call entry, or the oldest entry if there is none.
+     */
+    DROP_LOW_PRIORITY,
+
+    /**
+     * Queues only one out of {@link #SAMPLE_RATE} entries once the queue is half full, and drops the logged entry
+     * when full.
+     */
+    SAMPLE;
+
+    public static final int SAMPLE_RATE = 10;
+
+    /**
+     * Determines whether the given entry level is dropped first by {@link #DROP_LOW_PRIORITY}.
+     *
+     * @param level the entry level
+     * @return {@code true} for method call levels
+     */
+    public static boolean isLowPriority(String level) {
+        return level != null && level.contains(".method.call.");
+    }
+}
@@ -19,15 +19,18 @@
 package org.piraso.server.service;
 
 import org.piraso.api.GeneralPreferenceEnum;
+import org.piraso.api.Level;
 import org.piraso.api.LongIDGenerator;
 import org.piraso.api.JacksonUtils;
 import org.piraso.api.Preferences;
 import org.piraso.api.entry.Entry;
+import org.piraso.api.entry.MessageEntry;
+import org.piraso.api.io.EntryWriter;
+import org.piraso.api.io.PirasoBinaryEntryWriter;
 import org.piraso.api.io.PirasoEntryWriter;
 import org.piraso.server.IOUtils;
 import org.piraso.server.PirasoRequest;
 import org.piraso.server.PirasoResponse;
-import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang.ArrayUtils;
 import org.apache.commons.lang.Validate;
 import org.apache.commons.logging.Log;
@@ -38,14 +41,28 @@ import javax.swing.event.EventListenerList;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerConfigurationException;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
 import java.io.StringWriter;
-import java.util.Collections;
-import java.util.LinkedList;
-import java.util.List;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 import java.util.regex.Pattern;
 
+import static org.piraso.api.PirasoConstants.*;
+
 /**
  * Response logger service implementation.
+ * <p>
+ * Application threads only append to a lock free transfer queue. The thread which invoked {@link #start()} is the
+ * sole drainer of that queue and owns all serialization and writing to the response, so a slow monitoring client
+ * never blocks a logging thread.
  */
 public class ResponseLoggerServiceImpl implements ResponseLoggerService {
 
@@ -55,7 +72,7 @@ public class ResponseLoggerServiceImpl implements ResponseLoggerService {
     private static final Log LOG = LogFactory.getLog(ResponseLoggerServiceImpl.class);
 
     /**
-     * If queue size reaches this size, the service will auto stop.
+     * If queue size reaches this size, the {@link #overflowPolicy} applies.
      */
     private static final int DEFAULT_MAX_QUEUE_FORCE_KILL_SIZE = 2000;
 
@@ -75,7 +92,59 @@ public class ResponseLoggerServiceImpl implements ResponseLoggerService {
     /**
      * The transfer queue. This holds the queue which will be streamed to response writer.
      */
-    private List<Entry> transferQueue = Collections.synchronizedList(new LinkedList<Entry>());
+    private final Queue<Entry> transferQueue = new ConcurrentLinkedQueue<Entry>();
+
+    /**
+     * The {@link #transferQueue} size, since {@link ConcurrentLinkedQueue#size()} is not a constant time operation.
+     */
+    private final AtomicInteger transferQueueSize = new AtomicInteger();
+
+    /**
+     * Number of low priority entries in the {@link #transferQueue} not yet reserved to be dropped, see
+     * {@link OverflowPolicy#DROP_LOW_PRIORITY}.
+     */
+    private final AtomicInteger queuedLowPriorityEntries = new AtomicInteger();
+
+    /**
+     * Number of queued low priority entries reserved to be dropped by the drainer, see
+     * {@link #discardLowPriorityEntries()}. Reserved entries are no longer counted in the {@link #transferQueueSize}.
+     */
+    private final AtomicInteger pendingLowPriorityDrops = new AtomicInteger();
+
+    /**
+     * Number of entries dropped by the {@link #overflowPolicy} and not yet reported to the monitoring client.
+     */
+    private final AtomicLong unreportedDroppedEntries = new AtomicLong();
+
+    /**
+     * Total number of entries dropped by the {@link #overflowPolicy}.
+     */
+    private final AtomicLong droppedEntries = new AtomicLong();
+
+    /**
+     * Counts the entries logged while sampling, see {@link OverflowPolicy#SAMPLE}.
+     */
+    private final AtomicLong sampledEntries = new AtomicLong();
+
+    /**
+     * Request id of the last dropped entry, used for the dropped entries message.
+     */
+    private volatile long lastDroppedRequestId;
+
+    /**
+     * Released when the draining thread is done, see {@link #stopAndWait(long)}.
+     */
+    private final CountDownLatch stoppedLatch = new CountDownLatch(1);
+
+    /**
+     * The thread draining the {@link #transferQueue}.
+     */
+    private volatile Thread drainer;
+
+    /**
+     * Determines whether the {@link #drainer} is about to park or is parked waiting for entries.
+     */
+    private volatile boolean drainerWaiting;
 
     /**
      * The user which monitors.
@@ -102,15 +171,55 @@ public class ResponseLoggerServiceImpl implements ResponseLoggerService {
      */
     private PirasoResponse response;
 
+    /**
+     * The requested entry stream format.
+     */
+    private String format;
+
+    /**
+     * The content encodings accepted by the monitoring client.
+     */
+    private String acceptEncoding;
+
+    /**
+     * Determines whether the monitoring client reads binary streams with a string dictionary.
+     */
+    private boolean dictionaryAccepted;
+
+    /**
+     * Determines whether the response may be compressed when accepted by the monitoring client.
+     */
+    private boolean compressionEnabled = true;
+
     /**
      * Responsible for writing transfer entries to response stream writer.
      */
-    private PirasoEntryWriter writer;
+    private volatile EntryWriter writer;
+
+    /**
+     * Determines when written entries are flushed to the response.
+     */
+    private FlushPolicy flushPolicy = new FlushPolicy();
+
+    /**
+     * Number of entries written since the last flush.
+     */
+    private int unflushedEntries;
+
+    /**
+     * The time the oldest unflushed entry was written.
+     */
+    private long unflushedSince;
+
+    /**
+     * The {@link EntryWriter#getBytesWritten()} on last flush.
+     */
+    private long flushedBytes;
 
     /**
      * Determines whether the service is still active or not.
      */
-    private boolean alive = true;
+    private volatile boolean alive = true;
 
     /**
      * The user logging preference.
@@ -126,12 +235,12 @@ public class ResponseLoggerServiceImpl implements ResponseLoggerService {
     /**
      * Reason why service was forced stopped.
      */
-    private String forcedStoppedReason;
+    private volatile String forcedStoppedReason;
 
     /**
      * Determines whether the service was force stopped.
      */
-    private boolean forcedStopped = false;
+    private volatile boolean forcedStopped = false;
 
     /**
      * maximum idle timeout
@@ -139,10 +248,15 @@ public class ResponseLoggerServiceImpl implements ResponseLoggerService {
     private long maxIdleTimeout = DEFAULT_MAX_IDLE_TIME_OUT;
 
     /**
-     * maximum transfer queue force stopped size
+     * maximum transfer queue size, beyond which the {@link #overflowPolicy} applies
      */
     private int maxQueueForceKillSize = DEFAULT_MAX_QUEUE_FORCE_KILL_SIZE;
 
+    /**
+     * What to do with entries logged while the transfer queue is full.
+     */
+    private OverflowPolicy overflowPolicy = OverflowPolicy.DROP_LOW_PRIORITY;
+
     private long globalId;
 
     private ObjectMapper mapper;
@@ -165,6 +279,9 @@ public class ResponseLoggerServiceImpl implements ResponseLoggerService {
         this.alternativeWatchedAddrs = AlternativeWatchedAddressProviderManager.INSTANCE.getAlternatives(watchedAddr);
         this.user = user;
         this.response = response;
+        this.format = request.getFormat();
+        this.acceptEncoding = request.getAcceptEncoding();
+        this.dictionaryAccepted = request.isDictionaryAccepted();
         this.mapper = JacksonUtils.createMapper();
         this.globalId = ID_GENERATOR.next();
     }
@@ -179,7 +296,7 @@ public class ResponseLoggerServiceImpl implements ResponseLoggerService {
     }
 
     /**
-     * Sets the maximum transfer queue size before the service will be forced stopped.
+     * Sets the maximum transfer queue size before the {@link OverflowPolicy} applies.
      *
      * @param maxQueueForceKillSize the maximum transfer queue size
      */
@@ -187,6 +304,67 @@ public class ResponseLoggerServiceImpl implements ResponseLoggerService {
         this.maxQueueForceKillSize = maxQueueForceKillSize;
     }
 
+    /**
+     * Sets what to do with entries logged while the transfer queue is full, defaults to
+     * {@link OverflowPolicy#DROP_LOW_PRIORITY}.
+     *
+     * @param overflowPolicy the overflow policy
+     */
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        Validate.notNull(overflowPolicy, "overflowPolicy should not be null.");
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    /**
+     * The number of entries dropped so far by the {@link OverflowPolicy}.
+     *
+     * @return the dropped entries
+     */
+    public long getDroppedCount() {
+        return droppedEntries.get();
+    }
+
+    /**
+     * Sets whether the response may be gzip or deflate compressed when accepted by the monitoring client.
+     *
+     * @param compressionEnabled {@code false} to never compress the response
+     */
+    public void setCompressionEnabled(boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    /**
+     * Sets the policy which determines when written entries are flushed to the response.
+     *
+     * @param flushPolicy the flush policy
+     */
+    public void setFlushPolicy(FlushPolicy flushPolicy) {
+        Validate.notNull(flushPolicy, "flushPolicy should not be null.");
+        this.flushPolicy = flushPolicy;
+    }
+
+    /**
+     * The number of bytes written to the response so far, before compression.
+     *
+     * @return the bytes written
+     */
+    public long getBytesWritten() {
+        EntryWriter current = writer;
+
+        return current != null ? current.getBytesWritten() : 0l;
+    }
+
+    /**
+     * The number of flushes issued to the response so far.
+     *
+     * @return the flush count
+     */
+    public long getFlushCount() {
+        EntryWriter current = writer;
+
+        return current != null ? current.getFlushCount() : 0l;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -253,23 +431,109 @@ public class ResponseLoggerServiceImpl implements ResponseLoggerService {
      * {@inheritDoc}
      */
     public void start() throws IOException, TransformerConfigurationException, ParserConfigurationException {
-        response.setContentType(RESPONSE_CONTENT_TYPE);
-        response.setCharacterEncoding("UTF-8");
+        drainer = Thread.currentThread();
 
         try {
-            writer = new PirasoEntryWriter(getId(), getWatchedAddr(), response.getWriter());
+            writer = createWriter();
+            writer.setAutoFlush(false);
+            flushedBytes = writer.getBytesWritten();
 
             doLogWhileAlive();
         } finally {
-            synchronized (this) {
-                IOUtils.closeQuitely(writer);
-                notifyAll();
+            IOUtils.closeQuitely(writer);
+            drainer = null;
+            stoppedLatch.countDown();
+        }
+    }
+
+    /**
+     * Resolves the content encoding to use given the {@code Accept-Encoding} header value, gzip is preferred.
+     *
+     * @param acceptEncoding the accepted encodings
+     * @return the content encoding, {@code null} if the response should not be compressed
+     */
+    static String resolveContentEncoding(String acceptEncoding) {
+        if(acceptEncoding == null) {
+            return null;
+        }
+
+        boolean deflate = false;
+
+        for(String token : acceptEncoding.split(",")) {
+            String[] parts = token.split(";");
+            String coding = parts[0].trim().toLowerCase();
+
+            // explicitly not acceptable
+            if(parts.length > 1 && parts[1].trim().matches("q\\s*=\\s*0(\\.0*)?")) {
+                continue;
+            }
+
+            if(GZIP_CONTENT_ENCODING.equals(coding)) {
+                return GZIP_CONTENT_ENCODING;
+            } else if(DEFLATE_CONTENT_ENCODING.equals(coding)) {
+                deflate = true;
             }
         }
+
+        return deflate ? DEFLATE_CONTENT_ENCODING : null;
+    }
+
+    /**
+     * Creates the writer for the requested {@link #format}, xml unless binary was requested. The response is
+     * compressed when accepted by the monitoring client, compressed streams are sync flushed so every flush
+     * reaches the client.
+     *
+     * @return the entry writer
+     * @throws IOException on io error
+     */
+    private EntryWriter createWriter() throws IOException {
+        boolean binary = FORMAT_BINARY_PARAMETER_VALUE.equals(format);
+        String contentEncoding = compressionEnabled ? resolveContentEncoding(acceptEncoding) : null;
+
+        if(binary) {
+            response.setContentType(BINARY_CONTENT_TYPE);
+        } else {
+            response.setContentType(RESPONSE_CONTENT_TYPE);
+            response.setCharacterEncoding(ENCODING_UTF_8);
+        }
+
+        if(contentEncoding == null) {
+            if(binary) {
+                return new PirasoBinaryEntryWriter(getId(), getWatchedAddr(), response.getOutputStream(), dictionaryAccepted);
+            }
+
+            return new PirasoEntryWriter(getId(), getWatchedAddr(), response.getWriter());
+        }
+
+        response.setHeader(CONTENT_ENCODING_HEADER, contentEncoding);
+
+        OutputStream out;
+        if(GZIP_CONTENT_ENCODING.equals(contentEncoding)) {
+            out = SyncFlushOutputStreams.gzip(response.getOutputStream());
+        } else {
+            out = SyncFlushOutputStreams.deflate(response.getOutputStream());
+        }
+
+        if(binary) {
+            return new PirasoBinaryEntryWriter(getId(), getWatchedAddr(), out, dictionaryAccepted);
+        }
+
+        return new PirasoEntryWriter(getId(), getWatchedAddr(), new PrintWriter(new OutputStreamWriter(out, ENCODING_UTF_8)));
+    }
+
+    /**
+     * Wakes up the {@link #drainer} if it is waiting for entries.
+     */
+    private void signalDrainer() {
+        Thread thread = drainer;
+
+        if(thread != null) {
+            LockSupport.unpark(thread);
+        }
     }
 
     /**
-     * Wait for {@code 1800000l} millis if not interrupted for a log. This will ensure that the owning thread will idle
+     * Park for {@code 1800000l} millis if not signaled for a log. This will ensure that the owning thread will idle
      * when the {@link #transferQueue} is empty.
      * <p>
      * This is also responsible for computing for the idle time, which when the idle time exceeds the limit
@@ -278,29 +542,42 @@ public class ResponseLoggerServiceImpl implements ResponseLoggerService {
      * @throws IOException on io error
      */
     private void waitWhileNoEntryOrTimedOut() throws IOException {
-        if(transferQueue.isEmpty()) {
+        if(isNothingToWrite()) {
             long start = System.currentTimeMillis();
+            long timeout = 1800000l;
 
-            try {
-                long timeout = 1800000l;
+            if(timeout >= maxIdleTimeout) {
+                timeout = maxIdleTimeout;
+            }
 
-                if(timeout >= maxIdleTimeout) {
-                    timeout = maxIdleTimeout;
+            drainerWaiting = true;
+
+            try {
+                // re-check after publishing the waiting flag, a producer may have missed it
+                if(isNothingToWrite() && isAlive() && !isForcedStopped()) {
+                    LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(timeout));
                 }
+            } finally {
+                drainerWaiting = false;
+            }
 
-                wait(timeout);
-            } catch (InterruptedException ignored) {}
+            // same as an ignored InterruptedException, clear the flag so the next park will not return immediately
+            Thread.interrupted();
 
             // compute for idle time
             currentIdleTime += System.currentTimeMillis() - start;
 
             if(currentIdleTime >= maxIdleTimeout) {
-                forcedStopped = true;
                 forcedStoppedReason = String.format("Idle timeout '%d' was reached.", maxIdleTimeout);
+                forcedStopped = true;
             }
         }
     }
 
+    private boolean isNothingToWrite() {
+        return transferQueue.isEmpty() && unreportedDroppedEntries.get() == 0;
+    }
+
     /**
      * Throws a {@link ForcedStoppedException} when forced stopped.
      *
@@ -313,14 +590,57 @@ public class ResponseLoggerServiceImpl implements ResponseLoggerService {
         }
     }
 
+    /**
+     * Flush the written entries to the response.
+     *
+     * @throws IOException on io error
+     */
+    private void flush() throws IOException {
+        writer.flush();
+
+        unflushedEntries = 0;
+        flushedBytes = writer.getBytesWritten();
+    }
+
+    /**
+     * Flush the written entries when required by the {@link #flushPolicy}.
+     *
+     * @throws IOException on io error
+     */
+    private void flushIfRequired() throws IOException {
+        long now = System.currentTimeMillis();
+
+        if(unflushedEntries++ == 0) {
+            unflushedSince = now;
+        }
+
+        if(flushPolicy.isFlushRequired(unflushedEntries, writer.getBytesWritten() - flushedBytes, now - unflushedSince)) {
+            flush();
+        }
+    }
+
     /**
      * Empty the transfer queue and write to response stream writer. This will also reset the {@link #currentIdleTime}
      * to {@code 0}.
+     * <p>
+     * Written entries are flushed as required by the {@link #flushPolicy} and always when the queue is drained.
+     *
+     * @throws IOException on io error
      */
-    private void writeAllTransfer() {
-        while(CollectionUtils.isNotEmpty(transferQueue) && !isForcedStopped()) {
+    private void writeAllTransfer() throws IOException {
+        Entry entry;
+
+        while(!isForcedStopped()) {
+            if(pendingLowPriorityDrops.get() > 0) {
+                discardLowPriorityEntries();
+            }
+
+            if((entry = pollTransferQueue()) == null) {
+                break;
+            }
+
             try {
-                Entry entry = transferQueue.remove(0);
+                writeDroppedMessage();
 
                 // only do this for no id request
                 // clone and set request id to global id
@@ -334,10 +654,63 @@ public class ResponseLoggerServiceImpl implements ResponseLoggerService {
 
                 writer.write(entry);
                 currentIdleTime = 0;
+
+                flushIfRequired();
             } catch (Exception e) {
                 LOG.warn(e.getMessage(), e);
             }
         }
+
+        if(!isForcedStopped()) {
+            // entries dropped after the last queued entry
+            writeDroppedMessage();
+        }
+
+        if(unflushedEntries > 0) {
+            flush();
+        }
+    }
+
+    /**
+     * Removes the oldest queued low priority entries reserved to be dropped by {@link #dropOldest(Entry)}, in a single
+     * pass over the {@link #transferQueue}.
+     */
+    private void discardLowPriorityEntries() {
+        int pending = pendingLowPriorityDrops.getAndSet(0);
+
+        for(Iterator<Entry> it = transferQueue.iterator(); pending > 0 && it.hasNext();) {
+            Entry candidate = it.next();
+
+            if(OverflowPolicy.isLowPriority(candidate.getLevel())) {
+                it.remove();
+                dropped(candidate);
+                pending--;
+            }
+        }
+
+        if(pending > 0) {
+            // reserved entries polled before this pass were uncounted twice
+            transferQueueSize.addAndGet(pending);
+            queuedLowPriorityEntries.addAndGet(pending);
+        }
+    }
+
+    /**
+     * Writes a message with the number of entries dropped since the last message, if any.
+     *
+     * @throws IOException on io error
+     */
+    private void writeDroppedMessage() throws IOException {
+        long dropped = unreportedDroppedEntries.getAndSet(0);
+
+        if(dropped > 0) {
+            MessageEntry message = new MessageEntry(lastDroppedRequestId,
+                    String.format("%d entries dropped, the monitoring client did not keep up.", dropped));
+            message.setLevel(Level.ALL.getName());
+
+            writer.write(message);
+            flushIfRequired();
+        }
     }
 
     /**
@@ -346,16 +719,14 @@ public class ResponseLoggerServiceImpl implements ResponseLoggerService {
      * @throws IOException on io error
      */
     private void doLogWhileAlive() throws IOException {
-        synchronized (this) {
-            try {
-                while(isAlive()) {
-                    waitWhileNoEntryOrTimedOut();
-                    writeAllTransfer();
-                    throwWhenForcedStopped();
-                }
-            } finally {
-                fireStopEvent(new StopLoggerEvent(this));
+        try {
+            while(isAlive()) {
+                waitWhileNoEntryOrTimedOut();
+                writeAllTransfer();
+                throwWhenForcedStopped();
             }
+        } finally {
+            fireStopEvent(new StopLoggerEvent(this));
         }
     }
 
@@ -363,21 +734,17 @@ public class ResponseLoggerServiceImpl implements ResponseLoggerService {
      * {@inheritDoc}
      */
     public void stop() throws IOException {
-        synchronized(this) {
-            alive = false;
-            notifyAll();
-        }
+        alive = false;
+        signalDrainer();
     }
 
     /**
      * {@inheritDoc}
      */
     public void stopAndWait(long timeout) throws IOException, InterruptedException {
-        synchronized(this) {
-            if(isAlive()) {
-                stop();
-                wait(timeout);
-            }
+        if(isAlive()) {
+            stop();
+            stoppedLatch.await(timeout, TimeUnit.MILLISECONDS);
         }
     }
 
@@ -392,19 +759,142 @@ public class ResponseLoggerServiceImpl implements ResponseLoggerService {
      * {@inheritDoc}
      */
     public void log(Entry entry) throws IOException {
-        synchronized (this) {
-            Validate.notNull(entry.getRequestId(), "Entry id should not be null.");
+        Validate.notNull(entry.getRequestId(), "Entry id should not be null.");
 
-            if(transferQueue.size() + 1 >= maxQueueForceKillSize) {
-                forcedStopped = true;
-                forcedStoppedReason = String.format("Max queue force kill size '%d' was reached.", maxQueueForceKillSize);
-                notifyAll();
+        int size = transferQueueSize.incrementAndGet();
 
+        if(size >= maxQueueForceKillSize) {
+            if(!overflow(entry)) {
                 return;
             }
+        } else if(overflowPolicy == OverflowPolicy.SAMPLE && size >= maxQueueForceKillSize / 2
+                && sampledEntries.incrementAndGet() % OverflowPolicy.SAMPLE_RATE != 0) {
+            transferQueueSize.decrementAndGet();
+            dropped(entry);
+
+            return;
+        }
+
+        transferQueue.offer(entry);
+
+        if(overflowPolicy == OverflowPolicy.DROP_LOW_PRIORITY && OverflowPolicy.isLowPriority(entry.getLevel())) {
+            queuedLowPriorityEntries.incrementAndGet();
+        }
+
+        if(drainerWaiting) {
+            signalDrainer();
+        }
+    }
+
+    /**
+     * Applies the {@link #overflowPolicy} to an entry logged while the transfer queue is full. The entry is already
+     * counted in the {@link #transferQueueSize}.
+     *
+     * @param entry the logged entry
+     * @return {@code true} if the entry should be queued
+     */
+    private boolean overflow(Entry entry) {
+        switch (overflowPolicy) {
+            case FORCE_STOP:
+                transferQueueSize.decrementAndGet();
+
+                forcedStoppedReason = String.format("Max queue force kill size '%d' was reached.", maxQueueForceKillSize);
+                forcedStopped = true;
+                signalDrainer();
+
+                return false;
+            case DROP_OLDEST:
+                dropOldest(null);
+
+                return true;
+            case DROP_LOW_PRIORITY:
+                if(OverflowPolicy.isLowPriority(entry.getLevel())) {
+                    break;
+                }
+
+                dropOldest(entry);
+
+                return true;
+            default:
+                break;
+        }
+
+        transferQueueSize.decrementAndGet();
+        dropped(entry);
+
+        return false;
+    }
+
+    /**
+     * Drops the oldest queued entry, a low priority one first if the given entry is not. A low priority entry is
+     * only reserved here and removed by the drainer, so logging never walks the queue.
+     *
+     * @param entry the logged entry, {@code null} to drop the oldest entry whatever its priority
+     */
+    private void dropOldest(Entry entry) {
+        if(entry != null && decrementIfPositive(queuedLowPriorityEntries)) {
+            transferQueueSize.decrementAndGet();
+            pendingLowPriorityDrops.incrementAndGet();
+
+            return;
+        }
+
+        Entry oldest = pollTransferQueue();
+
+        if(oldest != null) {
+            dropped(oldest);
+        }
+    }
+
+    /**
+     * Removes the head of the {@link #transferQueue}. A low priority entry reaching the head while entries are
+     * reserved to be dropped is the oldest one, so it is dropped instead.
+     *
+     * @return the removed entry, or {@code null} if the queue is empty
+     */
+    private Entry pollTransferQueue() {
+        Entry entry;
+
+        while((entry = transferQueue.poll()) != null) {
+            if(overflowPolicy != OverflowPolicy.DROP_LOW_PRIORITY || !OverflowPolicy.isLowPriority(entry.getLevel())) {
+                transferQueueSize.decrementAndGet();
+                break;
+            }
+
+            if(!decrementIfPositive(pendingLowPriorityDrops)) {
+                transferQueueSize.decrementAndGet();
+                queuedLowPriorityEntries.decrementAndGet();
+                break;
+            }
+
+            // already uncounted when reserved
+            dropped(entry);
+        }
+
+        return entry;
+    }
+
+    private static boolean decrementIfPositive(AtomicInteger counter) {
+        int value;
+
+        do {
+            value = counter.get();
+
+            if(value <= 0) {
+                return false;
+            }
+        } while(!counter.compareAndSet(value, value - 1));
+
+        return true;
+    }
+
+    private void dropped(Entry entry) {
+        lastDroppedRequestId = entry.getRequestId();
+        droppedEntries.incrementAndGet();
+        unreportedDroppedEntries.incrementAndGet();
 
-            transferQueue.add(entry);
-            notifyAll();
+        if(drainerWaiting) {
+            signalDrainer();
         }
     }
 
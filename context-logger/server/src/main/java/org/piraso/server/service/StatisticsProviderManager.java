@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.service;
+
+import org.apache.commons.lang.Validate;
+import org.piraso.api.entry.Entry;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Holds the registered {@link StatisticsProvider} by name.
+ */
+public class StatisticsProviderManager {
+
+    public static final StatisticsProviderManager INSTANCE = new StatisticsProviderManager();
+
+    /**
+     * Number of items included in a snapshot when not requested.
+     */
+    public static final int DEFAULT_LIMIT = 50;
+
+    private final Map<String, StatisticsProvider> providers = new LinkedHashMap<String, StatisticsProvider>();
+
+    private StatisticsProviderManager() {}
+
+    public synchronized void addProvider(String name, StatisticsProvider provider) {
+        Validate.notNull(name, "name argument should not be null.");
+        Validate.notNull(provider, "provider argument should not be null.");
+
+        providers.put(name, provider);
+    }
+
+    public synchronized void removeProvider(String name) {
+        providers.remove(name);
+    }
+
+    /**
+     * Takes a snapshot of every registered provider.
+     *
+     * @param limit the maximum number of items each provider includes
+     * @return the snapshots by provider name
+     */
+    public Map<String, Entry> getStatistics(int limit) {
+        Map<String, StatisticsProvider> tmp;
+        synchronized (this) {
+            tmp = new LinkedHashMap<String, StatisticsProvider>(providers);
+        }
+
+        Map<String, Entry> results = new LinkedHashMap<String, Entry>();
+        for(Map.Entry<String, StatisticsProvider> entry : tmp.entrySet()) {
+            results.put(entry.getKey(), entry.getValue().getStatistics(limit));
+        }
+
+        return results;
+    }
+}
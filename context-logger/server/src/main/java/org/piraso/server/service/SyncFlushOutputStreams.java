@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.piraso.server.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Creates compressing streams whose {@link OutputStream#flush()} sends everything written so far, so the monitoring
+ * client receives the entries without waiting for the stream to end.
+ * <p>
+ * Uses the sync flush constructors when the runtime has them (Java 7). On older runtimes, a flush changes the
+ * deflater level back and forth, which makes the deflater emit its pending input.
+ */
+final class SyncFlushOutputStreams {
+
+    private static final Constructor<GZIPOutputStream> GZIP_CONSTRUCTOR = getSyncFlushConstructor(GZIPOutputStream.class);
+
+    private static final Constructor<DeflaterOutputStream> DEFLATE_CONSTRUCTOR = getSyncFlushConstructor(DeflaterOutputStream.class);
+
+    private SyncFlushOutputStreams() {}
+
+    private static <T extends DeflaterOutputStream> Constructor<T> getSyncFlushConstructor(Class<T> streamClass) {
+        try {
+            return streamClass.getConstructor(OutputStream.class, boolean.class);
+        } catch(NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    static boolean isSyncFlushSupported() {
+        return GZIP_CONSTRUCTOR != null && DEFLATE_CONSTRUCTOR != null;
+    }
+
+    static OutputStream gzip(OutputStream out) throws IOException {
+        if(GZIP_CONSTRUCTOR != null) {
+            return newInstance(GZIP_CONSTRUCTOR, out);
+        }
+
+        return new LevelFlushGZIPOutputStream(out);
+    }
+
+    static OutputStream deflate(OutputStream out) throws IOException {
+        if(DEFLATE_CONSTRUCTOR != null) {
+            return newInstance(DEFLATE_CONSTRUCTOR, out);
+        }
+
+        return new LevelFlushDeflaterOutputStream(out);
+    }
+
+    private static <T extends OutputStream> T newInstance(Constructor<T> constructor, OutputStream out) throws IOException {
+        try {
+            return constructor.newInstance(out, true);
+        } catch(InvocationTargetException e) {
+            if(e.getTargetException() instanceof IOException) {
+                throw (IOException) e.getTargetException();
+            }
+
+            throw new IllegalStateException(e.getTargetException());
+        } catch(Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void flushDeflater(Deflater def, byte[] buf, OutputStream out) throws IOException {
+        if(def.finished()) {
+            return;
+        }
+
+        def.setLevel(Deflater.NO_COMPRESSION);
+        deflate(def, buf, out);
+
+        def.setLevel(Deflater.DEFAULT_COMPRESSION);
+        deflate(def, buf, out);
+    }
+
+    private static void deflate(Deflater def, byte[] buf, OutputStream out) throws IOException {
+        int length;
+
+        while((length = def.deflate(buf, 0, buf.length)) > 0) {
+            out.write(buf, 0, length);
+        }
+    }
+
+    static class LevelFlushGZIPOutputStream extends GZIPOutputStream {
+        LevelFlushGZIPOutputStream(OutputStream out) throws IOException {
+            super(out);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushDeflater(def, buf, out);
+            out.flush();
+        }
+    }
+
+    static class LevelFlushDeflaterOutputStream extends DeflaterOutputStream {
+        LevelFlushDeflaterOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushDeflater(def, buf, out);
+            out.flush();
+        }
+    }
+}
@@ -51,4 +51,15 @@ public interface UserRegistry extends LoggerRegistry {
     void associate(User user, ResponseLoggerService service) throws IOException;
 
     void removeUser(User user) throws IOException;
+
+    /**
+     * Waits until the {@link #getVersion()} differs from the given version, used by the bridge to poll for
+     * changes.
+     *
+     * @param version the version known by the caller
+     * @param timeout the maximum time to wait in milliseconds
+     * @return the current version
+     * @throws InterruptedException on interrupt while waiting
+     */
+    long awaitVersionChange(long version, long timeout) throws InterruptedException;
 }
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.service;
+
+import org.piraso.api.Preferences;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Immutable index of the associated {@link ResponseLoggerService}s, used to answer whether a remote address and
+ * path is watched without copying the registry on every request.
+ * <p>
+ * A new index is built whenever a logger is associated or removed, url patterns are matched through
+ * {@link Preferences#isUrlAcceptable(String)} which compiles them once.
+ */
+class WatchIndex {
+
+    static final WatchIndex EMPTY = new WatchIndex(new ArrayList<ResponseLoggerService>());
+
+    private final Entry[] entries;
+
+    WatchIndex(Collection<ResponseLoggerService> services) {
+        List<Entry> list = new ArrayList<Entry>(services.size());
+
+        for(ResponseLoggerService service : services) {
+            list.add(new Entry(service));
+        }
+
+        entries = list.toArray(new Entry[list.size()]);
+    }
+
+    boolean isEmpty() {
+        return entries.length == 0;
+    }
+
+    boolean isWatched(String remoteAddr, String path) {
+        for(Entry entry : entries) {
+            if(entry.isWatched(remoteAddr, path)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    List<ResponseLoggerService> getLoggers(String remoteAddr, String path) {
+        List<ResponseLoggerService> list = new ArrayList<ResponseLoggerService>(entries.length);
+
+        for(Entry entry : entries) {
+            if(entry.isWatched(remoteAddr, path)) {
+                list.add(entry.service);
+            }
+        }
+
+        return list;
+    }
+
+    List<Preferences> getPreferences(String remoteAddr, String path) {
+        List<Preferences> list = new ArrayList<Preferences>(entries.length);
+
+        for(Entry entry : entries) {
+            if(entry.isWatched(remoteAddr, path)) {
+                list.add(entry.preferences);
+            }
+        }
+
+        return list;
+    }
+
+    private static class Entry {
+
+        private final ResponseLoggerService service;
+
+        private final Preferences preferences;
+
+        private Entry(ResponseLoggerService service) {
+            this.service = service;
+            this.preferences = service.getPreferences();
+        }
+
+        private boolean isWatched(String remoteAddr, String path) {
+            return service.isAlive() && service.isWatched(remoteAddr) && preferences.isUrlAcceptable(path);
+        }
+    }
+}
@@ -272,6 +272,56 @@ public class PirasoContextTest {
         verify(service3, times(1)).log(entry);
     }
 
+    @Test
+    public void testPreferencesResolvedOncePerRegistryVersion() throws Exception {
+        User user = associateUser(request);
+        ResponseLoggerService service = registry.getLogger(user);
+
+        service.getPreferences().addProperty("enabledProperty", true);
+        service.getPreferences().addProperty("1Property", 1);
+
+        for(int i = 0; i < 5; i++) {
+            assertTrue(context.isMonitored());
+            assertTrue(context.isEnabled("enabledProperty"));
+            assertTrue(context.isRegexEnabled("enabledProperty"));
+            assertEquals(Integer.valueOf(1), context.getIntValue("1Property"));
+            context.log(null, new GroupChainId("test"), new MessageEntry("test"));
+        }
+
+        verify(registry, times(1)).getContextPreferences(pirasoRequest);
+        verify(registry, times(1)).getContextLoggers(pirasoRequest);
+    }
+
+    @Test
+    public void testPreferencesResolvedAgainWhenLoggerStarted() throws Exception {
+        assertFalse(context.isMonitored());
+
+        User user = associateUser(request);
+        ResponseLoggerService service = registry.getLogger(user);
+        service.getPreferences().addProperty("enabledProperty", true);
+
+        assertTrue(context.isMonitored());
+        assertTrue(context.isEnabled("enabledProperty"));
+        verify(registry, times(2)).getContextPreferences(pirasoRequest);
+
+        registry.removeUser(user);
+
+        assertFalse(context.isMonitored());
+        assertFalse(context.isEnabled("enabledProperty"));
+        verify(registry, times(3)).getContextPreferences(pirasoRequest);
+    }
+
+    @Test
+    public void testChildContextSharesResolvedPreferences() throws Exception {
+        associateUser(request);
+        assertTrue(context.isMonitored());
+
+        PirasoContext child = context.createChildContext(new GroupChainId("child"));
+        assertTrue(child.isMonitored());
+
+        verify(registry, times(1)).getContextPreferences(pirasoRequest);
+    }
+
     private User associateUser(MockHttpServletRequest request) throws IOException {
         User user = registry.createOrGetUser(pirasoRequest);
         ResponseLoggerService service = mockService(request.getRemoteAddr(), true);
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.piraso.api.GeneralPreferenceEnum;
+import org.piraso.api.entry.StackTraceElementEntry;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.same;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link StackTraceSampler} class.
+ */
+public class StackTraceSamplerTest {
+
+    private PirasoContext context;
+
+    private GeneralPreferenceEvaluator evaluator;
+
+    @Before
+    public void setUp() throws Exception {
+        context = mock(PirasoContext.class);
+        doReturn(new StackTraceSampler()).when(context).getProperty(same(StackTraceSampler.class), anyString());
+        PirasoContextHolder.setContext(context);
+
+        evaluator = new GeneralPreferenceEvaluator();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        PirasoContextHolder.removeContext();
+    }
+
+    @Test
+    public void testSkipInfrastructureFrames() throws Exception {
+        StackTraceElementEntry[] trace = StackTraceSampler.capture(evaluator);
+
+        assertEquals(getClass().getName(), trace[0].getDeclaringClass());
+        assertEquals("testSkipInfrastructureFrames", trace[0].getMethodName());
+    }
+
+    @Test
+    public void testMaxDepth() throws Exception {
+        doReturn(2).when(context).getIntValue(GeneralPreferenceEnum.STACK_TRACE_MAX_DEPTH.getPropertyName());
+
+        assertEquals(2, StackTraceSampler.capture(evaluator).length);
+    }
+
+    @Test
+    public void testSampleRate() throws Exception {
+        doReturn(3).when(context).getIntValue(GeneralPreferenceEnum.STACK_TRACE_SAMPLE_RATE.getPropertyName());
+
+        int captured = 0;
+        for(int i = 0; i < 9; i++) {
+            if(StackTraceSampler.capture(evaluator) != null) {
+                captured++;
+            }
+        }
+
+        assertEquals(3, captured);
+    }
+
+    @Test
+    public void testInternedAndDistinct() throws Exception {
+        StackTraceElementEntry[][] traces = new StackTraceElementEntry[2][];
+        for(int i = 0; i < traces.length; i++) {
+            traces[i] = StackTraceSampler.capture(evaluator);
+        }
+
+        assertSame(traces[0], traces[1]);
+
+        doReturn(true).when(context).isEnabled(GeneralPreferenceEnum.STACK_TRACE_DISTINCT_ENABLED.getPropertyName());
+
+        for(int i = 0; i < traces.length; i++) {
+            traces[i] = StackTraceSampler.capture(evaluator);
+        }
+
+        assertNotNull(traces[0]);
+        assertNull(traces[1]);
+        assertTrue(StackTraceSampler.getCacheSize() <= StackTraceSampler.MAX_CACHED_TRACES);
+    }
+}
@@ -71,6 +71,27 @@ public class TestPirasoRequest implements PirasoEntryPoint, PirasoRequest {
         return request.getParameter(ACTIVITY_PARAMETER);
     }
 
+    public String getFormat() {
+        if(request.getParameter(FORMAT_PARAMETER) != null) {
+            return request.getParameter(FORMAT_PARAMETER);
+        }
+
+        String accept = request.getHeader("Accept");
+        if(accept != null && accept.contains(BINARY_CONTENT_TYPE)) {
+            return FORMAT_BINARY_PARAMETER_VALUE;
+        }
+
+        return FORMAT_XML_PARAMETER_VALUE;
+    }
+
+    public String getAcceptEncoding() {
+        return request.getHeader(ACCEPT_ENCODING_HEADER);
+    }
+
+    public boolean isDictionaryAccepted() {
+        return Boolean.parseBoolean(request.getParameter(DICTIONARY_PARAMETER));
+    }
+
     public MockHttpServletRequest getMockRequest() {
         return request;
     }
@@ -20,6 +20,7 @@ package org.piraso.server;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 
 /**
@@ -40,7 +41,15 @@ public class TestPirasoResponse implements PirasoResponse{
         response.setCharacterEncoding(encoding);
     }
 
+    public void setHeader(String name, String value) {
+        response.setHeader(name, value);
+    }
+
     public PrintWriter getWriter() throws IOException {
         return response.getWriter();
     }
+
+    public OutputStream getOutputStream() throws IOException {
+        return response.getOutputStream();
+    }
 }
@@ -24,6 +24,7 @@ import org.junit.Test;
 
 import static org.piraso.server.CommonMockObjects.*;
 import static junit.framework.Assert.*;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -75,6 +76,89 @@ public class DefaultUserRegistryImplTest {
         assertTrue(registry.isWatched(request));
     }
 
+    @Test
+    public void testEmptyRegistryFastPath() throws Exception {
+        TestPirasoRequest request = mockPirasoRequest("test", "a1");
+
+        assertFalse(registry.isWatched(request));
+        assertTrue(registry.getContextLoggers(request).isEmpty());
+        assertTrue(registry.getContextPreferences(request).isEmpty());
+
+        // no lookup on the request when nobody is monitoring
+        verify(request.getMockRequest(), never()).getRemoteAddr();
+        verify(request.getMockRequest(), never()).getRequestURI();
+    }
+
+    @Test
+    public void testVersionChangesOnAssociateAndRemove() throws Exception {
+        TestPirasoRequest request = mockPirasoRequest("test", "a1");
+        long initial = registry.getVersion();
+
+        User user = registry.createOrGetUser(request);
+        assertEquals(initial, registry.getVersion());
+
+        registry.associate(user, mockService(request.getRemoteAddr(), true));
+        long associated = registry.getVersion();
+        assertTrue(associated != initial);
+
+        registry.getContextPreferences(request);
+        assertEquals(associated, registry.getVersion());
+
+        registry.removeUser(user);
+        assertTrue(registry.getVersion() != associated);
+    }
+
+    @Test
+    public void testAwaitVersionChange() throws Exception {
+        final TestPirasoRequest request = mockPirasoRequest("test", "a1");
+        long initial = registry.getVersion();
+
+        // times out without a change
+        assertEquals(initial, registry.awaitVersionChange(initial, 10));
+
+        Thread associate = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    Thread.sleep(50);
+                    registry.associate(registry.createOrGetUser(request), mockService(request.getRemoteAddr(), true));
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+        associate.start();
+
+        assertTrue(registry.awaitVersionChange(initial, 10000) != initial);
+        associate.join();
+
+        // already changed, returns right away
+        assertEquals(registry.getVersion(), registry.awaitVersionChange(initial, 10000));
+    }
+
+    @Test
+    public void testIsWatchedUrlPattern() throws Exception {
+        TestPirasoRequest request = mockPirasoRequest("test", "a1");
+        request.getMockRequest().setRequestURI("/valid/page");
+
+        User user = registry.createOrGetUser(request);
+        ResponseLoggerService service = mockService(request.getRemoteAddr(), true);
+        service.getPreferences().addUrlPattern("/valid/.*");
+
+        registry.associate(user, service);
+
+        assertTrue(registry.isWatched(request));
+
+        request.getMockRequest().setRequestURI("/invalid/page");
+        assertFalse(registry.isWatched(request));
+
+        // url patterns changed after association
+        service.getPreferences().addUrlPattern("/invalid/.*");
+        assertTrue(registry.isWatched(request));
+
+        ((DefaultUserRegistryImpl) registry).clear();
+        assertFalse(registry.isWatched(request));
+    }
+
     @Test
     public void testRemove() throws Exception {
         TestPirasoRequest request = mockPirasoRequest("test", "a1");
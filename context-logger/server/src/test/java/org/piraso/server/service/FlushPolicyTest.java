@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.service;
+
+import org.junit.Test;
+
+import static junit.framework.Assert.assertFalse;
+import static junit.framework.Assert.assertTrue;
+
+/**
+ * Test for {@link FlushPolicy} class.
+ */
+public class FlushPolicyTest {
+
+    @Test
+    public void testLimits() throws Exception {
+        FlushPolicy policy = new FlushPolicy(10, 1024, 50);
+
+        assertFalse(policy.isFlushRequired(9, 1023, 49));
+        assertTrue(policy.isFlushRequired(10, 0, 0));
+        assertTrue(policy.isFlushRequired(1, 1024, 0));
+        assertTrue(policy.isFlushRequired(1, 0, 50));
+    }
+
+    @Test
+    public void testDisabledLimits() throws Exception {
+        FlushPolicy policy = new FlushPolicy(0, 0, 0);
+
+        assertFalse(policy.isFlushRequired(Integer.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE));
+        assertTrue(FlushPolicy.IMMEDIATE.isFlushRequired(1, 0, 0));
+    }
+}
@@ -23,8 +23,10 @@ import org.piraso.api.JacksonUtils;
 import org.piraso.api.Preferences;
 import org.piraso.api.entry.Entry;
 import org.piraso.api.entry.MessageEntry;
+import org.piraso.api.entry.MethodCallEntry;
 import org.piraso.api.io.EntryReadAdapter;
 import org.piraso.api.io.EntryReadEvent;
+import org.piraso.api.io.PirasoBinaryEntryReader;
 import org.piraso.api.io.PirasoEntryReader;
 import org.piraso.server.TestPirasoRequest;
 import org.piraso.server.TestPirasoResponse;
@@ -41,18 +43,25 @@ import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerConfigurationException;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.PrintWriter;
 import java.io.UnsupportedEncodingException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import static junit.framework.Assert.*;
+import static org.piraso.api.PirasoConstants.*;
 import static org.mockito.Mockito.*;
 
 /**
@@ -126,6 +135,7 @@ public class ResponseLoggerServiceImplTest {
 
     @Test(expected = ForcedStoppedException.class)
     public void testMaxTransferSize() throws Exception {
+        service.setOverflowPolicy(OverflowPolicy.FORCE_STOP);
         service.setMaxQueueForceKillSize(2);
         service.log(new MessageEntry(1l, "test"));
         service.log(new MessageEntry(1l, "test2"));
@@ -133,6 +143,244 @@ public class ResponseLoggerServiceImplTest {
         service.start();
     }
 
+    @Test
+    public void testDropNewest() throws Exception {
+        service.setOverflowPolicy(OverflowPolicy.DROP_NEWEST);
+        service.setMaxQueueForceKillSize(3);
+
+        for(int i = 0; i < 5; i++) {
+            service.log(new MessageEntry(1l, "test" + i));
+        }
+
+        assertEquals(3, service.getDroppedCount());
+
+        List<Entry> entries = startAndReadEntries();
+
+        assertEquals(3, entries.size());
+        assertEquals("3 entries dropped, the monitoring client did not keep up.", ((MessageEntry) entries.get(0)).getMessage());
+        assertEquals("test0", ((MessageEntry) entries.get(1)).getMessage());
+        assertEquals("test1", ((MessageEntry) entries.get(2)).getMessage());
+    }
+
+    @Test
+    public void testDroppedMessageWithoutLaterEntry() throws Exception {
+        service.setOverflowPolicy(OverflowPolicy.DROP_NEWEST);
+        service.setMaxQueueForceKillSize(1);
+
+        service.log(new MessageEntry(1l, "test0"));
+        service.log(new MessageEntry(1l, "test1"));
+
+        List<Entry> entries = startAndReadEntries();
+
+        assertEquals(1, entries.size());
+        assertEquals("2 entries dropped, the monitoring client did not keep up.", ((MessageEntry) entries.get(0)).getMessage());
+    }
+
+    @Test
+    public void testDropOldest() throws Exception {
+        service.setOverflowPolicy(OverflowPolicy.DROP_OLDEST);
+        service.setMaxQueueForceKillSize(3);
+
+        for(int i = 0; i < 5; i++) {
+            service.log(new MessageEntry(1l, "test" + i));
+        }
+
+        List<Entry> entries = startAndReadEntries();
+
+        assertEquals(3, entries.size());
+        assertEquals("test3", ((MessageEntry) entries.get(1)).getMessage());
+        assertEquals("test4", ((MessageEntry) entries.get(2)).getMessage());
+    }
+
+    @Test
+    public void testDropLowPriority() throws Exception {
+        service.setMaxQueueForceKillSize(3);
+
+        MessageEntry methodCall = new MessageEntry(1l, "method call");
+        methodCall.setLevel("sql.connection.method.call.enabled");
+
+        service.log(new MessageEntry(1l, "test0"));
+        service.log(methodCall);
+        service.log(new MessageEntry(1l, "test1"));
+        service.log(methodCall);
+
+        List<Entry> entries = startAndReadEntries();
+
+        assertEquals(2, service.getDroppedCount());
+        assertEquals(3, entries.size());
+        assertEquals("test0", ((MessageEntry) entries.get(1)).getMessage());
+        assertEquals("test1", ((MessageEntry) entries.get(2)).getMessage());
+    }
+
+    @Test
+    public void testDropLowPriorityWithoutLowPriorityQueued() throws Exception {
+        service.setMaxQueueForceKillSize(3);
+
+        MessageEntry methodCall = new MessageEntry(1l, "method call");
+        methodCall.setLevel("sql.connection.method.call.enabled");
+
+        service.log(methodCall);
+        service.log(new MessageEntry(1l, "test0"));
+        // replaces the method call
+        service.log(new MessageEntry(1l, "test1"));
+        // no method call left, replaces the oldest entry
+        service.log(new MessageEntry(1l, "test2"));
+
+        List<Entry> entries = startAndReadEntries();
+
+        assertEquals(2, service.getDroppedCount());
+        assertEquals(3, entries.size());
+        assertEquals("test1", ((MessageEntry) entries.get(1)).getMessage());
+        assertEquals("test2", ((MessageEntry) entries.get(2)).getMessage());
+    }
+
+    @Test
+    public void testSample() throws Exception {
+        service.setOverflowPolicy(OverflowPolicy.SAMPLE);
+        service.setMaxQueueForceKillSize(100);
+
+        for(int i = 0; i < 150; i++) {
+            service.log(new MessageEntry(1l, "test" + i));
+        }
+
+        // below half of the queue, then one out of ten of the remaining 101
+        assertEquals(49 + 10, 150 - service.getDroppedCount());
+        assertFalse(service.isForcedStopped());
+    }
+
+    @Test
+    public void testFlushPolicyBatchesEntries() throws Exception {
+        service.setFlushPolicy(new FlushPolicy(3, 0, 0));
+
+        for(int i = 0; i < 10; i++) {
+            service.log(new MessageEntry(1l, "test" + i));
+        }
+
+        // stop once the header lines and the first entry were written
+        stopOnWriteTimes(2);
+        service.start();
+
+        // header, every 3 entries and once the queue drained
+        assertEquals(5, service.getFlushCount());
+        assertEquals(response.getContentAsByteArray().length - "</piraso>".length(), service.getBytesWritten());
+    }
+
+    @Test
+    public void testImmediateFlushPolicy() throws Exception {
+        service.setFlushPolicy(FlushPolicy.IMMEDIATE);
+
+        for(int i = 0; i < 10; i++) {
+            service.log(new MessageEntry(1l, "test" + i));
+        }
+
+        // stop once the header lines and the first entry were written
+        stopOnWriteTimes(2);
+        service.start();
+
+        assertEquals(11, service.getFlushCount());
+    }
+
+    @Test
+    public void testBinaryFormat() throws Exception {
+        request.addParameter("format", "binary");
+        service = new ResponseLoggerServiceImpl(user, pirasoRequest, pirasoResponse);
+
+        for(int i = 0; i < 10; i++) {
+            service.log(new MessageEntry(1l, "test" + i));
+        }
+
+        startAndStopWhenDrained();
+
+        assertEquals(BINARY_CONTENT_TYPE, response.getContentType());
+        assertNull(response.getHeader(CONTENT_ENCODING_HEADER));
+
+        PirasoBinaryEntryReader reader = new PirasoBinaryEntryReader(new ByteArrayInputStream(response.getContentAsByteArray()));
+
+        assertEquals(10, readEntries(reader).size());
+        assertEquals(user.getActivityUuid(), reader.getId());
+    }
+
+    @Test
+    public void testBinaryFormatWithDictionary() throws Exception {
+        request.addParameter("format", "binary");
+        request.addParameter("dictionary", "true");
+        service = new ResponseLoggerServiceImpl(user, pirasoRequest, pirasoResponse);
+
+        MethodCallEntry entry = new MethodCallEntry(Integer.class.getMethod("valueOf", new Class[] {String.class}));
+        entry.setRequestId(1l);
+
+        for(int i = 0; i < 10; i++) {
+            service.log(entry);
+        }
+
+        startAndStopWhenDrained();
+
+        byte[] content = response.getContentAsByteArray();
+        List<Entry> entries = readEntries(new PirasoBinaryEntryReader(new ByteArrayInputStream(content)));
+
+        // version following the magic number
+        assertEquals(2, content[4]);
+        assertEquals(10, entries.size());
+        assertEquals(entry, entries.get(9));
+    }
+
+    @Test
+    public void testGzipCompression() throws Exception {
+        request.addHeader(ACCEPT_ENCODING_HEADER, "deflate, gzip");
+        service = new ResponseLoggerServiceImpl(user, pirasoRequest, pirasoResponse);
+
+        for(int i = 0; i < 10; i++) {
+            service.log(new MessageEntry(1l, "test" + i));
+        }
+
+        startAndStopWhenDrained();
+
+        assertEquals(GZIP_CONTENT_ENCODING, response.getHeader(CONTENT_ENCODING_HEADER));
+
+        InputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()));
+        assertEquals(10, readEntries(new PirasoEntryReader(in)).size());
+    }
+
+    @Test
+    public void testDeflateCompressionBinaryFormat() throws Exception {
+        request.addParameter("format", "binary");
+        request.addHeader(ACCEPT_ENCODING_HEADER, "gzip;q=0, deflate");
+        service = new ResponseLoggerServiceImpl(user, pirasoRequest, pirasoResponse);
+
+        for(int i = 0; i < 10; i++) {
+            service.log(new MessageEntry(1l, "test" + i));
+        }
+
+        startAndStopWhenDrained();
+
+        assertEquals(DEFLATE_CONTENT_ENCODING, response.getHeader(CONTENT_ENCODING_HEADER));
+
+        InputStream in = new InflaterInputStream(new ByteArrayInputStream(response.getContentAsByteArray()));
+        assertEquals(10, readEntries(new PirasoBinaryEntryReader(in)).size());
+    }
+
+    @Test
+    public void testCompressionDisabled() throws Exception {
+        request.addHeader(ACCEPT_ENCODING_HEADER, "gzip");
+        service = new ResponseLoggerServiceImpl(user, pirasoRequest, pirasoResponse);
+        service.setCompressionEnabled(false);
+        service.log(new MessageEntry(1l, "test"));
+
+        startAndStopWhenDrained();
+
+        assertNull(response.getHeader(CONTENT_ENCODING_HEADER));
+        assertEquals(1, readEntries(new PirasoEntryReader(new ByteArrayInputStream(response.getContentAsByteArray()))).size());
+    }
+
+    @Test
+    public void testResolveContentEncoding() throws Exception {
+        assertNull(ResponseLoggerServiceImpl.resolveContentEncoding(null));
+        assertNull(ResponseLoggerServiceImpl.resolveContentEncoding("identity"));
+        assertNull(ResponseLoggerServiceImpl.resolveContentEncoding("gzip;q=0"));
+        assertEquals(GZIP_CONTENT_ENCODING, ResponseLoggerServiceImpl.resolveContentEncoding("deflate, GZIP"));
+        assertEquals(DEFLATE_CONTENT_ENCODING, ResponseLoggerServiceImpl.resolveContentEncoding("gzip; q=0.0, deflate;q=0.5"));
+    }
+
     @Test
     public void testWaitAndStop() throws Exception {
         final AtomicBoolean fail = new AtomicBoolean(false);
@@ -247,6 +495,114 @@ public class ResponseLoggerServiceImplTest {
         assertEquals(expectedEntries.size(), entriesRead.size());
     }
 
+    @Test
+    public void testLogNotBlockedBySlowClient() throws Exception {
+        final AtomicBoolean fail = new AtomicBoolean(false);
+        final CountDownLatch clientBlocked = new CountDownLatch(1);
+        final CountDownLatch releaseClient = new CountDownLatch(1);
+        final AtomicInteger flushCount = new AtomicInteger(0);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        PrintWriter writer =  spy(response.getWriter());
+        doReturn(writer).when(response).getWriter();
+
+        // first flush is the header, block on the next ones to simulate a slow client
+        doAnswer(new Answer() {
+            public Object answer(InvocationOnMock invocationOnMock) throws Throwable {
+                if(flushCount.incrementAndGet() > 1) {
+                    clientBlocked.countDown();
+                    releaseClient.await();
+                }
+
+                return invocationOnMock.callRealMethod();
+            }
+        }).when(writer).flush();
+
+        Future future = executor.submit(new Runnable() {
+            public void run() {
+                try {
+                    service.start();
+                } catch (Exception e) {
+                    fail.set(true);
+                    e.printStackTrace();
+                }
+            }
+        });
+
+        service.log(new MessageEntry(1l, "blocked"));
+        assertTrue(clientBlocked.await(5, TimeUnit.SECONDS));
+
+        // drainer is now stuck writing to the client, logging should still not block
+        long start = System.currentTimeMillis();
+        for(int i = 0; i < 1000; i++) {
+            service.log(new MessageEntry(1l, "test_" + i));
+        }
+
+        assertTrue(System.currentTimeMillis() - start < 1000l);
+
+        service.stop();
+        releaseClient.countDown();
+
+        future.get();
+        executor.shutdown();
+
+        if(fail.get()) {
+            fail("failure see exception trace.");
+        }
+    }
+
+    /**
+     * Helper method to start the service and stop it once the already queued entries are written.
+     *
+     * @throws Exception on error
+     */
+    private List<Entry> startAndReadEntries() throws Exception {
+        startAndStopWhenDrained();
+
+        return readEntries(new PirasoEntryReader(new ByteArrayInputStream(response.getContentAsByteArray())));
+    }
+
+    private void startAndStopWhenDrained() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future future = executor.submit(new Callable<Object>() {
+            public Object call() throws Exception {
+                service.start();
+                return null;
+            }
+        });
+
+        // header flush and the flush once the queue is drained
+        long timeout = System.currentTimeMillis() + 3000l;
+        while(service.getFlushCount() < 2 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(10l);
+        }
+
+        service.stopAndWait(3000l);
+        future.get();
+        executor.shutdown();
+    }
+
+    /**
+     * Helper method to read all entries given the reader.
+     *
+     * @param reader the entry reader
+     * @return the entries read
+     * @throws Exception on error
+     */
+    private List<Entry> readEntries(PirasoEntryReader reader) throws Exception {
+        final List<Entry> entriesRead = new ArrayList<Entry>();
+
+        reader.addListener(new EntryReadAdapter() {
+            @Override
+            public void readEntry(EntryReadEvent evt) {
+                entriesRead.add(evt.getEntry());
+            }
+        });
+        reader.start();
+
+        return entriesRead;
+    }
+
     /**
      * Helper method to ensure that the service stops when number of logs is reached.
      *
@@ -266,7 +622,7 @@ public class ResponseLoggerServiceImplTest {
 
                 return invocationOnMock.callRealMethod();
             }
-        }).when(writer).println(anyString());
+        }).when(writer).println();
     }
 
     private class ExceptionThrowEntry extends Entry {
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package org.piraso.server.service;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.zip.Inflater;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link SyncFlushOutputStreams} class.
+ */
+public class SyncFlushOutputStreamsTest {
+
+    private static final int GZIP_HEADER_SIZE = 10;
+
+    @Test
+    public void testSyncFlushSupported() throws Exception {
+        // built and tested on Java 7 or later
+        assertTrue(SyncFlushOutputStreams.isSyncFlushSupported());
+    }
+
+    @Test
+    public void testGzipFlush() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        assertFlushed(SyncFlushOutputStreams.gzip(bytes), bytes, GZIP_HEADER_SIZE, true);
+    }
+
+    @Test
+    public void testDeflateFlush() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        assertFlushed(SyncFlushOutputStreams.deflate(bytes), bytes, 0, false);
+    }
+
+    @Test
+    public void testLevelFlushGzip() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        assertFlushed(new SyncFlushOutputStreams.LevelFlushGZIPOutputStream(bytes), bytes, GZIP_HEADER_SIZE, true);
+    }
+
+    @Test
+    public void testLevelFlushDeflate() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        assertFlushed(new SyncFlushOutputStreams.LevelFlushDeflaterOutputStream(bytes), bytes, 0, false);
+    }
+
+    private void assertFlushed(OutputStream out, ByteArrayOutputStream bytes, int headerSize, boolean nowrap) throws Exception {
+        StringBuilder expected = new StringBuilder();
+
+        for(int i = 0; i < 3; i++) {
+            String entry = "<entry id=\"" + i + "\">message " + i + "</entry>";
+            expected.append(entry);
+
+            out.write(entry.getBytes("UTF-8"));
+            out.flush();
+
+            // everything written so far is decodable without closing the stream
+            assertEquals(expected.toString(), inflate(bytes.toByteArray(), headerSize, nowrap));
+        }
+
+        out.close();
+    }
+
+    private String inflate(byte[] compressed, int offset, boolean nowrap) throws Exception {
+        Inflater inflater = new Inflater(nowrap);
+        inflater.setInput(compressed, offset, compressed.length - offset);
+
+        byte[] buf = new byte[4096];
+        int length = inflater.inflate(buf);
+        inflater.end();
+
+        return new String(buf, 0, length, "UTF-8");
+    }
+}
@@ -18,13 +18,13 @@
 
 package org.piraso.server.log4j.logger;
 
-import org.piraso.api.entry.EntryUtils;
 import org.piraso.api.entry.ThrowableEntry;
 import org.piraso.api.log4j.Log4jEntry;
 import org.piraso.proxy.RegexMethodInterceptorAdapter;
 import org.piraso.proxy.RegexMethodInterceptorEvent;
 import org.piraso.proxy.RegexProxyFactory;
 import org.piraso.server.GroupChainId;
+import org.piraso.server.StackTraceSampler;
 import org.piraso.server.dispatcher.ContextLogDispatcher;
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.log4j.Logger;
@@ -40,7 +40,7 @@ public class LoggerProxyFactory  extends AbstractLog4jProxyFactory<Logger> {
     private String category;
 
     public LoggerProxyFactory(String category) {
-        super(new RegexProxyFactory<Logger>(Logger.class));
+        super(new RegexProxyFactory<Logger>(Logger.class, Log4JLogger.class));
         this.category = category;
         this.id = new GroupChainId(category);
 
@@ -110,7 +110,7 @@ public class LoggerProxyFactory  extends AbstractLog4jProxyFactory<Logger> {
                     entry.setThrown(new ThrowableEntry(throwable));
                 }
                 if(getPref().isStackTraceEnabled()) {
-                    entry.setStackTrace(EntryUtils.toEntry(Thread.currentThread().getStackTrace()));
+                    entry.setStackTrace(StackTraceSampler.capture(getPref()));
                 }
 
                 ContextLogDispatcher.forward(getPref().getLog4jRegexLevel(category, level), id, entry);
@@ -47,8 +47,7 @@ public class LoggerRepositoryProxyFactory extends AbstractLog4jProxyFactory<Logg
                         return;
                     }
 
-                    Logger returnedValue = Log4JLoggerEnhancer.wrap(logger);
-                    evt.setReturnedValue(new LoggerProxyFactory(category).getProxy(returnedValue));
+                    evt.setReturnedValue(new LoggerProxyFactory(category).getProxy(logger));
                 }
             }
         });
@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.piraso.api.LongIDGenerator;
+import org.piraso.api.Preferences;
+import org.piraso.api.entry.Entry;
+import org.piraso.server.PirasoContext;
+import org.piraso.server.PirasoContextIDGenerator;
+import org.piraso.server.PirasoEntryPoint;
+import org.piraso.server.service.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the preference lookups a single monitored request performs, each enabled check followed by the
+ * monitored check {@link PirasoContext#log} does, against the {@link LoggerRegistry}.
+ * <p>
+ * {@link #perLookupScan} repeats the registry scan for every lookup, as {@link PirasoContext} used to, while
+ * {@link #resolvedSnapshot} goes through {@link PirasoContext} which resolves the preferences once per registry
+ * version. The {@link Counters#registryScans} per {@link Counters#requests} show the difference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PirasoContextPreferenceBenchmark {
+
+    private static final String[] PROPERTIES = new String[20];
+
+    static {
+        for(int i = 0; i < PROPERTIES.length; i++) {
+            PROPERTIES[i] = "benchmark.property." + i;
+        }
+    }
+
+    /**
+     * Number of monitoring loggers watching the request address.
+     */
+    @Param({"1", "4"})
+    public int monitors;
+
+    private CountingRegistry registry;
+
+    private PirasoEntryPoint entryPoint;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        PirasoContextIDGenerator.INSTANCE.setIdGenerator(new LongIDGenerator());
+
+        DefaultUserRegistryImpl delegate = new DefaultUserRegistryImpl();
+
+        for(int i = 0; i < monitors; i++) {
+            BenchmarkLoggerService service = new BenchmarkLoggerService(new User("127.0.0.1", "benchmark-" + i));
+
+            for(int j = 0; j < PROPERTIES.length; j++) {
+                service.getPreferences().addProperty(PROPERTIES[j], j % 2 == 0);
+            }
+
+            service.getPreferences().addProperty("benchmark.size", i);
+            delegate.associate(service.getUser(), service);
+        }
+
+        registry = new CountingRegistry(delegate);
+        entryPoint = new BenchmarkEntryPoint();
+    }
+
+    @Benchmark
+    public void perLookupScan(Counters counters, Blackhole blackhole) throws IOException {
+        registry.counters = counters;
+        counters.requests++;
+
+        for(String property : PROPERTIES) {
+            boolean enabled = false;
+
+            for(Preferences pref : registry.getContextPreferences(entryPoint)) {
+                if(pref.isEnabled(property)) {
+                    enabled = true;
+                    break;
+                }
+            }
+
+            blackhole.consume(enabled);
+            blackhole.consume(!registry.getContextPreferences(entryPoint).isEmpty());
+        }
+
+        Integer max = null;
+        for(Preferences pref : registry.getContextPreferences(entryPoint)) {
+            Integer value = pref.getIntValue("benchmark.size");
+            if(max == null || (value != null && value > max)) {
+                max = value;
+            }
+        }
+
+        blackhole.consume(max);
+    }
+
+    @Benchmark
+    public void resolvedSnapshot(Counters counters, Blackhole blackhole) {
+        registry.counters = counters;
+        counters.requests++;
+
+        PirasoContext context = new PirasoContext(entryPoint, registry);
+
+        for(String property : PROPERTIES) {
+            blackhole.consume(context.isEnabled(property));
+            blackhole.consume(context.isMonitored());
+        }
+
+        blackhole.consume(context.getIntValue("benchmark.size"));
+    }
+
+    /**
+     * Registry scans and requests reported per iteration next to the throughput.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Counters {
+        public long registryScans;
+
+        public long requests;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            registryScans = 0;
+            requests = 0;
+        }
+    }
+
+    /**
+     * Counts the calls that scan the registered loggers.
+     */
+    private static class CountingRegistry implements LoggerRegistry {
+        private final LoggerRegistry delegate;
+
+        private Counters counters;
+
+        private CountingRegistry(LoggerRegistry delegate) {
+            this.delegate = delegate;
+        }
+
+        public List<Preferences> getContextPreferences(PirasoEntryPoint entryPoint) throws IOException {
+            counters.registryScans++;
+
+            return delegate.getContextPreferences(entryPoint);
+        }
+
+        public List<ResponseLoggerService> getContextLoggers(PirasoEntryPoint entryPoint) throws IOException {
+            counters.registryScans++;
+
+            return delegate.getContextLoggers(entryPoint);
+        }
+
+        public long getVersion() {
+            return delegate.getVersion();
+        }
+
+        public boolean hasLoggers() {
+            return delegate.hasLoggers();
+        }
+    }
+
+    private static class BenchmarkEntryPoint implements PirasoEntryPoint {
+        public String getPath() {
+            return "/benchmark";
+        }
+
+        public String getRemoteAddr() {
+            return "127.0.0.1";
+        }
+    }
+
+    /**
+     * Monitoring logger that discards everything logged.
+     */
+    private static class BenchmarkLoggerService implements ResponseLoggerService {
+        private final User user;
+
+        private final Preferences preferences = new Preferences();
+
+        private BenchmarkLoggerService(User user) {
+            this.user = user;
+        }
+
+        public User getUser() {
+            return user;
+        }
+
+        public String getId() {
+            return user.getActivityUuid();
+        }
+
+        public Long getGlobalId() {
+            return 1l;
+        }
+
+        public String getWatchedAddr() {
+            return user.getRemoteAddr();
+        }
+
+        public boolean isWatched(String remoteAddr) {
+            return user.getRemoteAddr().equals(remoteAddr);
+        }
+
+        public Preferences getPreferences() {
+            return preferences;
+        }
+
+        public void start() throws Exception {
+        }
+
+        public void stop() throws IOException {
+        }
+
+        public boolean isAlive() {
+            return true;
+        }
+
+        public boolean isForcedStopped() {
+            return false;
+        }
+
+        public void stopAndWait(long timeout) throws InterruptedException, IOException {
+        }
+
+        public void log(Entry entry) throws IOException {
+        }
+
+        public void addStopListener(StopLoggerListener listener) {
+        }
+
+        public void removeStopListener(StopLoggerListener listener) {
+        }
+
+        public void fireStopEvent(StopLoggerEvent event) {
+        }
+    }
+}
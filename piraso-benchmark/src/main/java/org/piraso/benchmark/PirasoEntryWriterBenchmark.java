@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.piraso.api.entry.MessageEntry;
+import org.piraso.api.io.PirasoEntryWriter;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of encoding a single entry through {@link PirasoEntryWriter}, the output itself is discarded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PirasoEntryWriterBenchmark {
+
+    /**
+     * Number of characters in the logged message, half of them need escaping.
+     */
+    @Param({"64", "4096"})
+    public int messageLength;
+
+    private PirasoEntryWriter writer;
+
+    private MessageEntry entry;
+
+    private Date date;
+
+    @Setup
+    public void setUp() throws Exception {
+        StringBuilder buf = new StringBuilder(messageLength);
+        for(int i = 0; i < messageLength; i++) {
+            buf.append(i % 2 == 0 ? 'a' : '<');
+        }
+
+        entry = new MessageEntry(1l, buf.toString());
+        date = new Date();
+        writer = new PirasoEntryWriter("benchmark", "127.0.0.1", new PrintWriter(new NullWriter()));
+    }
+
+    @Benchmark
+    public void write() throws IOException {
+        writer.write(date, entry);
+    }
+
+    private static class NullWriter extends Writer {
+        @Override
+        public void write(char[] buf, int off, int len) throws IOException {
+        }
+
+        @Override
+        public void flush() throws IOException {
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+}
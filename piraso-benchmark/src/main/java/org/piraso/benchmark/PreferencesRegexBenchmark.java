@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.piraso.api.Preferences;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link Preferences#isRegexEnabled(String)} and {@link Preferences#isUrlAcceptable(String)} as called for
+ * every log4j category check and every watched request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreferencesRegexBenchmark {
+
+    /**
+     * Number of boolean properties and url patterns in the preferences.
+     */
+    @Param({"10", "50"})
+    public int properties;
+
+    private Preferences preferences;
+
+    @Setup
+    public void setUp() {
+        preferences = new Preferences();
+
+        for(int i = 0; i < properties; i++) {
+            preferences.addProperty("log4j\\.org\\.piraso\\.module" + i + "\\..*", true);
+            preferences.addUrlPattern("/module" + i + "/.*");
+        }
+    }
+
+    @Benchmark
+    public boolean isRegexEnabled() {
+        return preferences.isRegexEnabled("log4j.com.example.service.DEBUG");
+    }
+
+    @Benchmark
+    public boolean isUrlAcceptable() {
+        return preferences.isUrlAcceptable("/other/page.html");
+    }
+}
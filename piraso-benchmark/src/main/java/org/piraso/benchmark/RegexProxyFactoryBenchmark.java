@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.piraso.proxy.RegexMethodInterceptorAdapter;
+import org.piraso.proxy.RegexMethodInterceptorEvent;
+import org.piraso.proxy.RegexProxyFactory;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a call through a {@link RegexProxyFactory} proxy, the way every JDBC result set getter is intercepted,
+ * for a method with a listener and a method without any, and the creation of a short lived proxy the way every
+ * statement and result set gets its own factory and proxy.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegexProxyFactoryBenchmark {
+
+    /**
+     * Number of regular expressions registered besides the one for {@link Record#getString(int)}.
+     */
+    @Param({"1", "10"})
+    public int expressions;
+
+    private final RegexMethodInterceptorAdapter<Record> adapter = new RegexMethodInterceptorAdapter<Record>() {
+        @Override
+        public void afterCall(RegexMethodInterceptorEvent<Record> evt) {
+        }
+    };
+
+    private final Record record = new SimpleRecord();
+
+    private Record proxy;
+
+    @Setup
+    public void setUp() {
+        proxy = createFactory().getProxy(record);
+    }
+
+    private RegexProxyFactory<Record> createFactory() {
+        RegexProxyFactory<Record> factory = new RegexProxyFactory<Record>(Record.class);
+
+        factory.addMethodListener("getString", adapter);
+        for(int i = 0; i < expressions; i++) {
+            factory.addMethodListener("update" + i + ".*", adapter);
+        }
+
+        return factory;
+    }
+
+    @Benchmark
+    public String withListener() {
+        return proxy.getString(1);
+    }
+
+    @Benchmark
+    public int withoutListener() {
+        return proxy.getInt(1);
+    }
+
+    @Benchmark
+    public String shortLivedProxy() {
+        Record shortLived = createFactory().getProxy(record);
+        shortLived.getInt(1);
+
+        return shortLived.getString(1);
+    }
+
+    public interface Record {
+        String getString(int column);
+
+        int getInt(int column);
+    }
+
+    private static class SimpleRecord implements Record {
+        public String getString(int column) {
+            return "value";
+        }
+
+        public int getInt(int column) {
+            return column;
+        }
+    }
+}
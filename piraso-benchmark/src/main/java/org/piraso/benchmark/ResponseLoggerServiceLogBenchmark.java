@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.piraso.api.Preferences;
+import org.piraso.api.entry.MessageEntry;
+import org.piraso.server.PirasoRequest;
+import org.piraso.server.PirasoResponse;
+import org.piraso.server.service.OverflowPolicy;
+import org.piraso.server.service.ResponseLoggerServiceImpl;
+import org.piraso.server.service.User;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link ResponseLoggerServiceImpl#log(org.piraso.api.entry.Entry)} throughput from 1, 8 and 64 producer
+ * threads while the monitoring client is either fast or slow to accept the written entries.
+ * <p>
+ * Producer throughput should not change with {@link #clientFlushDelay}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ResponseLoggerServiceLogBenchmark {
+
+    /**
+     * Milliseconds the simulated monitoring client takes for each flush.
+     */
+    @Param({"0", "5"})
+    public int clientFlushDelay;
+
+    private ResponseLoggerServiceImpl service;
+
+    private Thread drainer;
+
+    private MessageEntry entry;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception {
+        entry = new MessageEntry(1l, "benchmark message");
+
+        service = new ResponseLoggerServiceImpl(new User("127.0.0.1", "benchmark"), new BenchmarkRequest(),
+                new BenchmarkResponse(clientFlushDelay));
+        service.setMaxQueueForceKillSize(Integer.MAX_VALUE);
+
+        drainer = new Thread(new Runnable() {
+            public void run() {
+                try {
+                    service.start();
+                } catch (Exception ignored) {
+                }
+            }
+        }, "piraso-benchmark-drainer");
+
+        drainer.start();
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws Exception {
+        // producers outpace the drainer, force stop so the backlog is discarded instead of written
+        service.setOverflowPolicy(OverflowPolicy.FORCE_STOP);
+        service.setMaxQueueForceKillSize(0);
+        service.log(entry);
+        service.stop();
+
+        drainer.join();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void log1Producer() throws IOException {
+        service.log(entry);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void log8Producers() throws IOException {
+        service.log(entry);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public void log64Producers() throws IOException {
+        service.log(entry);
+    }
+
+    private static class BenchmarkRequest implements PirasoRequest {
+        public Preferences getPreferences() {
+            return new Preferences();
+        }
+
+        public String getRemoteAddr() {
+            return "127.0.0.1";
+        }
+
+        public String getWatchedAddr() {
+            return "127.0.0.1";
+        }
+
+        public String getActivityUuid() {
+            return "benchmark";
+        }
+
+        public String getFormat() {
+            return "xml";
+        }
+
+        public String getAcceptEncoding() {
+            return null;
+        }
+
+        public boolean isDictionaryAccepted() {
+            return false;
+        }
+    }
+
+    private static class BenchmarkResponse implements PirasoResponse {
+        private PrintWriter writer;
+
+        private BenchmarkResponse(int flushDelay) {
+            writer = new PrintWriter(new SlowClientWriter(flushDelay));
+        }
+
+        public void setContentType(String contentType) {
+        }
+
+        public void setCharacterEncoding(String encoding) {
+        }
+
+        public void setHeader(String name, String value) {
+        }
+
+        public PrintWriter getWriter() throws IOException {
+            return writer;
+        }
+
+        public OutputStream getOutputStream() throws IOException {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    /**
+     * Discards everything written and sleeps on each flush to simulate a slow monitoring client.
+     */
+    private static class SlowClientWriter extends Writer {
+        private int flushDelay;
+
+        private SlowClientWriter(int flushDelay) {
+            this.flushDelay = flushDelay;
+        }
+
+        @Override
+        public void write(char[] buf, int off, int len) throws IOException {
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if(flushDelay <= 0) {
+                return;
+            }
+
+            try {
+                Thread.sleep(flushDelay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+        }
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.benchmark;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.piraso.api.LongIDGenerator;
+import org.piraso.api.Preferences;
+import org.piraso.server.PirasoContext;
+import org.piraso.server.PirasoContextHolder;
+import org.piraso.server.PirasoContextIDGenerator;
+import org.piraso.server.PirasoEntryPoint;
+import org.piraso.server.service.DefaultUserRegistryImpl;
+import org.piraso.server.service.LoggerRegistry;
+import org.piraso.server.service.LoggerRegistrySingleton;
+import org.piraso.server.service.ResponseLoggerService;
+import org.piraso.server.sql.SQLContextLogger;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a query through an H2 in-memory data source handing out an open connection, the way a pool does,
+ * while nobody is monitoring.
+ * <p>
+ * <code>raw</code> uses the pooled data source, <code>intercepted</code> goes through a {@link SQLContextLogger}
+ * proxy that is told a logger exists, as every call used to be intercepted, and <code>unmonitored</code> goes through
+ * the same proxy backed by an empty registry.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SQLUnmonitoredBenchmark {
+
+    @Param({"raw", "intercepted", "unmonitored"})
+    public String mode;
+
+    private DataSource dataSource;
+
+    private Connection connection;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+
+        connection = h2.getConnection();
+
+        Statement statement = connection.createStatement();
+        statement.execute("CREATE TABLE IF NOT EXISTS ITEM (ID INT PRIMARY KEY, NAME VARCHAR(32))");
+        statement.execute("MERGE INTO ITEM VALUES (1, 'benchmark')");
+        statement.close();
+
+        PooledDataSource pooled = new PooledDataSource(connection);
+
+        LoggerRegistry registry = new DefaultUserRegistryImpl();
+        if("intercepted".equals(mode)) {
+            registry = new AlwaysMonitoredRegistry(registry);
+        }
+
+        LoggerRegistrySingleton.INSTANCE.setRegistry(registry);
+        PirasoContextIDGenerator.INSTANCE.setIdGenerator(new LongIDGenerator());
+        PirasoContextHolder.setContext(new PirasoContext(new BenchmarkEntryPoint(), registry));
+
+        dataSource = "raw".equals(mode) ? pooled : SQLContextLogger.create(pooled, "benchmark");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+        PirasoContextHolder.removeContext();
+        LoggerRegistrySingleton.INSTANCE.setRegistry(null);
+    }
+
+    @Benchmark
+    public String query() throws SQLException {
+        PreparedStatement statement = dataSource.getConnection().prepareStatement("SELECT NAME FROM ITEM WHERE ID = ?");
+        statement.setInt(1, 1);
+
+        ResultSet rs = statement.executeQuery();
+        String name = rs.next() ? rs.getString(1) : null;
+
+        rs.close();
+        statement.close();
+
+        return name;
+    }
+
+    /**
+     * Hands out the same open connection, returning it to the pool is left out.
+     */
+    public static class PooledDataSource implements DataSource {
+        private Connection connection;
+
+        public PooledDataSource() {
+        }
+
+        public PooledDataSource(Connection connection) {
+            this.connection = connection;
+        }
+
+        public Connection getConnection() throws SQLException {
+            return connection;
+        }
+
+        public Connection getConnection(String username, String password) throws SQLException {
+            return connection;
+        }
+
+        public PrintWriter getLogWriter() throws SQLException {
+            return null;
+        }
+
+        public void setLogWriter(PrintWriter out) throws SQLException {
+        }
+
+        public void setLoginTimeout(int seconds) throws SQLException {
+        }
+
+        public int getLoginTimeout() throws SQLException {
+            return 0;
+        }
+
+        public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            throw new SQLException("not a wrapper");
+        }
+
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return false;
+        }
+    }
+
+    /**
+     * Reports loggers without having any, so the proxies intercept every call.
+     */
+    private static class AlwaysMonitoredRegistry implements LoggerRegistry {
+        private final LoggerRegistry delegate;
+
+        private AlwaysMonitoredRegistry(LoggerRegistry delegate) {
+            this.delegate = delegate;
+        }
+
+        public List<Preferences> getContextPreferences(PirasoEntryPoint entryPoint) throws IOException {
+            return delegate.getContextPreferences(entryPoint);
+        }
+
+        public List<ResponseLoggerService> getContextLoggers(PirasoEntryPoint entryPoint) throws IOException {
+            return delegate.getContextLoggers(entryPoint);
+        }
+
+        public long getVersion() {
+            return delegate.getVersion();
+        }
+
+        public boolean hasLoggers() {
+            return true;
+        }
+    }
+
+    private static class BenchmarkEntryPoint implements PirasoEntryPoint {
+        public String getPath() {
+            return "/benchmark";
+        }
+
+        public String getRemoteAddr() {
+            return "127.0.0.1";
+        }
+    }
+}
@@ -0,0 +1,475 @@
+package org.piraso.server.bridge;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.codehaus.jackson.map.ObjectMapper;
+import org.piraso.api.JacksonUtils;
+import org.apache.commons.lang.ArrayUtils;
+import org.apache.http.HttpStatus;
+import org.piraso.api.entry.Entry;
+import org.piraso.client.net.HttpPirasoException;
+import org.piraso.server.bridge.net.HttpPirasoLogHandler;
+import org.piraso.server.service.BridgeEntry;
+import org.piraso.server.service.User;
+import org.springframework.beans.factory.annotation.Required;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends the logged entries to the bridge from a background thread, so the monitored request does not wait for
+ * the bridge. Queued entries are sent in batches of at most {@link #setMaxBatchSize(int)} entries, one request per
+ * user, and an entry waits at most {@link #setMaxBatchLatency(long)} milliseconds for its batch to fill up.
+ * <p>
+ * When the bridge can not be reached or answers it is unavailable (5xx, 408 or 429 status), sending stops for a
+ * retry interval which doubles on each failure up to
+ * {@link #setMaxRetryInterval(long)}. Meanwhile the batches are kept in a bounded {@link BridgeEntrySpool} and
+ * are sent in order before any newer batch once the bridge is reached again.
+ * <p>
+ * Entries are dropped once the queue or the spool is full, see {@link #getDroppedCount()}.
+ */
+public class BridgeEntrySender {
+
+    private static final Log LOG = LogFactory.getLog(BridgeEntrySender.class);
+
+    public static final int DEFAULT_QUEUE_SIZE = 10000;
+
+    public static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    public static final long DEFAULT_MAX_BATCH_LATENCY = 50l;
+
+    public static final int DEFAULT_SPOOL_SEGMENT_SIZE = 4 * 1024 * 1024;
+
+    public static final int DEFAULT_SPOOL_MAX_SEGMENTS = 16;
+
+    public static final long DEFAULT_MIN_RETRY_INTERVAL = 1000l;
+
+    public static final long DEFAULT_MAX_RETRY_INTERVAL = 60000l;
+
+    private static final byte RECORD_SEPARATOR = '\n';
+
+    /**
+     * Not defined by httpclient 4.1.
+     */
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+
+    /**
+     * Size of the entry count heading each spooled record.
+     */
+    private static final int RECORD_COUNT_SIZE = 4;
+
+    /**
+     * Number of dropped entries between warnings.
+     */
+    private static final int DROPPED_WARNING_INTERVAL = 1000;
+
+    private BridgeHttpHandlerFactory factory;
+
+    private ObjectMapper mapper;
+
+    private int queueSize = DEFAULT_QUEUE_SIZE;
+
+    private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+
+    private long maxBatchLatency = DEFAULT_MAX_BATCH_LATENCY;
+
+    private File spoolDirectory;
+
+    private int spoolSegmentSize = DEFAULT_SPOOL_SEGMENT_SIZE;
+
+    private int spoolMaxSegments = DEFAULT_SPOOL_MAX_SEGMENTS;
+
+    private long minRetryInterval = DEFAULT_MIN_RETRY_INTERVAL;
+
+    private long maxRetryInterval = DEFAULT_MAX_RETRY_INTERVAL;
+
+    private volatile BlockingQueue<QueuedEntry> queue;
+
+    private Thread worker;
+
+    private volatile boolean running;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private BridgeEntrySpool spool;
+
+    /**
+     * Number of entries in the {@link #spool}, a record holds a whole batch.
+     */
+    private long spooledEntries;
+
+    /**
+     * Reused by the background thread for every batch.
+     */
+    private HttpPirasoLogHandler logHandler;
+
+    private long retryInterval;
+
+    private long retryTime;
+
+    public BridgeEntrySender() {
+        mapper = JacksonUtils.MAPPER;
+    }
+
+    @Required
+    public void setFactory(BridgeHttpHandlerFactory factory) {
+        this.factory = factory;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public void setMaxBatchLatency(long maxBatchLatency) {
+        this.maxBatchLatency = maxBatchLatency;
+    }
+
+    /**
+     * @param spoolDirectory the directory the spool is created in, the temporary directory if not set
+     */
+    public void setSpoolDirectory(File spoolDirectory) {
+        this.spoolDirectory = spoolDirectory;
+    }
+
+    public void setSpoolSegmentSize(int spoolSegmentSize) {
+        this.spoolSegmentSize = spoolSegmentSize;
+    }
+
+    public void setSpoolMaxSegments(int spoolMaxSegments) {
+        this.spoolMaxSegments = spoolMaxSegments;
+    }
+
+    public void setMinRetryInterval(long minRetryInterval) {
+        this.minRetryInterval = minRetryInterval;
+    }
+
+    public void setMaxRetryInterval(long maxRetryInterval) {
+        this.maxRetryInterval = maxRetryInterval;
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Starts the background thread, entries are only queued once started.
+     */
+    public synchronized void start() {
+        if(running) {
+            return;
+        }
+
+        queue = new LinkedBlockingQueue<QueuedEntry>(queueSize);
+        running = true;
+
+        worker = new Thread(new Worker(queue), "piraso-bridge-sender");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stops the background thread once the queued entries are sent.
+     *
+     * @throws InterruptedException on interrupt while waiting for the background thread
+     */
+    public synchronized void stop() throws InterruptedException {
+        if(!running) {
+            return;
+        }
+
+        running = false;
+        worker.interrupt();
+        worker.join(TimeUnit.SECONDS.toMillis(10));
+    }
+
+    /**
+     * Queues the entry to be sent for the given user. The entry is serialized right away, so later changes to the
+     * entry are not sent. Entries sent while this sender is not started are dropped.
+     *
+     * @param user the monitoring user
+     * @param entry the entry to send
+     * @throws IOException on serialization error
+     */
+    public void send(User user, Entry entry) throws IOException {
+        BlockingQueue<QueuedEntry> current = queue;
+
+        if(!running || current == null) {
+            drop(1);
+            return;
+        }
+
+        BridgeEntry bridgeEntry = new BridgeEntry(entry.getClass().getName(), entry.getRequestId(), mapper.writeValueAsString(entry));
+        QueuedEntry queued = new QueuedEntry(user, bridgeEntry);
+
+        if(!current.offer(queued)) {
+            drop(1);
+        } else if(!running && current.remove(queued)) {
+            // stopped meanwhile, the queue may already be drained
+            drop(1);
+        }
+    }
+
+    private void sendBatch(List<QueuedEntry> batch) {
+        Map<User, List<BridgeEntry>> entriesByUser = new LinkedHashMap<User, List<BridgeEntry>>();
+
+        for(QueuedEntry queued : batch) {
+            List<BridgeEntry> entries = entriesByUser.get(queued.user);
+
+            if(entries == null) {
+                entries = new ArrayList<BridgeEntry>();
+                entriesByUser.put(queued.user, entries);
+            }
+
+            entries.add(queued.entry);
+        }
+
+        for(Map.Entry<User, List<BridgeEntry>> userEntries : entriesByUser.entrySet()) {
+            if(isRetryPending() || !replay()) {
+                spoolEntries(userEntries.getKey(), userEntries.getValue());
+                continue;
+            }
+
+            try {
+                post(userEntries.getKey(), userEntries.getValue());
+                retryInterval = 0;
+            } catch(IOException e) {
+                if(isRejected(e)) {
+                    LOG.warn(e.getMessage(), e);
+                    drop(userEntries.getValue().size());
+                } else {
+                    retryLater(e);
+                    spoolEntries(userEntries.getKey(), userEntries.getValue());
+                }
+            }
+        }
+    }
+
+    void post(User user, List<BridgeEntry> entries) throws IOException {
+        if(logHandler == null) {
+            logHandler = factory.createLogHandler();
+        }
+
+        logHandler.setEntries(entries);
+        logHandler.setUser(user);
+
+        try {
+            logHandler.execute();
+        } catch(IOException e) {
+            throw e;
+        } catch(Exception e) {
+            throw new HttpPirasoException(e.getMessage());
+        }
+    }
+
+    /**
+     * Determines whether the bridge rejected the entries, sending them again would fail the same way. Error statuses
+     * of an unavailable bridge, while restarting or overloaded, are retried like a connection failure.
+     *
+     * @param e the failure to post the entries
+     * @return <code>true</code> if the entries should not be sent again
+     */
+    private static boolean isRejected(IOException e) {
+        if(!(e instanceof HttpPirasoException)) {
+            return false;
+        }
+
+        int statusCode = ((HttpPirasoException) e).getStatusCode();
+
+        return statusCode < HttpStatus.SC_INTERNAL_SERVER_ERROR
+                && statusCode != HttpStatus.SC_REQUEST_TIMEOUT
+                && statusCode != SC_TOO_MANY_REQUESTS;
+    }
+
+    private boolean isRetryPending() {
+        return retryTime > System.currentTimeMillis();
+    }
+
+    private void retryLater(IOException e) {
+        retryInterval = retryInterval == 0 ? minRetryInterval : Math.min(retryInterval * 2, maxRetryInterval);
+        retryTime = System.currentTimeMillis() + retryInterval;
+
+        LOG.warn(String.format("Bridge not reachable, retrying in %d ms: %s", retryInterval, e.getMessage()));
+    }
+
+    private void spoolEntries(User user, List<BridgeEntry> entries) {
+        try {
+            if(spool == null) {
+                spool = new BridgeEntrySpool(spoolDirectory, spoolSegmentSize, spoolMaxSegments);
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream record = new DataOutputStream(bytes);
+            record.writeInt(entries.size());
+            record.write(mapper.writeValueAsBytes(user));
+            record.write(RECORD_SEPARATOR);
+            record.write(mapper.writeValueAsBytes(entries));
+
+            if(spool.append(bytes.toByteArray())) {
+                spooledEntries += entries.size();
+            } else {
+                drop(entries.size());
+            }
+        } catch(IOException e) {
+            LOG.warn(e.getMessage(), e);
+            drop(entries.size());
+        }
+    }
+
+    /**
+     * Sends the spooled entries in order.
+     *
+     * @return <code>false</code> if the bridge could not be reached
+     */
+    private boolean replay() {
+        if(spool == null) {
+            return true;
+        }
+
+        byte[] record;
+        while((record = spool.peek()) != null) {
+            int count = ByteBuffer.wrap(record).getInt();
+            User user;
+            BridgeEntry[] entries;
+
+            try {
+                int separator = ArrayUtils.indexOf(record, RECORD_SEPARATOR, RECORD_COUNT_SIZE);
+                user = mapper.readValue(record, RECORD_COUNT_SIZE, separator - RECORD_COUNT_SIZE, User.class);
+                entries = mapper.readValue(record, separator + 1, record.length - separator - 1, BridgeEntry[].class);
+            } catch(IOException e) {
+                LOG.warn(e.getMessage(), e);
+                removeSpooled(count);
+                drop(count);
+                continue;
+            }
+
+            try {
+                post(user, Arrays.asList(entries));
+                retryInterval = 0;
+            } catch(IOException e) {
+                if(!isRejected(e)) {
+                    retryLater(e);
+                    return false;
+                }
+
+                LOG.warn(e.getMessage(), e);
+                drop(count);
+            }
+
+            removeSpooled(count);
+        }
+
+        return true;
+    }
+
+    private void removeSpooled(int count) {
+        spool.remove();
+        spooledEntries -= count;
+    }
+
+    private void drop(long count) {
+        long total = dropped.addAndGet(count);
+
+        // warns on the first and every DROPPED_WARNING_INTERVAL dropped entries after
+        if((total + DROPPED_WARNING_INTERVAL - 1) / DROPPED_WARNING_INTERVAL != (total - count + DROPPED_WARNING_INTERVAL - 1) / DROPPED_WARNING_INTERVAL) {
+            LOG.warn(String.format("Bridge not keeping up, %d entries dropped so far.", total));
+        }
+    }
+
+    private class Worker implements Runnable {
+        private final BlockingQueue<QueuedEntry> queue;
+
+        private Worker(BlockingQueue<QueuedEntry> queue) {
+            this.queue = queue;
+        }
+
+        public void run() {
+            List<QueuedEntry> batch = new ArrayList<QueuedEntry>(maxBatchSize);
+
+            while(running) {
+                try {
+                    QueuedEntry first;
+                    if(spool != null && !spool.isEmpty()) {
+                        // wakes up to replay the spool once the retry interval passed
+                        first = queue.poll(Math.max(retryTime - System.currentTimeMillis(), 1), TimeUnit.MILLISECONDS);
+                    } else {
+                        first = queue.take();
+                    }
+
+                    if(first == null) {
+                        if(!isRetryPending()) {
+                            replay();
+                        }
+
+                        continue;
+                    }
+
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatchSize - batch.size());
+
+                    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxBatchLatency);
+
+                    while(batch.size() < maxBatchSize) {
+                        long remaining = deadline - System.nanoTime();
+                        QueuedEntry next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+
+                        if(next == null) {
+                            break;
+                        }
+
+                        batch.add(next);
+                        queue.drainTo(batch, maxBatchSize - batch.size());
+                    }
+                } catch(InterruptedException e) {
+                    // stopped, the rest of the queue is sent below
+                }
+
+                if(!batch.isEmpty()) {
+                    sendBatch(batch);
+                    batch.clear();
+                }
+            }
+
+            // clears an interrupt received while sending
+            Thread.interrupted();
+
+            while(queue.drainTo(batch, maxBatchSize) > 0) {
+                sendBatch(batch);
+                batch.clear();
+            }
+
+            if(spool != null) {
+                // the spool is not kept across restarts
+                if(spooledEntries > 0) {
+                    drop(spooledEntries);
+                }
+
+                spool.close();
+                spool = null;
+                spooledEntries = 0;
+            }
+        }
+    }
+
+    private static class QueuedEntry {
+        private final User user;
+
+        private final BridgeEntry entry;
+
+        private QueuedEntry(User user, BridgeEntry entry) {
+            this.user = user;
+            this.entry = entry;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.piraso.server.bridge;
+
+import org.apache.commons.io.FileUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.LinkedList;
+
+/**
+ * Bounded append only spool of records, kept in memory mapped segment files of a fixed size within its own
+ * directory. Records are read back in the order appended, a segment file is deleted once all its records are
+ * removed.
+ * <p>
+ * Only used from the {@link BridgeEntrySender} background thread, so this is not thread safe.
+ */
+class BridgeEntrySpool {
+
+    private static final int LENGTH_SIZE = 4;
+
+    private final File directory;
+
+    private final int segmentSize;
+
+    private final int maxSegments;
+
+    private final LinkedList<Segment> segments = new LinkedList<Segment>();
+
+    private int segmentCount;
+
+    private int size;
+
+    /**
+     * Creates the spool in a new directory within the given parent directory.
+     *
+     * @param parent the parent directory, the temporary directory if <code>null</code>
+     * @param segmentSize the size in bytes of each segment file
+     * @param maxSegments the maximum number of segment files
+     * @throws IOException on failure to create the directory
+     */
+    BridgeEntrySpool(File parent, int segmentSize, int maxSegments) throws IOException {
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+
+        directory = File.createTempFile("piraso-bridge-", ".spool", parent);
+        if(!directory.delete() || !directory.mkdir()) {
+            throw new IOException(String.format("Unable to create spool directory '%s'.", directory));
+        }
+    }
+
+    File getDirectory() {
+        return directory;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Appends the record at the end of the spool.
+     *
+     * @param record the record
+     * @return <code>false</code> if the record does not fit in the spool
+     * @throws IOException on failure to create a segment file
+     */
+    boolean append(byte[] record) throws IOException {
+        int length = LENGTH_SIZE + record.length;
+
+        if(length > segmentSize) {
+            return false;
+        }
+
+        Segment segment = segments.peekLast();
+        if(segment == null || segmentSize - segment.writePosition < length) {
+            if(segments.size() >= maxSegments) {
+                return false;
+            }
+
+            segment = new Segment(new File(directory, String.format("segment-%d.dat", segmentCount++)));
+            segments.addLast(segment);
+        }
+
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(segment.writePosition);
+        buffer.putInt(record.length);
+        buffer.put(record);
+
+        segment.writePosition += length;
+        size++;
+
+        return true;
+    }
+
+    /**
+     * @return the oldest record, or <code>null</code> if the spool is empty
+     */
+    byte[] peek() {
+        if(size == 0) {
+            return null;
+        }
+
+        Segment segment = segments.getFirst();
+        ByteBuffer buffer = segment.buffer.duplicate();
+        buffer.position(segment.readPosition);
+
+        byte[] record = new byte[buffer.getInt()];
+        buffer.get(record);
+
+        return record;
+    }
+
+    /**
+     * Removes the oldest record.
+     */
+    void remove() {
+        if(size == 0) {
+            return;
+        }
+
+        Segment segment = segments.getFirst();
+        segment.readPosition += LENGTH_SIZE + segment.buffer.getInt(segment.readPosition);
+        size--;
+
+        if(segment.readPosition == segment.writePosition) {
+            if(segments.size() > 1) {
+                segments.removeFirst();
+                FileUtils.deleteQuietly(segment.file);
+            } else {
+                // reuse the only segment
+                segment.readPosition = 0;
+                segment.writePosition = 0;
+            }
+        }
+    }
+
+    /**
+     * Discards the records and deletes the spool directory.
+     */
+    void close() {
+        segments.clear();
+        size = 0;
+
+        FileUtils.deleteQuietly(directory);
+    }
+
+    private class Segment {
+        private final File file;
+
+        private final MappedByteBuffer buffer;
+
+        private int readPosition;
+
+        private int writePosition;
+
+        private Segment(File file) throws IOException {
+            this.file = file;
+
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            try {
+                // the mapping stays valid once the file is closed
+                buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+            } finally {
+                raf.close();
+            }
+        }
+    }
+}
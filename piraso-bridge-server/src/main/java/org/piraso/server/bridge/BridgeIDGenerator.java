@@ -1,27 +1,141 @@
 package org.piraso.server.bridge;
 
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
 import org.piraso.api.NextGenerator;
 import org.piraso.server.bridge.net.HttpPirasoIDRequestHandler;
 import org.springframework.beans.factory.annotation.Required;
 
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out request ids leased from the bridge in blocks of {@link #setBlockSize(int)} ids. The next block is
+ * requested in the background once half of the current block is handed out, so a request only waits for the
+ * bridge when the ids run out before the next block arrived.
+ */
 public class BridgeIDGenerator implements NextGenerator<Long> {
 
+    private static final Log LOG = LogFactory.getLog(BridgeIDGenerator.class);
+
+    public static final int DEFAULT_BLOCK_SIZE = 100;
+
+    private static final IDBlock EMPTY_BLOCK = new IDBlock(new Long[0]);
+
     private BridgeHttpHandlerFactory factory;
 
+    private int blockSize = DEFAULT_BLOCK_SIZE;
+
+    private volatile IDBlock block = EMPTY_BLOCK;
+
+    private IDBlock prefetchedBlock;
+
+    private final AtomicBoolean prefetching = new AtomicBoolean(false);
+
+    private final Object leaseLock = new Object();
+
+    /**
+     * Reused for every lease, guarded by the {@link #leaseLock}.
+     */
+    private HttpPirasoIDRequestHandler handler;
+
+    private final Executor prefetcher = Executors.newSingleThreadExecutor(new ThreadFactory() {
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "piraso-bridge-id-prefetch");
+            thread.setDaemon(true);
+
+            return thread;
+        }
+    });
+
     @Required
     public void setFactory(BridgeHttpHandlerFactory factory) {
         this.factory = factory;
     }
 
+    public void setBlockSize(int blockSize) {
+        this.blockSize = blockSize;
+    }
+
     public Long next() {
-        HttpPirasoIDRequestHandler handler = factory.createIDRequestHandler();
+        while(true) {
+            IDBlock current = block;
+            int index = current.index.getAndIncrement();
+
+            if(index < current.ids.length) {
+                if(index == current.ids.length / 2) {
+                    prefetch();
+                }
+
+                return current.ids[index];
+            }
+
+            synchronized (this) {
+                if(block == current) {
+                    if(prefetchedBlock != null) {
+                        block = prefetchedBlock;
+                        prefetchedBlock = null;
+                    } else {
+                        block = lease();
+                    }
+                }
+            }
+        }
+    }
+
+    private void prefetch() {
+        if(!prefetching.compareAndSet(false, true)) {
+            return;
+        }
+
+        prefetcher.execute(new Runnable() {
+            public void run() {
+                try {
+                    IDBlock leased = lease();
+
+                    synchronized (BridgeIDGenerator.this) {
+                        prefetchedBlock = leased;
+                    }
+                } catch(Exception e) {
+                    LOG.warn(e.getMessage(), e);
+                } finally {
+                    prefetching.set(false);
+                }
+            }
+        });
+    }
+
+    private IDBlock lease() {
+        synchronized (leaseLock) {
+            if(handler == null) {
+                handler = factory.createIDRequestHandler();
+            }
+
+            handler.setCount(blockSize);
+
+            try {
+                handler.execute();
+
+                List<Long> ids = handler.getRequestIDs();
+
+                return new IDBlock(ids.toArray(new Long[ids.size()]));
+            } catch (Exception e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
+        }
+    }
+
+    private static class IDBlock {
+        private final Long[] ids;
 
-        try {
-            handler.execute();
+        private final AtomicInteger index = new AtomicInteger();
 
-            return handler.getRequestID();
-        } catch (Exception e) {
-            throw new IllegalStateException(e.getMessage(), e);
+        private IDBlock(Long[] ids) {
+            this.ids = ids;
         }
     }
 }
@@ -1,5 +1,6 @@
 package org.piraso.server.bridge;
 
+import org.apache.commons.lang.ObjectUtils;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.piraso.api.Preferences;
@@ -10,50 +11,156 @@ import org.springframework.beans.factory.annotation.Required;
 
 import java.io.IOException;
 import java.util.List;
-
+import java.util.Map;
+
+/**
+ * Loggers of the monitoring sessions queried from the bridge. After the first query, a background thread polls the
+ * bridge for registry changes, each poll waits on the bridge until the registry version changed or
+ * {@link #setPollTimeout(long)} passed. Only the added, changed or removed loggers are applied to the local registry.
+ * <p>
+ * With {@link #setQueryAlways(boolean)} the bridge is also queried on each lookup, but only until the first poll
+ * completed, so requests do not make network calls while polling.
+ */
 public class BridgeLoggerRegistryImpl implements LoggerRegistry {
 
     private static final Log LOG = LogFactory.getLog(BridgeLoggerRegistryImpl.class);
 
+    public static final long DEFAULT_POLL_TIMEOUT = 20000l;
+
+    public static final long DEFAULT_RETRY_INTERVAL = 5000l;
+
     private DefaultUserRegistryImpl registry = new DefaultUserRegistryImpl();
 
     private BridgeHttpHandlerFactory factory;
 
+    private BridgeEntrySender sender;
+
+    private long pollTimeout = DEFAULT_POLL_TIMEOUT;
+
+    private long retryInterval = DEFAULT_RETRY_INTERVAL;
+
+    private boolean queryAlways = BridgeConfig.INSTANCE.isQueryAlways();
+
+    private volatile Long bridgeVersion;
+
+    private volatile Thread poller;
+
+    /**
+     * Whether the polling thread applied a poll since it started.
+     */
+    private volatile boolean polled;
+
     @Required
     public void setFactory(BridgeHttpHandlerFactory factory) {
         this.factory = factory;
     }
 
+    @Required
+    public void setSender(BridgeEntrySender sender) {
+        this.sender = sender;
+    }
+
+    /**
+     * @param pollTimeout the maximum time in milliseconds a poll waits for a change, polling is disabled if not
+     * positive. Should be below the socket timeout of the http client.
+     */
+    public void setPollTimeout(long pollTimeout) {
+        this.pollTimeout = pollTimeout;
+    }
+
+    public void setRetryInterval(long retryInterval) {
+        this.retryInterval = retryInterval;
+    }
+
+    public void setQueryAlways(boolean queryAlways) {
+        this.queryAlways = queryAlways;
+    }
+
     public void init() {
         try {
-            HttpPirasoGetBridgeRegistryHandler handler = factory.createGetRegistryHandler();
-            handler.execute();
+            update(query(factory.createGetRegistryHandler(), null));
+        } catch (Exception e) {
+            LOG.warn(e.getMessage(), e);
+        }
 
-            registry.clear();
+        if(pollTimeout > 0 && BridgeConfig.INSTANCE.getLoggingEnabled()) {
+            startPolling();
+        }
+    }
 
-            BridgeRegistry bridgeRegistry = handler.getRegistry();
-            for(BridgeLogger logger : bridgeRegistry.getLoggers()) {
-                User user =  logger.getUser();
+    public synchronized void destroy() {
+        if(poller != null) {
+            poller.interrupt();
+            poller = null;
+        }
+    }
 
-                if(LOG.isDebugEnabled()) {
-                    LOG.debug(String.format("User - Remote Address: %s, ID: %s.", user.getRemoteAddr(), user.getActivityUuid()));
-                }
+    synchronized void startPolling() {
+        if(poller != null) {
+            return;
+        }
+
+        polled = false;
+
+        poller = new Thread(new Poller(), "piraso-bridge-registry");
+        poller.setDaemon(true);
+        poller.start();
+    }
+
+    private BridgeRegistry query(HttpPirasoGetBridgeRegistryHandler handler, Long version) throws Exception {
+        handler.setVersion(version, pollTimeout);
+        handler.execute();
+
+        return handler.getRegistry();
+    }
 
-                registry.associate(user, new BridgeLoggerServiceImpl(logger, factory));
+    /**
+     * Applies the difference between the queried loggers and the local registry, so the registry version only
+     * changes when a logger did.
+     *
+     * @param bridgeRegistry the queried loggers
+     * @throws IOException on io error
+     */
+    synchronized void update(BridgeRegistry bridgeRegistry) throws IOException {
+        Map<User, ResponseLoggerService> removed = registry.getUserLoggerMap();
+
+        for(BridgeLogger logger : bridgeRegistry.getLoggers()) {
+            User user = logger.getUser();
+            ResponseLoggerService existing = removed.remove(user);
+
+            if(existing != null && ObjectUtils.equals(existing.getGlobalId(), logger.getGlobalId())) {
+                continue;
             }
 
             if(LOG.isDebugEnabled()) {
-                LOG.debug(String.format("Registry size  %d.", registry.getUserLoggerMap().size()));
+                LOG.debug(String.format("User - Remote Address: %s, ID: %s.", user.getRemoteAddr(), user.getActivityUuid()));
             }
 
-        } catch (Exception e) {
-            LOG.warn(e.getMessage(), e);
+            registry.associate(user, new BridgeLoggerServiceImpl(logger, sender));
+        }
+
+        for(User user : removed.keySet()) {
+            registry.removeUser(user);
+        }
+
+        bridgeVersion = bridgeRegistry.getVersion();
+
+        if(LOG.isDebugEnabled()) {
+            LOG.debug(String.format("Registry size  %d.", registry.getUserLoggerMap().size()));
         }
     }
 
+    boolean isPolling() {
+        return poller != null && polled;
+    }
+
     public void refreshLoggers() {
-        if(BridgeConfig.INSTANCE.isQueryAlways()) {
-            init();
+        if(queryAlways && !isPolling()) {
+            try {
+                update(query(factory.createGetRegistryHandler(), null));
+            } catch (Exception e) {
+                LOG.warn(e.getMessage(), e);
+            }
         }
     }
 
@@ -68,4 +175,51 @@ public class BridgeLoggerRegistryImpl implements LoggerRegistry {
 
         return registry.getContextLoggers(request);
     }
+
+    /**
+     * Answered from the loggers last queried from the bridge, since this is checked on every preference lookup.
+     */
+    public long getVersion() {
+        return registry.getVersion();
+    }
+
+    /**
+     * Answered from the loggers last queried from the bridge without querying again, since this is checked on
+     * every proxied call. The loggers are kept up to date by the polling thread.
+     */
+    public boolean hasLoggers() {
+        return registry.hasLoggers();
+    }
+
+    private class Poller implements Runnable {
+        public void run() {
+            HttpPirasoGetBridgeRegistryHandler handler = factory.createGetRegistryHandler();
+
+            while(poller == Thread.currentThread()) {
+                try {
+                    Long version = bridgeVersion;
+                    long start = System.currentTimeMillis();
+
+                    BridgeRegistry bridgeRegistry = query(handler, version != null ? version : 0l);
+                    update(bridgeRegistry);
+                    polled = true;
+
+                    // servers not supporting versions answer right away without a change
+                    if(version != null && version == bridgeRegistry.getVersion() && System.currentTimeMillis() - start < pollTimeout / 2) {
+                        Thread.sleep(retryInterval);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                } catch (Exception e) {
+                    LOG.warn(e.getMessage(), e);
+
+                    try {
+                        Thread.sleep(retryInterval);
+                    } catch (InterruptedException ie) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
 }
@@ -7,17 +7,13 @@ import org.piraso.api.GeneralPreferenceEnum;
 import org.piraso.api.JacksonUtils;
 import org.piraso.api.Preferences;
 import org.piraso.api.entry.Entry;
-import org.piraso.proxy.RegexMethodInterceptorAdapter;
-import org.piraso.proxy.RegexMethodInterceptorEvent;
-import org.piraso.proxy.RegexProxyFactory;
-import org.piraso.server.bridge.net.HttpPirasoLogHandler;
 import org.piraso.server.service.*;
 
 import java.io.IOException;
 import java.io.StringWriter;
-import java.lang.reflect.Method;
+import java.util.*;
 
-public class BridgeLoggerServiceImpl extends RegexMethodInterceptorAdapter<Preferences> implements ResponseLoggerService {
+public class BridgeLoggerServiceImpl implements ResponseLoggerService {
 
     private static final Log LOG = LogFactory.getLog(BridgeLoggerServiceImpl.class);
 
@@ -25,17 +21,33 @@ public class BridgeLoggerServiceImpl extends RegexMethodInterceptorAdapter<Prefe
 
     private ObjectMapper mapper;
 
-    private BridgeHttpHandlerFactory factory;
+    private BridgeEntrySender sender;
 
-    private RegexProxyFactory<Preferences> proxyFactory;
+    private Preferences preferences;
 
-    public BridgeLoggerServiceImpl(BridgeLogger logger, BridgeHttpHandlerFactory factory) {
+    public BridgeLoggerServiceImpl(BridgeLogger logger, BridgeEntrySender sender) {
         this.logger = logger;
-        this.factory = factory;
+        this.sender = sender;
         mapper = JacksonUtils.MAPPER;
+        preferences = createPreferences(logger.getPreferences());
+    }
+
+    /**
+     * Resolved once per logger, a new service is created whenever the logger changes in the bridge registry.
+     *
+     * @param preferences the preferences of the bridge logger
+     * @return an unmodifiable copy of the given preferences, with every check disabled if this bridge is not enabled
+     */
+    private static Preferences createPreferences(Preferences preferences) {
+        if(BridgeConfig.INSTANCE.getIdentifier() != null) {
+            boolean bridgeEnabled = preferences.isRegexEnabled("bridge." + BridgeConfig.INSTANCE.getIdentifier());
+
+            if(!bridgeEnabled) {
+                return new DisabledPreferences(preferences);
+            }
+        }
 
-        proxyFactory = new RegexProxyFactory<Preferences>(Preferences.class);
-        proxyFactory.addMethodListener(".*", this);
+        return new UnmodifiablePreferences(preferences);
     }
 
     public User getUser() {
@@ -59,7 +71,7 @@ public class BridgeLoggerServiceImpl extends RegexMethodInterceptorAdapter<Prefe
     }
 
     public Preferences getPreferences() {
-        return proxyFactory.getProxy(logger.getPreferences());
+        return preferences;
     }
 
     public void start() throws Exception {
@@ -89,10 +101,7 @@ public class BridgeLoggerServiceImpl extends RegexMethodInterceptorAdapter<Prefe
         }
 
         try {
-            HttpPirasoLogHandler handler = factory.createLogHandler();
-            handler.setEntry(entry);
-            handler.setUser(getUser());
-            handler.execute();
+            sender.send(getUser(), entry);
         } catch(Exception e) {
             LOG.warn(e.getMessage(), e);
         }
@@ -107,15 +116,74 @@ public class BridgeLoggerServiceImpl extends RegexMethodInterceptorAdapter<Prefe
     public void fireStopEvent(StopLoggerEvent event) {
     }
 
-    @Override
-    public void afterCall(RegexMethodInterceptorEvent<Preferences> evt) {
-        if(BridgeConfig.INSTANCE.getIdentifier() != null) {
-            boolean bridgeEnabled = logger.getPreferences().isRegexEnabled("bridge." + BridgeConfig.INSTANCE.getIdentifier());
-            Method method = evt.getInvocation().getMethod();
-
-            if(method.getReturnType() == Boolean.TYPE && !bridgeEnabled) {
-                evt.setReturnedValue(false);
+    /**
+     * Copy of the preferences of a bridge logger which can not be modified.
+     */
+    private static class UnmodifiablePreferences extends Preferences {
+        private UnmodifiablePreferences(Preferences preferences) {
+            if(preferences.getBooleanProperties() != null) {
+                super.setBooleanProperties(Collections.unmodifiableMap(new HashMap<String, Boolean>(preferences.getBooleanProperties())));
             }
+            if(preferences.getIntegerProperties() != null) {
+                super.setIntegerProperties(Collections.unmodifiableMap(new HashMap<String, Integer>(preferences.getIntegerProperties())));
+            }
+            if(preferences.getUrlPatterns() != null) {
+                super.setUrlPatterns(Collections.unmodifiableList(new ArrayList<String>(preferences.getUrlPatterns())));
+            }
+        }
+
+        @Override
+        public void addProperty(String name, boolean value) {
+            throw new UnsupportedOperationException("Preferences of a bridge logger can not be modified.");
+        }
+
+        @Override
+        public void addProperty(String name, int value) {
+            throw new UnsupportedOperationException("Preferences of a bridge logger can not be modified.");
+        }
+
+        @Override
+        public void addUrlPattern(String pattern) {
+            throw new UnsupportedOperationException("Preferences of a bridge logger can not be modified.");
+        }
+
+        @Override
+        public void setBooleanProperties(Map<String, Boolean> booleanProperties) {
+            throw new UnsupportedOperationException("Preferences of a bridge logger can not be modified.");
+        }
+
+        @Override
+        public void setIntegerProperties(Map<String, Integer> integerProperties) {
+            throw new UnsupportedOperationException("Preferences of a bridge logger can not be modified.");
+        }
+
+        @Override
+        public void setUrlPatterns(List<String> urlPatterns) {
+            throw new UnsupportedOperationException("Preferences of a bridge logger can not be modified.");
+        }
+    }
+
+    /**
+     * Preferences of a logger not enabled for this bridge, the int values are kept while every check is disabled.
+     */
+    private static class DisabledPreferences extends UnmodifiablePreferences {
+        private DisabledPreferences(Preferences preferences) {
+            super(preferences);
+        }
+
+        @Override
+        public boolean isUrlAcceptable(String url) {
+            return false;
+        }
+
+        @Override
+        public boolean isEnabled(String property) {
+            return false;
+        }
+
+        @Override
+        public boolean isRegexEnabled(String name) {
+            return false;
         }
     }
 }
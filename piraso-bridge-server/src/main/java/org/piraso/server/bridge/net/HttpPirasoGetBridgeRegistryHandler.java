@@ -32,41 +32,68 @@ public class HttpPirasoGetBridgeRegistryHandler extends AbstractHttpHandler {
 
     private BridgeRegistry registry;
 
+    private Long version;
+
+    private long wait;
+
     public HttpPirasoGetBridgeRegistryHandler(HttpClient client, HttpContext context) {
         super(client, context);
 
         mapper = JacksonUtils.MAPPER;
     }
 
+    /**
+     * Waits for a registry change from the given version instead of returning the registry right away.
+     *
+     * @param version the registry version known, <code>null</code> to return right away
+     * @param wait the maximum time to wait in milliseconds
+     */
+    public void setVersion(Long version, long wait) {
+        this.version = version;
+        this.wait = wait;
+    }
+
     @Override
     public void execute() throws IOException, SAXException, ParserConfigurationException {
         try {
             doExecute();
         } finally {
+            // the connection goes back to the pool, the handler can be executed again
             EntityUtils.consume(responseEntity);
+            responseEntity = null;
         }
     }
 
     private void doExecute() throws IOException, SAXException, ParserConfigurationException {
         Validate.notNull(uri, "uri should not be null.");
 
-        LOG.info(String.format("Executing %s...", uri));
+        registry = null;
+
+        if(LOG.isDebugEnabled()) {
+            LOG.debug(String.format("Executing %s...", uri));
+        }
 
         HttpPost post = new HttpPost(uri.getPath());
 
         List<NameValuePair> params = new ArrayList<NameValuePair>();
         params.add(new BasicNameValuePair(SERVICE_PARAMETER, SERVICE_GET_REGISTRY_PARAMETER_VALUE));
 
+        if(version != null) {
+            params.add(new BasicNameValuePair(REGISTRY_VERSION_PARAMETER, String.valueOf(version)));
+            params.add(new BasicNameValuePair(WAIT_PARAMETER, String.valueOf(wait)));
+        }
+
         post.setEntity(new UrlEncodedFormEntity(params, ENCODING_UTF_8));
 
         HttpResponse response = client.execute(targetHost, post, context);
         StatusLine status = response.getStatusLine();
 
+        // consumed by execute whatever the status, so an error response releases the connection too
+        responseEntity = response.getEntity();
+
         if(status.getStatusCode() != HttpStatus.SC_OK) {
             throw new HttpPirasoException(status.toString());
         }
-
-        responseEntity = response.getEntity();
         String contentType = responseEntity.getContentType().getValue().toLowerCase();
 
         if(!contentType.contains(JSON_CONTENT_TYPE)) {
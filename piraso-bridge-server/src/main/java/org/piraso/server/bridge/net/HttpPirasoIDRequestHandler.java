@@ -26,51 +26,82 @@ public class HttpPirasoIDRequestHandler extends AbstractHttpHandler {
 
     private HttpEntity responseEntity;
 
-    private Long requestID;
+    private List<Long> requestIDs;
+
+    private int count = 1;
 
     public HttpPirasoIDRequestHandler(HttpClient client, HttpContext context) {
         super(client, context);
     }
 
+    /**
+     * @param count the number of request ids to lease at once
+     */
+    public void setCount(int count) {
+        this.count = count;
+    }
+
     @Override
     public void execute() throws IOException, SAXException, ParserConfigurationException {
         try {
             doExecute();
         } finally {
+            // the connection goes back to the pool, the handler can be executed again
             EntityUtils.consume(responseEntity);
+            responseEntity = null;
         }
     }
 
     private void doExecute() throws IOException, SAXException, ParserConfigurationException {
         Validate.notNull(uri, "uri should not be null.");
 
-        LOG.info(String.format("Executing %s...", uri));
+        requestIDs = null;
+
+        if(LOG.isDebugEnabled()) {
+            LOG.debug(String.format("Executing %s...", uri));
+        }
 
         HttpPost post = new HttpPost(uri.getPath());
 
         List<NameValuePair> params = new ArrayList<NameValuePair>();
         params.add(new BasicNameValuePair(SERVICE_PARAMETER, SERVICE_REQUEST_ID_PARAMETER_VALUE));
+        params.add(new BasicNameValuePair(COUNT_PARAMETER, String.valueOf(count)));
 
         post.setEntity(new UrlEncodedFormEntity(params, ENCODING_UTF_8));
 
         HttpResponse response = client.execute(targetHost, post, context);
         StatusLine status = response.getStatusLine();
 
+        // consumed by execute whatever the status, so an error response releases the connection too
+        responseEntity = response.getEntity();
+
         if(status.getStatusCode() != HttpStatus.SC_OK) {
             throw new HttpPirasoException(status.toString());
         }
-
-        responseEntity = response.getEntity();
         String contentType = responseEntity.getContentType().getValue().toLowerCase();
 
         if(!contentType.contains(PLAIN_CONTENT_TYPE)) {
             throw new HttpPirasoException("Invalid response content type: " + responseEntity.getContentType());
         }
 
-        this.requestID = Long.valueOf(IOUtils.toString(responseEntity.getContent()));
+        // one id per line, a single id from servers not leasing blocks
+        requestIDs = new ArrayList<Long>(count);
+        for(String line : IOUtils.readLines(responseEntity.getContent(), ENCODING_UTF_8)) {
+            if(line.trim().length() > 0) {
+                requestIDs.add(Long.valueOf(line.trim()));
+            }
+        }
+
+        if(requestIDs.isEmpty()) {
+            throw new HttpPirasoException("No request id received.");
+        }
     }
 
     public Long getRequestID() {
-        return requestID;
+        return requestIDs != null ? requestIDs.get(0) : null;
+    }
+
+    public List<Long> getRequestIDs() {
+        return requestIDs;
     }
 }
@@ -14,6 +14,7 @@ import org.piraso.api.JacksonUtils;
 import org.piraso.api.entry.Entry;
 import org.piraso.client.net.AbstractHttpHandler;
 import org.piraso.client.net.HttpPirasoException;
+import org.piraso.server.service.BridgeEntry;
 import org.piraso.server.service.User;
 import org.xml.sax.SAXException;
 
@@ -32,6 +33,8 @@ public class HttpPirasoLogHandler extends AbstractHttpHandler {
 
     private Entry entry;
 
+    private List<BridgeEntry> entries;
+
     private User user;
 
     private ObjectMapper mapper;
@@ -48,6 +51,15 @@ public class HttpPirasoLogHandler extends AbstractHttpHandler {
         this.entry = entry;
     }
 
+    /**
+     * Sends the given entries in one request instead of a single entry.
+     *
+     * @param entries the entries logged for the user
+     */
+    public void setEntries(List<BridgeEntry> entries) {
+        this.entries = entries;
+    }
+
     public void setUser(User user) {
         this.user = user;
     }
@@ -57,24 +69,34 @@ public class HttpPirasoLogHandler extends AbstractHttpHandler {
         try {
             doExecute();
         } finally {
+            // the connection goes back to the pool, the handler can be executed again
             EntityUtils.consume(responseEntity);
+            responseEntity = null;
         }
     }
 
     private void doExecute() throws IOException, SAXException, ParserConfigurationException {
         Validate.notNull(uri, "uri should not be null.");
-        Validate.notNull(entry, "entry should not be null.");
+        Validate.isTrue(entry != null || entries != null, "entry should not be null.");
         Validate.notNull(user, "user should not be null.");
 
-        LOG.info(String.format("Executing %s...", uri));
+        if(LOG.isDebugEnabled()) {
+            LOG.debug(String.format("Executing %s...", uri));
+        }
 
         HttpPost post = new HttpPost(uri.getPath());
 
         List<NameValuePair> params = new ArrayList<NameValuePair>();
         params.add(new BasicNameValuePair(SERVICE_PARAMETER, SERVICE_LOG_PARAMETER_VALUE));
-        params.add(new BasicNameValuePair(ENTRY_CLASS_NAME_PARAMETER, entry.getClass().getName()));
-        params.add(new BasicNameValuePair(ENTRY_REQUEST_ID_PARAMETER, String.valueOf(entry.getRequestId())));
-        params.add(new BasicNameValuePair(ENTRY_PARAMETER, mapper.writeValueAsString(entry)));
+
+        if(entries != null) {
+            params.add(new BasicNameValuePair(ENTRIES_PARAMETER, mapper.writeValueAsString(entries)));
+        } else {
+            params.add(new BasicNameValuePair(ENTRY_CLASS_NAME_PARAMETER, entry.getClass().getName()));
+            params.add(new BasicNameValuePair(ENTRY_REQUEST_ID_PARAMETER, String.valueOf(entry.getRequestId())));
+            params.add(new BasicNameValuePair(ENTRY_PARAMETER, mapper.writeValueAsString(entry)));
+        }
+
         params.add(new BasicNameValuePair(USER_PARAMETER, mapper.writeValueAsString(user)));
 
         post.setEntity(new UrlEncodedFormEntity(params, ENCODING_UTF_8));
@@ -82,10 +104,11 @@ public class HttpPirasoLogHandler extends AbstractHttpHandler {
         HttpResponse response = client.execute(targetHost, post, context);
         StatusLine status = response.getStatusLine();
 
+        // consumed by execute whatever the status, so an error response releases the connection too
+        responseEntity = response.getEntity();
+
         if(status.getStatusCode() != HttpStatus.SC_OK) {
-            throw new HttpPirasoException(status.toString());
+            throw new HttpPirasoException(status.toString(), status.getStatusCode());
         }
-
-        responseEntity = response.getEntity();
     }
 }
@@ -0,0 +1,181 @@
+package org.piraso.server.bridge;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.piraso.api.entry.MessageEntry;
+import org.piraso.client.net.HttpPirasoException;
+import org.piraso.server.service.BridgeEntry;
+import org.piraso.server.service.User;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for {@link BridgeEntrySender} class.
+ */
+public class BridgeEntrySenderTest {
+
+    private RecordingSender sender;
+
+    private User user;
+
+    @Before
+    public void setUp() throws Exception {
+        sender = new RecordingSender();
+        sender.setMaxBatchLatency(1);
+        sender.setMinRetryInterval(20);
+        sender.setMaxRetryInterval(20);
+        sender.start();
+
+        user = new User("127.0.0.1", "1");
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        sender.stop();
+    }
+
+    @Test
+    public void testBatch() throws Exception {
+        for(int i = 0; i < 5; i++) {
+            sender.send(user, new MessageEntry(1l, "message-" + i));
+        }
+
+        sender.awaitPosted(5);
+
+        assertTrue(sender.posts <= 5);
+        assertEquals(0, sender.getDroppedCount());
+        assertTrue(sender.posted.get(4).getContent().contains("message-4"));
+    }
+
+    @Test
+    public void testSendAfterStopDropped() throws Exception {
+        sender.stop();
+
+        sender.send(user, new MessageEntry(1l, "message-0"));
+        sender.send(user, new MessageEntry(1l, "message-1"));
+
+        Thread.sleep(20);
+
+        assertEquals(2, sender.getDroppedCount());
+        assertTrue(sender.posted.isEmpty());
+    }
+
+    @Test
+    public void testSpoolAndReplay() throws Exception {
+        sender.reachable = false;
+
+        for(int i = 0; i < 5; i++) {
+            sender.send(user, new MessageEntry(1l, "message-" + i));
+            Thread.sleep(5);
+        }
+
+        sender.reachable = true;
+        sender.send(user, new MessageEntry(1l, "message-5"));
+
+        sender.awaitPosted(6);
+
+        for(int i = 0; i < 6; i++) {
+            assertTrue(sender.posted.get(i).getContent().contains("message-" + i));
+        }
+
+        assertEquals(0, sender.getDroppedCount());
+    }
+
+    @Test
+    public void testSpooledEntriesDroppedOnStop() throws Exception {
+        sender.stop();
+        sender.setMaxBatchLatency(200);
+        sender.start();
+        sender.reachable = false;
+
+        // a single spooled record
+        for(int i = 0; i < 5; i++) {
+            sender.send(user, new MessageEntry(1l, "message-" + i));
+        }
+
+        sender.stop();
+
+        assertEquals(0, sender.posts);
+        assertEquals(5, sender.getDroppedCount());
+    }
+
+    @Test
+    public void testUnavailableSpooledAndReplayed() throws Exception {
+        sender.errorStatus = 503;
+
+        for(int i = 0; i < 3; i++) {
+            sender.send(user, new MessageEntry(1l, "message-" + i));
+            Thread.sleep(5);
+        }
+
+        sender.errorStatus = 0;
+        sender.send(user, new MessageEntry(1l, "message-3"));
+
+        sender.awaitPosted(4);
+
+        for(int i = 0; i < 4; i++) {
+            assertTrue(sender.posted.get(i).getContent().contains("message-" + i));
+        }
+
+        assertEquals(0, sender.getDroppedCount());
+    }
+
+    @Test
+    public void testRejectedDropped() throws Exception {
+        sender.errorStatus = 400;
+
+        for(int i = 0; i < 3; i++) {
+            sender.send(user, new MessageEntry(1l, "message-" + i));
+        }
+
+        long timeout = System.currentTimeMillis() + 5000;
+        while(sender.getDroppedCount() < 3 && System.currentTimeMillis() < timeout) {
+            Thread.sleep(5);
+        }
+
+        assertEquals(3, sender.getDroppedCount());
+        assertTrue(sender.posted.isEmpty());
+    }
+
+    private static class RecordingSender extends BridgeEntrySender {
+        private final List<BridgeEntry> posted = Collections.synchronizedList(new ArrayList<BridgeEntry>());
+
+        private volatile boolean reachable = true;
+
+        private volatile int errorStatus;
+
+        private volatile int posts;
+
+        @Override
+        void post(User user, List<BridgeEntry> entries) throws IOException {
+            if(!reachable) {
+                throw new ConnectException("Connection refused");
+            }
+
+            if(errorStatus != 0) {
+                throw new HttpPirasoException("HTTP/1.1 " + errorStatus, errorStatus);
+            }
+
+            posts++;
+            posted.addAll(entries);
+        }
+
+        private void awaitPosted(int count) throws InterruptedException {
+            long timeout = System.currentTimeMillis() + 5000;
+
+            while(posted.size() < count && System.currentTimeMillis() < timeout) {
+                Thread.sleep(5);
+            }
+
+            assertEquals(count, posted.size());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package org.piraso.server.bridge;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link BridgeEntrySpool} class.
+ */
+public class BridgeEntrySpoolTest {
+
+    private BridgeEntrySpool spool;
+
+    @Before
+    public void setUp() throws Exception {
+        spool = new BridgeEntrySpool(null, 64, 2);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        spool.close();
+    }
+
+    @Test
+    public void testAppendInOrder() throws Exception {
+        for(int i = 0; i < 10; i++) {
+            assertTrue(spool.append(("record-" + i).getBytes()));
+
+            assertEquals("record-" + (i / 2), new String(spool.peek()));
+            if(i % 2 == 1) {
+                spool.remove();
+            }
+        }
+
+        assertEquals(5, spool.size());
+        assertEquals(1, spool.getDirectory().list().length);
+    }
+
+    @Test
+    public void testFull() throws Exception {
+        int count = 0;
+        while(spool.append(("record-" + count).getBytes())) {
+            count++;
+        }
+
+        // 5 records of 4 + 8 bytes fit in each of the 2 segments
+        assertEquals(10, count);
+        assertEquals(2, spool.getDirectory().list().length);
+        assertFalse(spool.append(new byte[64]));
+
+        for(int i = 0; i < count; i++) {
+            assertEquals("record-" + i, new String(spool.peek()));
+            spool.remove();
+        }
+
+        assertTrue(spool.isEmpty());
+        assertNull(spool.peek());
+        assertEquals(1, spool.getDirectory().list().length);
+    }
+
+    @Test
+    public void testClose() throws Exception {
+        spool.append("record".getBytes());
+        spool.close();
+
+        assertTrue(spool.isEmpty());
+        assertFalse(spool.getDirectory().exists());
+    }
+}
@@ -0,0 +1,77 @@
+package org.piraso.server.bridge;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.piraso.server.bridge.net.HttpPirasoIDRequestHandler;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link BridgeIDGenerator} class.
+ */
+public class BridgeIDGeneratorTest {
+
+    private BridgeHttpHandlerFactory factory;
+
+    private HttpPirasoIDRequestHandler handler;
+
+    private BridgeIDGenerator generator;
+
+    private long leased;
+
+    @Before
+    public void setUp() throws Exception {
+        factory = mock(BridgeHttpHandlerFactory.class);
+        handler = mock(HttpPirasoIDRequestHandler.class);
+
+        doReturn(handler).when(factory).createIDRequestHandler();
+        doAnswer(new Answer<List<Long>>() {
+            public List<Long> answer(InvocationOnMock invocation) throws Throwable {
+                return nextBlock();
+            }
+        }).when(handler).getRequestIDs();
+
+        generator = new BridgeIDGenerator();
+        generator.setFactory(factory);
+        generator.setBlockSize(4);
+    }
+
+    private synchronized List<Long> nextBlock() {
+        List<Long> ids = new ArrayList<Long>();
+        for(int i = 0; i < 4; i++) {
+            ids.add(++leased);
+        }
+
+        return ids;
+    }
+
+    @Test
+    public void testLeaseBlocks() throws Exception {
+        Set<Long> ids = new HashSet<Long>();
+
+        for(int i = 0; i < 40; i++) {
+            assertTrue(ids.add(generator.next()));
+        }
+
+        // one request per block, not per id, from the same handler
+        verify(handler, atMost(12)).execute();
+        verify(factory, times(1)).createIDRequestHandler();
+    }
+
+    @Test
+    public void testFirstBlock() throws Exception {
+        assertEquals(Long.valueOf(1l), generator.next());
+        assertEquals(Long.valueOf(2l), generator.next());
+
+        verify(handler, times(1)).execute();
+    }
+}
@@ -0,0 +1,135 @@
+package org.piraso.server.bridge;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.piraso.api.Preferences;
+import org.piraso.server.PirasoEntryPoint;
+import org.piraso.server.bridge.net.HttpPirasoGetBridgeRegistryHandler;
+import org.piraso.server.service.BridgeLogger;
+import org.piraso.server.service.BridgeRegistry;
+import org.piraso.server.service.ResponseLoggerService;
+import org.piraso.server.service.User;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link BridgeLoggerRegistryImpl} class.
+ */
+public class BridgeLoggerRegistryImplTest {
+
+    private BridgeLoggerRegistryImpl registry;
+
+    private BridgeHttpHandlerFactory factory;
+
+    private HttpPirasoGetBridgeRegistryHandler handler;
+
+    private TestEntryPoint entryPoint;
+
+    @Before
+    public void setUp() throws Exception {
+        registry = new BridgeLoggerRegistryImpl();
+        factory = mock(BridgeHttpHandlerFactory.class);
+        handler = mock(HttpPirasoGetBridgeRegistryHandler.class);
+        doReturn(handler).when(factory).createGetRegistryHandler();
+
+        registry.setFactory(factory);
+        registry.setSender(mock(BridgeEntrySender.class));
+
+        entryPoint = new TestEntryPoint();
+    }
+
+    private BridgeLogger createLogger(String activityUuid, long globalId) {
+        BridgeLogger logger = new BridgeLogger();
+        logger.setUser(new User("127.0.0.1", activityUuid));
+        logger.setWatchedAddr("127.0.0.1");
+        logger.setGlobalId(globalId);
+        logger.setPreferences(new Preferences());
+
+        return logger;
+    }
+
+    private BridgeRegistry createRegistry(long version, BridgeLogger... loggers) {
+        BridgeRegistry bridgeRegistry = new BridgeRegistry();
+        bridgeRegistry.setVersion(version);
+
+        for(BridgeLogger logger : loggers) {
+            bridgeRegistry.addLogger(logger);
+        }
+
+        return bridgeRegistry;
+    }
+
+    @Test
+    public void testUpdateAppliesChangesOnly() throws Exception {
+        registry.update(createRegistry(1, createLogger("a", 1), createLogger("b", 2)));
+
+        List<ResponseLoggerService> loggers = registry.getContextLoggers(entryPoint);
+        long version = registry.getVersion();
+        assertEquals(2, loggers.size());
+
+        // same loggers, nothing changes
+        registry.update(createRegistry(1, createLogger("a", 1), createLogger("b", 2)));
+        assertEquals(version, registry.getVersion());
+
+        // "a" restarted, "b" stopped
+        registry.update(createRegistry(2, createLogger("a", 3)));
+        loggers = registry.getContextLoggers(entryPoint);
+
+        assertTrue(registry.getVersion() != version);
+        assertEquals(1, loggers.size());
+        assertEquals(Long.valueOf(3), loggers.get(0).getGlobalId());
+    }
+
+    @Test
+    public void testQueryAlwaysBeforePolling() throws Exception {
+        doReturn(createRegistry(1, createLogger("a", 1))).when(handler).getRegistry();
+        registry.setQueryAlways(true);
+
+        List<Preferences> preferences = registry.getContextPreferences(entryPoint);
+
+        assertEquals(1, preferences.size());
+        verify(handler).execute();
+    }
+
+    @Test
+    public void testNoQueryWhilePolling() throws Exception {
+        doReturn(createRegistry(1, createLogger("a", 1))).when(handler).getRegistry();
+        registry.setQueryAlways(true);
+        registry.setRetryInterval(60000l);
+
+        try {
+            registry.startPolling();
+
+            long deadline = System.currentTimeMillis() + 5000l;
+            while(!registry.isPolling() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10l);
+            }
+
+            assertTrue(registry.isPolling());
+
+            for(int i = 0; i < 10; i++) {
+                assertEquals(1, registry.getContextPreferences(entryPoint).size());
+                assertEquals(1, registry.getContextLoggers(entryPoint).size());
+            }
+
+            // only the handler created by the polling thread
+            verify(factory, times(1)).createGetRegistryHandler();
+            verify(handler, atMost(2)).execute();
+        } finally {
+            registry.destroy();
+        }
+    }
+
+    private static class TestEntryPoint implements PirasoEntryPoint {
+        public String getPath() {
+            return "/test";
+        }
+
+        public String getRemoteAddr() {
+            return "127.0.0.1";
+        }
+    }
+}
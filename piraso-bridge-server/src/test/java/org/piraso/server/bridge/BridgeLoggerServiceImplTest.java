@@ -0,0 +1,97 @@
+package org.piraso.server.bridge;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.piraso.api.Preferences;
+import org.piraso.server.service.BridgeLogger;
+import org.piraso.server.service.User;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Test for {@link BridgeLoggerServiceImpl} class.
+ */
+public class BridgeLoggerServiceImplTest {
+
+    private BridgeLogger logger;
+
+    @Before
+    public void setUp() throws Exception {
+        Preferences preferences = new Preferences();
+        preferences.addProperty("piraso.sql.enabled", true);
+        preferences.addProperty("bridge.enabled-.*", true);
+        preferences.addProperty("piraso.size", 5);
+
+        logger = new BridgeLogger();
+        logger.setUser(new User("127.0.0.1", "1"));
+        logger.setWatchedAddr("127.0.0.1");
+        logger.setPreferences(preferences);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        System.clearProperty("piraso.bridge.id");
+    }
+
+    @Test
+    public void testBridgeEnabled() throws Exception {
+        System.setProperty("piraso.bridge.id", "enabled-1");
+
+        BridgeLoggerServiceImpl service = new BridgeLoggerServiceImpl(logger, mock(BridgeEntrySender.class));
+
+        Preferences preferences = service.getPreferences();
+
+        assertSame(preferences, service.getPreferences());
+        assertEquals(logger.getPreferences().getBooleanProperties(), preferences.getBooleanProperties());
+        assertTrue(preferences.isEnabled("piraso.sql.enabled"));
+        assertTrue(preferences.isRegexEnabled("bridge.enabled-1"));
+        assertTrue(preferences.isUrlAcceptable("/test"));
+        assertEquals(Integer.valueOf(5), preferences.getIntValue("piraso.size"));
+
+        // later changes to the logger preferences are not seen
+        logger.getPreferences().addProperty("piraso.method.enabled", true);
+        assertFalse(preferences.isEnabled("piraso.method.enabled"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testBridgeEnabledNotModifiable() throws Exception {
+        System.setProperty("piraso.bridge.id", "enabled-1");
+
+        new BridgeLoggerServiceImpl(logger, mock(BridgeEntrySender.class)).getPreferences().addProperty("piraso.sql.enabled", false);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testBridgeEnabledPropertiesNotModifiable() throws Exception {
+        System.setProperty("piraso.bridge.id", "enabled-1");
+
+        new BridgeLoggerServiceImpl(logger, mock(BridgeEntrySender.class)).getPreferences().getBooleanProperties().put("piraso.sql.enabled", false);
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testNoBridgeIdentifierNotModifiable() throws Exception {
+        new BridgeLoggerServiceImpl(logger, mock(BridgeEntrySender.class)).getPreferences().addUrlPattern("/test");
+    }
+
+    @Test
+    public void testBridgeDisabled() throws Exception {
+        System.setProperty("piraso.bridge.id", "disabled-1");
+
+        BridgeLoggerServiceImpl service = new BridgeLoggerServiceImpl(logger, mock(BridgeEntrySender.class));
+        Preferences preferences = service.getPreferences();
+
+        assertSame(preferences, service.getPreferences());
+        assertFalse(preferences.isEnabled("piraso.sql.enabled"));
+        assertFalse(preferences.isRegexEnabled("piraso.sql.*"));
+        assertFalse(preferences.isUrlAcceptable("/test"));
+        assertEquals(Integer.valueOf(5), preferences.getIntValue("piraso.size"));
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testBridgeDisabledNotModifiable() throws Exception {
+        System.setProperty("piraso.bridge.id", "disabled-1");
+
+        new BridgeLoggerServiceImpl(logger, mock(BridgeEntrySender.class)).getPreferences().addProperty("piraso.sql.enabled", true);
+    }
+}
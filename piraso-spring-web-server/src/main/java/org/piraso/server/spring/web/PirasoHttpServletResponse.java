@@ -22,6 +22,7 @@ import org.piraso.server.PirasoResponse;
 
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintWriter;
 
 /**
@@ -43,7 +44,15 @@ public class PirasoHttpServletResponse implements PirasoResponse {
         response.setCharacterEncoding(encoding);
     }
 
+    public void setHeader(String name, String value) {
+        response.setHeader(name, value);
+    }
+
     public PrintWriter getWriter() throws IOException {
         return response.getWriter();
     }
+
+    public OutputStream getOutputStream() throws IOException {
+        return response.getOutputStream();
+    }
 }
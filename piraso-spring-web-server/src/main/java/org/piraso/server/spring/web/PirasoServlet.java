@@ -50,12 +50,32 @@ public class PirasoServlet implements HttpRequestHandler {
 
     public static final long DEFAULT_STOP_TIMEOUT = 10000l;
 
+    /**
+     * Maximum number of request ids leased to the bridge in one request.
+     */
+    public static final int MAX_REQUEST_ID_COUNT = 10000;
+
+    /**
+     * Maximum time in milliseconds the bridge waits for a registry change in one request.
+     */
+    public static final long MAX_REGISTRY_WAIT = 60000l;
+
     private Integer maxQueueForceKillSize;
 
     private Long maxIdleTimeout;
 
     private Long stopTimeout = DEFAULT_STOP_TIMEOUT;
 
+    private Integer flushMaxEntries;
+
+    private Long flushMaxBytes;
+
+    private Long flushMaxDelay;
+
+    private Boolean compressionEnabled;
+
+    private OverflowPolicy overflowPolicy;
+
     private UserRegistry registry;
 
     private String version;
@@ -80,6 +100,34 @@ public class PirasoServlet implements HttpRequestHandler {
         this.stopTimeout = stopTimeout;
     }
 
+    public void setFlushMaxEntries(Integer flushMaxEntries) {
+        this.flushMaxEntries = flushMaxEntries;
+    }
+
+    public void setFlushMaxBytes(Long flushMaxBytes) {
+        this.flushMaxBytes = flushMaxBytes;
+    }
+
+    public void setFlushMaxDelay(Long flushMaxDelay) {
+        this.flushMaxDelay = flushMaxDelay;
+    }
+
+    public void setCompressionEnabled(Boolean compressionEnabled) {
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    private FlushPolicy createFlushPolicy() {
+        return new FlushPolicy(
+                flushMaxEntries != null ? flushMaxEntries : FlushPolicy.DEFAULT_MAX_ENTRIES,
+                flushMaxBytes != null ? flushMaxBytes : FlushPolicy.DEFAULT_MAX_BYTES,
+                flushMaxDelay != null ? flushMaxDelay : FlushPolicy.DEFAULT_MAX_DELAY
+        );
+    }
+
     private void writeResponse(HttpServletResponse response, String contentType, String str) throws IOException {
         PrintWriter out = response.getWriter();
 
@@ -103,15 +151,17 @@ public class PirasoServlet implements HttpRequestHandler {
         User user = registry.createOrGetUser(new PirasoHttpServletRequest(request));
 
         if(SERVICE_GET_REGISTRY_PARAMETER_VALUE.equals(request.getParameter(SERVICE_PARAMETER))) {
-            retrieveRegistry(response);
+            retrieveRegistry(request, response);
         } else if(SERVICE_LOG_PARAMETER_VALUE.equals(request.getParameter(SERVICE_PARAMETER))) {
             log(request);
         } else if(SERVICE_REQUEST_ID_PARAMETER_VALUE.equals(request.getParameter(SERVICE_PARAMETER))) {
-            writeResponse(response, PLAIN_CONTENT_TYPE, String.valueOf(PirasoContextIDGenerator.INSTANCE.next()));
+            writeRequestIds(request, response);
         } else if(SERVICE_START_PARAMETER_VALUE.equals(request.getParameter(SERVICE_PARAMETER))) {
             startLoggerService(request, response, user);
         } else if(SERVICE_STOP_PARAMETER_VALUE.equals(request.getParameter(SERVICE_PARAMETER))) {
             stopService(response, user);
+        } else if(SERVICE_STATISTICS_PARAMETER_VALUE.equals(request.getParameter(SERVICE_PARAMETER))) {
+            retrieveStatistics(request, response);
         } else if(SERVICE_TEST_PARAMETER_VALUE.equals(request.getParameter(SERVICE_PARAMETER))) {
             writeResponse(response, JSON_CONTENT_TYPE, String.format("{\"status\":\"%s\", \"version\":\"%s\", \"bridgeSupported\": true}", STATUS_OK, version));
         } else {
@@ -121,9 +171,33 @@ public class PirasoServlet implements HttpRequestHandler {
         }
     }
 
-    private void retrieveRegistry(HttpServletResponse response) throws IOException {
+    private void retrieveRegistry(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if(request.getParameter(REGISTRY_VERSION_PARAMETER) != null) {
+            long knownVersion;
+            long wait;
+
+            try {
+                knownVersion = Long.parseLong(request.getParameter(REGISTRY_VERSION_PARAMETER));
+                wait = request.getParameter(WAIT_PARAMETER) != null ? Long.parseLong(request.getParameter(WAIT_PARAMETER)) : 0l;
+            } catch (NumberFormatException e) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                        String.format("Request Parameter 'registryVersion' with value '%s' or 'wait' with value '%s' is invalid.",
+                                request.getParameter(REGISTRY_VERSION_PARAMETER), request.getParameter(WAIT_PARAMETER)));
+                return;
+            }
+
+            try {
+                registry.awaitVersionChange(knownVersion, Math.min(wait, MAX_REGISTRY_WAIT));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
         BridgeRegistry bridgeRegistry = new BridgeRegistry();
 
+        // taken before the loggers, a change in between is returned again on the next poll
+        bridgeRegistry.setVersion(registry.getVersion());
+
         for(Map.Entry<User, ResponseLoggerService> entry : registry.getUserLoggerMap().entrySet()) {
             bridgeRegistry.addLogger(new BridgeLogger(entry.getValue()));
         }
@@ -131,11 +205,58 @@ public class PirasoServlet implements HttpRequestHandler {
         writeResponse(response, JSON_CONTENT_TYPE, JacksonUtils.MAPPER.writeValueAsString(bridgeRegistry));
     }
 
+    private void writeRequestIds(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        int count = 1;
+
+        if(request.getParameter(COUNT_PARAMETER) != null) {
+            try {
+                count = Integer.parseInt(request.getParameter(COUNT_PARAMETER));
+            } catch (NumberFormatException e) {
+                count = 0;
+            }
+
+            if(count < 1 || count > MAX_REQUEST_ID_COUNT) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                        String.format("Request Parameter 'count' with value '%s' is invalid.", request.getParameter(COUNT_PARAMETER)));
+                return;
+            }
+        }
+
+        // a block of ids leased by the bridge, one id per line
+        StringBuilder buf = new StringBuilder();
+        for(int i = 0; i < count; i++) {
+            if(i > 0) {
+                buf.append('\n');
+            }
+
+            buf.append(PirasoContextIDGenerator.INSTANCE.next());
+        }
+
+        writeResponse(response, PLAIN_CONTENT_TYPE, buf.toString());
+    }
+
+    private void retrieveStatistics(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        int limit = StatisticsProviderManager.DEFAULT_LIMIT;
+
+        if(request.getParameter(LIMIT_PARAMETER) != null) {
+            try {
+                limit = Integer.parseInt(request.getParameter(LIMIT_PARAMETER));
+            } catch (NumberFormatException e) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST,
+                        String.format("Request Parameter 'limit' with value '%s' is invalid.", request.getParameter(LIMIT_PARAMETER)));
+                return;
+            }
+        }
+
+        writeResponse(response, JSON_CONTENT_TYPE, JacksonUtils.MAPPER.writeValueAsString(StatisticsProviderManager.INSTANCE.getStatistics(limit)));
+    }
+
     private void log(HttpServletRequest request) throws IOException {
         String userContent = request.getParameter(USER_PARAMETER);
         String requestId = request.getParameter(ENTRY_REQUEST_ID_PARAMETER);
         String entryContent = request.getParameter(ENTRY_PARAMETER);
         String entryClassName = request.getParameter(ENTRY_CLASS_NAME_PARAMETER);
+        String entriesContent = request.getParameter(ENTRIES_PARAMETER);
 
         Validate.notNull(userContent, "userContent should not be null.");
 
@@ -143,13 +264,29 @@ public class PirasoServlet implements HttpRequestHandler {
 
         ResponseLoggerService service = registry.getLogger(user);
 
-        if(service != null && service.isAlive()) {
-            Validate.notNull(entryContent, "entryContent should not be null.");
-            Validate.notNull(entryClassName, "entryClassName should not be null.");
+        if(service == null || !service.isAlive()) {
+            return;
+        }
+
+        if(entriesContent != null) {
+            // batch sent by the bridge, see org.piraso.server.bridge.BridgeEntrySender
+            BridgeEntry[] entries = JacksonUtils.MAPPER.readValue(entriesContent, BridgeEntry[].class);
 
-            Entry entry = new RawEntry(Long.valueOf(requestId), entryClassName, entryContent);
-            service.log(entry);
+            for(BridgeEntry entry : entries) {
+                Validate.notNull(entry.getContent(), "entryContent should not be null.");
+                Validate.notNull(entry.getClassName(), "entryClassName should not be null.");
+
+                service.log(new RawEntry(entry.getRequestId(), entry.getClassName(), entry.getContent()));
+            }
+
+            return;
         }
+
+        Validate.notNull(entryContent, "entryContent should not be null.");
+        Validate.notNull(entryClassName, "entryClassName should not be null.");
+
+        Entry entry = new RawEntry(Long.valueOf(requestId), entryClassName, entryContent);
+        service.log(entry);
     }
 
     private void stopService(HttpServletResponse response, User user) throws IOException {
@@ -192,6 +329,16 @@ public class PirasoServlet implements HttpRequestHandler {
             service.setMaxIdleTimeout(maxIdleTimeout);
         }
 
+        if(overflowPolicy != null) {
+            service.setOverflowPolicy(overflowPolicy);
+        }
+
+        service.setFlushPolicy(createFlushPolicy());
+
+        if(compressionEnabled != null) {
+            service.setCompressionEnabled(compressionEnabled);
+        }
+
         try {
             registry.associate(user, service);
             service.start();
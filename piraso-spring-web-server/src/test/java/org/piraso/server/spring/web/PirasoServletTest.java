@@ -19,16 +19,26 @@
 package org.piraso.server.spring.web;
 
 import org.piraso.api.JacksonUtils;
+import org.piraso.api.LongIDGenerator;
 import org.piraso.api.Preferences;
+import org.piraso.api.entry.Entry;
+import org.piraso.api.entry.MessageEntry;
+import org.piraso.api.entry.RawEntry;
 import org.piraso.server.CommonMockObjects;
+import org.piraso.server.PirasoContextIDGenerator;
 import org.piraso.server.PirasoRequest;
+import org.piraso.server.service.BridgeEntry;
+import org.piraso.server.service.BridgeRegistry;
 import org.piraso.server.service.DefaultUserRegistryImpl;
 import org.piraso.server.service.ResponseLoggerService;
+import org.piraso.server.service.StatisticsProvider;
+import org.piraso.server.service.StatisticsProviderManager;
 import org.piraso.server.service.User;
 import org.piraso.server.service.UserRegistry;
 import org.codehaus.jackson.map.ObjectMapper;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpServletResponse;
@@ -94,6 +104,96 @@ public class PirasoServletTest {
         assertEquals(HttpServletResponse.SC_BAD_REQUEST, response.getStatus());
     }
 
+    @Test
+    public void testStatistics() throws Exception {
+        StatisticsProvider provider = mock(StatisticsProvider.class);
+        doReturn(new MessageEntry("statistics")).when(provider).getStatistics(5);
+        StatisticsProviderManager.INSTANCE.addProvider("test", provider);
+
+        try {
+            request.addParameter("service", "statistics");
+            request.addParameter("limit", "5");
+            servlet.handleRequest(request, response);
+
+            assertEquals("application/json", response.getContentType());
+            assertTrue(response.getContentAsString().contains("\"test\""));
+            assertTrue(response.getContentAsString().contains("\"statistics\""));
+        } finally {
+            StatisticsProviderManager.INSTANCE.removeProvider("test");
+        }
+    }
+
+    @Test
+    public void testStatisticsInvalidLimit() throws Exception {
+        request.addParameter("service", "statistics");
+        request.addParameter("limit", "all");
+        servlet.handleRequest(request, response);
+
+        assertEquals(HttpServletResponse.SC_BAD_REQUEST, response.getStatus());
+    }
+
+    @Test
+    public void testLogEntries() throws Exception {
+        ResponseLoggerService service = mock(ResponseLoggerService.class);
+        doReturn(true).when(service).isAlive();
+        doReturn(service).when(registry).getLogger(Matchers.<User>any());
+
+        BridgeEntry[] entries = new BridgeEntry[] {
+                new BridgeEntry(MessageEntry.class.getName(), 1l, mapper.writeValueAsString(new MessageEntry(1l, "first"))),
+                new BridgeEntry(MessageEntry.class.getName(), 2l, mapper.writeValueAsString(new MessageEntry(2l, "second")))
+        };
+
+        request.addParameter("service", "log");
+        request.addParameter("userParameter", mapper.writeValueAsString(new User(pirasoRequest)));
+        request.addParameter("entries", mapper.writeValueAsString(entries));
+        servlet.handleRequest(request, response);
+
+        ArgumentCaptor<Entry> captor = ArgumentCaptor.forClass(Entry.class);
+        verify(service, times(2)).log(captor.capture());
+
+        RawEntry second = (RawEntry) captor.getAllValues().get(1);
+        assertEquals(Long.valueOf(2l), second.getRequestId());
+        assertEquals(MessageEntry.class.getName(), second.getRawClassName());
+        assertTrue(second.getRawContent().contains("second"));
+    }
+
+    @Test
+    public void testRequestIds() throws Exception {
+        PirasoContextIDGenerator.INSTANCE.setIdGenerator(new LongIDGenerator());
+
+        request.addParameter("service", "requestId");
+        request.addParameter("count", "3");
+        servlet.handleRequest(request, response);
+
+        assertEquals("text/plain", response.getContentType());
+        assertEquals("1\n2\n3", response.getContentAsString());
+    }
+
+    @Test
+    public void testRequestIdsInvalidCount() throws Exception {
+        request.addParameter("service", "requestId");
+        request.addParameter("count", "0");
+        servlet.handleRequest(request, response);
+
+        assertEquals(HttpServletResponse.SC_BAD_REQUEST, response.getStatus());
+    }
+
+    @Test
+    public void testGetRegistryVersion() throws Exception {
+        long version = registry.getVersion();
+
+        request.addParameter("service", "getRegistry");
+        request.addParameter("registryVersion", String.valueOf(version));
+        request.addParameter("wait", "10");
+        servlet.handleRequest(request, response);
+
+        verify(registry).awaitVersionChange(version, 10);
+
+        BridgeRegistry bridgeRegistry = mapper.readValue(response.getContentAsString(), BridgeRegistry.class);
+        assertEquals(version, bridgeRegistry.getVersion());
+        assertTrue(bridgeRegistry.getLoggers().isEmpty());
+    }
+
     @Test
     public void testStopNullService() throws Exception {
         request.addParameter("service", "stop");
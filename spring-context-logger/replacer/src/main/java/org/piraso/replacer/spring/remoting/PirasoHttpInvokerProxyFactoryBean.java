@@ -20,7 +20,6 @@ package org.piraso.replacer.spring.remoting;
 
 import org.piraso.api.Level;
 import org.piraso.api.entry.ElapseTimeEntry;
-import org.piraso.api.entry.EntryUtils;
 import org.piraso.api.entry.MessageEntry;
 import org.piraso.api.entry.ThrowableEntry;
 import org.piraso.api.spring.SpringPreferenceEnum;
@@ -30,6 +29,7 @@ import org.piraso.server.ContextPreference;
 import org.piraso.server.GeneralPreferenceEvaluator;
 import org.piraso.server.GroupChainId;
 import org.piraso.server.PirasoEntryPointContext;
+import org.piraso.server.StackTraceSampler;
 import org.piraso.server.dispatcher.ContextLogDispatcher;
 import org.aopalliance.intercept.MethodInvocation;
 import org.apache.commons.logging.Log;
@@ -71,7 +71,7 @@ public class PirasoHttpInvokerProxyFactoryBean extends HttpInvokerProxyFactoryBe
                     entry.setServiceInterface(getServiceInterface().getName());
 
                     if (pref.isStackTraceEnabled()) {
-                        entry.setStackTrace(EntryUtils.toEntry(Thread.currentThread().getStackTrace()));
+                        entry.setStackTrace(StackTraceSampler.capture(pref));
                     }
 
                     ContextLogDispatcher.forward(level, new GroupChainId(declaringClass), entry);
@@ -25,6 +25,7 @@ import org.piraso.proxy.RegexMethodInterceptorAdapter;
 import org.piraso.proxy.RegexMethodInterceptorEvent;
 import org.piraso.proxy.RegexProxyFactory;
 import org.piraso.server.GroupChainId;
+import org.piraso.server.StackTraceSampler;
 import org.piraso.server.dispatcher.ContextLogDispatcher;
 import org.springframework.remoting.httpinvoker.HttpInvokerRequestExecutor;
 
@@ -102,7 +103,7 @@ public class SpringRemotingProxyFactory extends AbstractSpringProxyFactory<HttpI
 
         // method stack trace only if debug is enabled
         if (getPref().isStackTraceEnabled()) {
-            entry.setStackTrace(EntryUtils.toEntry(Thread.currentThread().getStackTrace()));
+            entry.setStackTrace(StackTraceSampler.capture(getPref()));
         }
 
         return entry;
@@ -31,6 +31,9 @@ import java.util.Vector;
 
 /**
  * represents a resultSet SQL data
+ * <p>
+ * The compact form carries the column names and types once, and the values column by column as the strings
+ * displayed, <code>null</code> standing for a SQL null, instead of a {@link SQLParameterEntry} per value.
  */
 public class SQLDataViewEntry extends Entry {
 
@@ -38,6 +41,12 @@ public class SQLDataViewEntry extends Entry {
 
     private long resultSetId;
 
+    private String[] columnNames;
+
+    private String[] columnTypes;
+
+    private String[][] columnValues;
+
     public SQLDataViewEntry() {
     }
 
@@ -46,6 +55,21 @@ public class SQLDataViewEntry extends Entry {
         this.resultSetId = resultSetId;
     }
 
+    /**
+     * Creates the compact form.
+     *
+     * @param resultSetId the result set id
+     * @param columnNames the column names or indexes the values were retrieved with
+     * @param columnTypes the class names returned by the getters
+     * @param columnValues the values of each column, all of the same length
+     */
+    public SQLDataViewEntry(long resultSetId, String[] columnNames, String[] columnTypes, String[][] columnValues) {
+        this.resultSetId = resultSetId;
+        this.columnNames = columnNames;
+        this.columnTypes = columnTypes;
+        this.columnValues = columnValues;
+    }
+
     public List<List<SQLParameterEntry>> getRecords() {
         return records;
     }
@@ -62,9 +86,47 @@ public class SQLDataViewEntry extends Entry {
         this.resultSetId = resultSetId;
     }
 
+    public String[] getColumnNames() {
+        return columnNames;
+    }
+
+    public void setColumnNames(String[] columnNames) {
+        this.columnNames = columnNames;
+    }
+
+    public String[] getColumnTypes() {
+        return columnTypes;
+    }
+
+    public void setColumnTypes(String[] columnTypes) {
+        this.columnTypes = columnTypes;
+    }
+
+    public String[][] getColumnValues() {
+        return columnValues;
+    }
+
+    public void setColumnValues(String[][] columnValues) {
+        this.columnValues = columnValues;
+    }
+
+    @JsonIgnore
+    public boolean isCompact() {
+        return columnNames != null;
+    }
+
+    @JsonIgnore
+    public int getRowCount() {
+        if(isCompact()) {
+            return columnValues.length == 0 ? 0 : columnValues[0].length;
+        }
+
+        return CollectionUtils.size(records);
+    }
+
     @JsonIgnore
     public String getCSVString() throws IOException {
-        if(CollectionUtils.isEmpty(records)) {
+        if(getRowCount() == 0) {
             return "";
         }
 
@@ -74,6 +136,20 @@ public class SQLDataViewEntry extends Entry {
         Vector<String> header = SQLParameterUtils.createHeaders(this, Integer.MAX_VALUE);
         csv.writeNext(header.toArray(new String[header.size()]));
 
+        if(isCompact()) {
+            for(int i = 0; i < getRowCount(); i++) {
+                String[] row = new String[columnNames.length];
+                for(int j = 0; j < columnNames.length; j++) {
+                    row[j] = SQLParameterUtils.toRSString(columnTypes[j], columnValues[j][i]);
+                }
+
+                csv.writeNext(row);
+            }
+
+            csv.flush();
+            return writer.toString();
+        }
+
         for(List<SQLParameterEntry> list : records) {
             List<String> row = new ArrayList<String>(list.size());
             for(SQLParameterEntry parameter : list) {
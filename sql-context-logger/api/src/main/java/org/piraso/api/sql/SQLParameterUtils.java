@@ -121,7 +121,50 @@ public class SQLParameterUtils {
         return returnedValue.getStrValue();
     }
 
+    /**
+     * Formats a value of a compact {@link SQLDataViewEntry} the way {@link #toRSString(SQLParameterEntry)} does.
+     *
+     * @param className the class name returned by the column getter
+     * @param value the displayed value, <code>null</code> for a SQL null
+     * @return the formatted value
+     */
+    public static String toRSString(String className, String value) {
+        if(value == null) {
+            return "@null";
+        }
+
+        try {
+            if(Date.class.getName().equals(className)) {
+                return new SimpleDateFormat("dd-MMM-yyyy").format(Date.valueOf(value));
+            } else if(Timestamp.class.getName().equals(className)) {
+                return new SimpleDateFormat("dd-MMM-yyyy HH:mm:ss").format(Timestamp.valueOf(value));
+            }
+        } catch (IllegalArgumentException e) {
+            // not in the escape format, shown as is
+        }
+
+        return value;
+    }
+
+    private static String toDisplayString(String value) {
+        return value == null ? "@null" : value;
+    }
+
     public static Vector<Vector<String>> createColumnDefinition(SQLDataViewEntry entry) {
+        if(entry.isCompact()) {
+            Vector<Vector<String>> data = new Vector<Vector<String>>();
+
+            for(int i = 0; i < entry.getColumnNames().length; i++) {
+                Vector<String> v = new Vector<String>(2);
+                v.add(entry.getColumnNames()[i]);
+                v.add(entry.getColumnTypes()[i]);
+
+                data.add(v);
+            }
+
+            return data;
+        }
+
         if(CollectionUtils.isEmpty(entry.getRecords())) {
             return new Vector<Vector<String>>();
         }
@@ -141,6 +184,19 @@ public class SQLParameterUtils {
     }
 
     public static Vector<String> createHeaders(SQLDataViewEntry entry, int maxColumnToleranceSize) {
+        if(entry.isCompact()) {
+            Vector<String> header = new Vector<String>();
+
+            if(entry.getColumnNames().length > maxColumnToleranceSize) {
+                header.add("Column Name/ID");
+                header.add("Value");
+            } else {
+                header.addAll(Arrays.asList(entry.getColumnNames()));
+            }
+
+            return header;
+        }
+
         if(CollectionUtils.isEmpty(entry.getRecords())) {
             return new Vector<String>();
         }
@@ -161,6 +217,10 @@ public class SQLParameterUtils {
     }
 
     public static Vector<Vector<String>> createDataValues(SQLDataViewEntry entry, int maxColumnToleranceSize) {
+        if(entry.isCompact()) {
+            return createCompactDataValues(entry, maxColumnToleranceSize);
+        }
+
         if(CollectionUtils.isEmpty(entry.getRecords())) {
             return new Vector<Vector<String>>();
         }
@@ -194,4 +254,35 @@ public class SQLParameterUtils {
 
         return data;
     }
+
+    private static Vector<Vector<String>> createCompactDataValues(SQLDataViewEntry entry, int maxColumnToleranceSize) {
+        String[] names = entry.getColumnNames();
+        String[][] values = entry.getColumnValues();
+        Vector<Vector<String>> data = new Vector<Vector<String>>();
+
+        if(names.length > maxColumnToleranceSize) {
+            for(int i = 0; i < entry.getRowCount(); i++) {
+                Vector<String> v = new Vector<String>();
+                v.add("@Row " + (i + 1) + " --- ");
+                v.add("");
+                data.add(v);
+                for(int j = 0; j < names.length; j++) {
+                    v = new Vector<String>();
+                    v.add(names[j]);
+                    v.add(toDisplayString(values[j][i]));
+                    data.add(v);
+                }
+            }
+        } else {
+            for(int i = 0; i < entry.getRowCount(); i++) {
+                Vector<String> v = new Vector<String>(names.length);
+                for(int j = 0; j < names.length; j++) {
+                    v.add(toDisplayString(values[j][i]));
+                }
+                data.add(v);
+            }
+        }
+
+        return data;
+    }
 }
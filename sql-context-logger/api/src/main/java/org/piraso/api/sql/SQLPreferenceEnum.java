@@ -43,7 +43,13 @@ public enum SQLPreferenceEnum  implements PreferenceEnum {
 
     RESULTSET_ALL_DATA_ENABLED("sql.resultset.all.data.enabled"),
 
-    VIEW_DATA_SIZE("sql.data.size", false);
+    RESULTSET_COMPACT_DATA_ENABLED("sql.resultset.compact.data.enabled"),
+
+    VIEW_DATA_SIZE("sql.data.size", false),
+
+    VIEW_DATA_BUDGET("sql.data.budget", false),
+
+    REPEATED_STATEMENT_THRESHOLD("sql.repeated.statement.threshold", false);
 
     // register enum as level
     static {
@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.api.sql;
+
+import org.piraso.api.entry.MessageEntry;
+import org.piraso.api.entry.StackTraceAwareEntry;
+import org.piraso.api.entry.StackTraceElementEntry;
+
+/**
+ * Warns about a SQL statement repeatedly executed within a single request, the N+1 pattern.
+ */
+public class SQLRepeatedStatementEntry extends MessageEntry implements StackTraceAwareEntry {
+
+    private String sql;
+
+    private int count;
+
+    private long totalTime;
+
+    private StackTraceElementEntry[] stackTrace;
+
+    public SQLRepeatedStatementEntry() {}
+
+    public SQLRepeatedStatementEntry(String sql, int count, long totalTime, StackTraceElementEntry[] stackTrace) {
+        super(String.format("Statement executed %d times in this request", count));
+
+        this.sql = sql;
+        this.count = count;
+        this.totalTime = totalTime;
+        this.stackTrace = stackTrace;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public void setSql(String sql) {
+        this.sql = sql;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void setCount(int count) {
+        this.count = count;
+    }
+
+    /**
+     * The total execution time of the repeated statement in microseconds.
+     *
+     * @return the total execution time
+     */
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    public void setTotalTime(long totalTime) {
+        this.totalTime = totalTime;
+    }
+
+    /**
+     * The call site of the first repeated execution.
+     *
+     * @return the stack trace elements
+     */
+    public StackTraceElementEntry[] getStackTrace() {
+        return stackTrace;
+    }
+
+    public void setStackTrace(StackTraceElementEntry[] stackTrace) {
+        this.stackTrace = stackTrace;
+    }
+}
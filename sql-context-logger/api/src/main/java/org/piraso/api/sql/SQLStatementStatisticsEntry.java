@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.api.sql;
+
+import org.piraso.api.entry.Entry;
+import org.codehaus.jackson.annotate.JsonIgnore;
+
+/**
+ * Aggregated statistics of a normalized SQL statement, times are in microseconds.
+ */
+public class SQLStatementStatisticsEntry extends Entry {
+
+    private String sql;
+
+    private long executionCount;
+
+    private long errorCount;
+
+    private long rowCount;
+
+    private long totalTime;
+
+    private long maxTime;
+
+    private long p99Time;
+
+    public SQLStatementStatisticsEntry() {}
+
+    public SQLStatementStatisticsEntry(String sql) {
+        this.sql = sql;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public void setSql(String sql) {
+        this.sql = sql;
+    }
+
+    public long getExecutionCount() {
+        return executionCount;
+    }
+
+    public void setExecutionCount(long executionCount) {
+        this.executionCount = executionCount;
+    }
+
+    public long getErrorCount() {
+        return errorCount;
+    }
+
+    public void setErrorCount(long errorCount) {
+        this.errorCount = errorCount;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(long rowCount) {
+        this.rowCount = rowCount;
+    }
+
+    public long getTotalTime() {
+        return totalTime;
+    }
+
+    public void setTotalTime(long totalTime) {
+        this.totalTime = totalTime;
+    }
+
+    public long getMaxTime() {
+        return maxTime;
+    }
+
+    public void setMaxTime(long maxTime) {
+        this.maxTime = maxTime;
+    }
+
+    /**
+     * The 99th percentile execution time, an upper bound within 25% of the actual value.
+     *
+     * @return the 99th percentile execution time
+     */
+    public long getP99Time() {
+        return p99Time;
+    }
+
+    public void setP99Time(long p99Time) {
+        this.p99Time = p99Time;
+    }
+
+    @JsonIgnore
+    public long getAverageTime() {
+        return executionCount == 0 ? 0 : totalTime / executionCount;
+    }
+}
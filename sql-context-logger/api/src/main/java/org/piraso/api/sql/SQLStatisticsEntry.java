@@ -0,0 +1,57 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.api.sql;
+
+import org.piraso.api.entry.Entry;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Summary of the SQL statements executed since the statistics were started, slowest total time first.
+ */
+public class SQLStatisticsEntry extends Entry {
+
+    private long startTime;
+
+    private List<SQLStatementStatisticsEntry> statements;
+
+    public SQLStatisticsEntry() {}
+
+    public SQLStatisticsEntry(long startTime, List<SQLStatementStatisticsEntry> statements) {
+        this.startTime = startTime;
+        this.statements = new ArrayList<SQLStatementStatisticsEntry>(statements);
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime = startTime;
+    }
+
+    public List<SQLStatementStatisticsEntry> getStatements() {
+        return statements;
+    }
+
+    public void setStatements(List<SQLStatementStatisticsEntry> statements) {
+        this.statements = statements;
+    }
+}
@@ -22,12 +22,15 @@ import org.junit.Test;
 
 import java.io.IOException;
 import java.lang.reflect.Method;
+import java.sql.Date;
 import java.sql.ResultSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Vector;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Test for {@link SQLDataViewEntry} class.
@@ -48,4 +51,43 @@ public class SQLDataViewEntryTest extends AbstractJacksonTest {
 
         assertEquals(expected, actual);
     }
+
+    @Test
+    public void testCompactJackson() throws IOException {
+        SQLDataViewEntry expected = createCompactEntry();
+
+        String jsonValue = mapper.writeValueAsString(expected);
+        SQLDataViewEntry actual = mapper.readValue(jsonValue, SQLDataViewEntry.class);
+
+        assertEquals(expected, actual);
+        assertTrue(actual.isCompact());
+        assertEquals(2, actual.getRowCount());
+    }
+
+    @Test
+    public void testCompactViews() throws IOException {
+        SQLDataViewEntry entry = createCompactEntry();
+
+        assertEquals(Arrays.asList("1", "CREATED"), SQLParameterUtils.createHeaders(entry, 10));
+        assertEquals(Arrays.asList("Column Name/ID", "Value"), SQLParameterUtils.createHeaders(entry, 1));
+        assertEquals(Arrays.asList("1", Integer.TYPE.getName()), SQLParameterUtils.createColumnDefinition(entry).get(0));
+
+        Vector<Vector<String>> values = SQLParameterUtils.createDataValues(entry, 10);
+        assertEquals(2, values.size());
+        assertEquals(Arrays.asList("10", "2012-03-04"), values.get(0));
+        assertEquals(Arrays.asList("20", "@null"), values.get(1));
+
+        values = SQLParameterUtils.createDataValues(entry, 1);
+        assertEquals(6, values.size());
+        assertEquals(Arrays.asList("CREATED", "2012-03-04"), values.get(2));
+
+        assertEquals("\"1\",\"CREATED\"\n\"10\",\"04-Mar-2012\"\n\"20\",\"@null\"\n", entry.getCSVString());
+    }
+
+    private SQLDataViewEntry createCompactEntry() {
+        return new SQLDataViewEntry(1l,
+                new String[] {"1", "CREATED"},
+                new String[] {Integer.TYPE.getName(), Date.class.getName()},
+                new String[][] {{"10", "20"}, {"2012-03-04", null}});
+    }
 }
@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.api.sql;
+
+import org.junit.Test;
+import org.piraso.api.entry.EntryUtils;
+
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test for {@link SQLRepeatedStatementEntry} class.
+ */
+public class SQLRepeatedStatementEntryTest extends AbstractJacksonTest {
+
+    @Test
+    public void testJackson() throws IOException {
+        SQLRepeatedStatementEntry expected = new SQLRepeatedStatementEntry("select * from a where id = ?", 20, 4000,
+                EntryUtils.toEntry(Thread.currentThread().getStackTrace()));
+
+        String jsonValue = mapper.writeValueAsString(expected);
+        SQLRepeatedStatementEntry actual = mapper.readValue(jsonValue, SQLRepeatedStatementEntry.class);
+
+        assertEquals(expected, actual);
+        assertEquals("Statement executed 20 times in this request", actual.getMessage());
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.api.sql;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Test for {@link SQLStatisticsEntry} class.
+ */
+public class SQLStatisticsEntryTest extends AbstractJacksonTest {
+
+    @Test
+    public void testJackson() throws IOException {
+        SQLStatementStatisticsEntry statement = new SQLStatementStatisticsEntry("select * from a where id = ?");
+        statement.setExecutionCount(4);
+        statement.setErrorCount(1);
+        statement.setRowCount(12);
+        statement.setTotalTime(400);
+        statement.setMaxTime(250);
+        statement.setP99Time(255);
+
+        SQLStatisticsEntry expected = new SQLStatisticsEntry(System.currentTimeMillis(), Arrays.asList(statement));
+
+        String jsonValue = mapper.writeValueAsString(expected);
+        SQLStatisticsEntry actual = mapper.readValue(jsonValue, SQLStatisticsEntry.class);
+
+        assertEquals(expected, actual);
+        assertEquals(100, actual.getStatements().get(0).getAverageTime());
+    }
+}
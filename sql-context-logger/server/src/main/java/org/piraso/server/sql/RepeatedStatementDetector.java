@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.sql;
+
+import org.piraso.api.entry.EntryUtils;
+import org.piraso.api.entry.StackTraceElementEntry;
+import org.piraso.api.sql.SQLRepeatedStatementEntry;
+import org.piraso.server.ContextPreference;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the executions of each normalized statement within a request, kept as a property of the request context.
+ * <p>
+ * A statement is reported once its executions reach the threshold, and again each time they double, so only a few
+ * entries are forwarded whatever the number of executions. The call site is captured on the first repeated
+ * execution, statements executed once never pay for it.
+ */
+public class RepeatedStatementDetector {
+
+    private static final String PROPERTY_NAME = "detector";
+
+    private final Map<String, Repetition> repetitions = new HashMap<String, Repetition>();
+
+    /**
+     * Retrieves the detector of the current request, created on first use.
+     *
+     * @param context the request context
+     * @return the detector, <code>null</code> when there is no request context
+     */
+    public static RepeatedStatementDetector get(ContextPreference context) {
+        if(context == null) {
+            return null;
+        }
+
+        RepeatedStatementDetector detector = (RepeatedStatementDetector) context.getProperty(RepeatedStatementDetector.class, PROPERTY_NAME);
+
+        if(detector == null) {
+            context.addProperty(RepeatedStatementDetector.class, PROPERTY_NAME, new RepeatedStatementDetector());
+            detector = (RepeatedStatementDetector) context.getProperty(RepeatedStatementDetector.class, PROPERTY_NAME);
+        }
+
+        return detector;
+    }
+
+    /**
+     * Records an execution.
+     *
+     * @param fingerprint the normalized sql
+     * @param elapsedNanos the execution time in nanoseconds
+     * @param threshold the number of executions to report
+     * @return the entry to forward, <code>null</code> if nothing is to be reported
+     */
+    public synchronized SQLRepeatedStatementEntry record(String fingerprint, long elapsedNanos, int threshold) {
+        if(threshold <= 0) {
+            return null;
+        }
+
+        Repetition repetition = repetitions.get(fingerprint);
+
+        if(repetition == null) {
+            repetition = new Repetition();
+            repetitions.put(fingerprint, repetition);
+        }
+
+        repetition.count++;
+        repetition.totalTime += elapsedNanos / 1000;
+
+        if(repetition.count == 2) {
+            repetition.callSite = EntryUtils.toEntry(Thread.currentThread().getStackTrace());
+        }
+
+        if(repetition.count < threshold || repetition.count < repetition.nextReport) {
+            return null;
+        }
+
+        repetition.nextReport = repetition.count * 2;
+
+        return new SQLRepeatedStatementEntry(fingerprint, repetition.count, repetition.totalTime, repetition.callSite);
+    }
+
+    private static class Repetition {
+        private StackTraceElementEntry[] callSite;
+
+        private int count;
+
+        private long totalTime;
+
+        private int nextReport;
+    }
+}
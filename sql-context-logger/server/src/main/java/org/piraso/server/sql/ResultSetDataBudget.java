@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.sql;
+
+import org.piraso.server.ContextPreference;
+
+/**
+ * Number of bytes of result set data left to capture within a request, kept as a property of the request context.
+ */
+public class ResultSetDataBudget {
+
+    private static final String PROPERTY_NAME = "budget";
+
+    private long remaining;
+
+    private boolean exhausted;
+
+    public ResultSetDataBudget(long remaining) {
+        this.remaining = remaining;
+    }
+
+    /**
+     * Retrieves the budget of the current request, created on first use.
+     *
+     * @param context the request context
+     * @param budget the number of bytes of a new budget
+     * @return the budget, <code>null</code> when there is no request context
+     */
+    public static ResultSetDataBudget get(ContextPreference context, long budget) {
+        ResultSetDataBudget result = (ResultSetDataBudget) context.getProperty(ResultSetDataBudget.class, PROPERTY_NAME);
+
+        if(result == null) {
+            context.addProperty(ResultSetDataBudget.class, PROPERTY_NAME, new ResultSetDataBudget(budget));
+            result = (ResultSetDataBudget) context.getProperty(ResultSetDataBudget.class, PROPERTY_NAME);
+        }
+
+        return result;
+    }
+
+    /**
+     * Consumes the given number of bytes.
+     *
+     * @param bytes the number of bytes captured
+     * @return <code>false</code> if the budget was exceeded
+     */
+    public synchronized boolean consume(long bytes) {
+        remaining -= bytes;
+
+        return remaining >= 0;
+    }
+
+    /**
+     * Marks the budget as exhausted.
+     *
+     * @return <code>true</code> only for the first call, to report it once per request
+     */
+    public synchronized boolean exhaust() {
+        boolean first = !exhausted;
+        exhausted = true;
+
+        return first;
+    }
+}
@@ -28,6 +28,10 @@ public class SQLPreferenceEvaluator extends GeneralPreferenceEvaluator {
 
     private static final int DEFAULT_RETURN_SIZE = 100;
 
+    private static final int DEFAULT_REPEATED_STATEMENT_THRESHOLD = 20;
+
+    private static final int DEFAULT_DATA_BUDGET = 1024 * 1024;
+
 
     public boolean isConnectionMethodCallEnabled() {
         return isEnabled(SQLPreferenceEnum.CONNECTION_METHOD_CALL_ENABLED);
@@ -61,6 +65,10 @@ public class SQLPreferenceEvaluator extends GeneralPreferenceEvaluator {
         return isEnabled(SQLPreferenceEnum.RESULTSET_ALL_DATA_ENABLED);
     }
 
+    public boolean isResultSetCompactDataEnabled() {
+        return isEnabled(SQLPreferenceEnum.RESULTSET_COMPACT_DATA_ENABLED);
+    }
+
     public boolean isResultSetMethodCallEnabled() {
         return isEnabled(SQLPreferenceEnum.RESULTSET_METHOD_CALL_ENABLED);
     }
@@ -70,4 +78,26 @@ public class SQLPreferenceEvaluator extends GeneralPreferenceEvaluator {
 
         return value == null ? DEFAULT_RETURN_SIZE : value;
     }
+
+    /**
+     * Approximate number of bytes of compact result set data captured per request.
+     *
+     * @return the data budget
+     */
+    public int getDataBudget() {
+        Integer value = getIntValue(SQLPreferenceEnum.VIEW_DATA_BUDGET);
+
+        return value == null ? DEFAULT_DATA_BUDGET : value;
+    }
+
+    /**
+     * Number of executions of the same statement within a request before it is reported, disabled when not positive.
+     *
+     * @return the repeated statement threshold
+     */
+    public int getRepeatedStatementThreshold() {
+        Integer value = getIntValue(SQLPreferenceEnum.REPEATED_STATEMENT_THRESHOLD);
+
+        return value == null ? DEFAULT_REPEATED_STATEMENT_THRESHOLD : value;
+    }
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.sql;
+
+import org.piraso.api.sql.SQLStatementStatisticsEntry;
+
+/**
+ * Accumulates the executions of a normalized SQL statement.
+ * <p>
+ * Execution times are kept in a log-linear histogram of microseconds, four buckets per power of two, so the
+ * reported percentile is an upper bound within 25% of the actual value.
+ */
+public final class SQLStatementStatistics {
+
+    private static final int SUB_BUCKETS = 4;
+
+    private static final int SUB_BUCKET_BITS = 2;
+
+    private static final int BUCKET_COUNT = SUB_BUCKETS + (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final String sql;
+
+    private final long[] histogram = new long[BUCKET_COUNT];
+
+    private long executionCount;
+
+    private long errorCount;
+
+    private long rowCount;
+
+    private long totalTime;
+
+    private long maxTime;
+
+    public SQLStatementStatistics(String sql) {
+        this.sql = sql;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * Records an execution.
+     *
+     * @param elapsedNanos the execution time in nanoseconds
+     * @param error whether the execution threw an exception
+     */
+    public synchronized void recordExecution(long elapsedNanos, boolean error) {
+        long micros = Math.max(0, elapsedNanos / 1000);
+
+        executionCount++;
+        totalTime += micros;
+        maxTime = Math.max(maxTime, micros);
+        histogram[getBucket(micros)]++;
+
+        if(error) {
+            errorCount++;
+        }
+    }
+
+    public synchronized void addRows(long rows) {
+        rowCount += rows;
+    }
+
+    public synchronized SQLStatementStatisticsEntry toEntry() {
+        SQLStatementStatisticsEntry entry = new SQLStatementStatisticsEntry(sql);
+
+        entry.setExecutionCount(executionCount);
+        entry.setErrorCount(errorCount);
+        entry.setRowCount(rowCount);
+        entry.setTotalTime(totalTime);
+        entry.setMaxTime(maxTime);
+        entry.setP99Time(getPercentile(0.99));
+
+        return entry;
+    }
+
+    private long getPercentile(double percentile) {
+        long rank = (long) Math.ceil(executionCount * percentile);
+        long count = 0;
+
+        for(int i = 0; i < histogram.length; i++) {
+            count += histogram[i];
+
+            if(count >= rank && count > 0) {
+                return Math.min(getUpperBound(i), maxTime);
+            }
+        }
+
+        return 0;
+    }
+
+    static int getBucket(long value) {
+        if(value < SUB_BUCKETS) {
+            return (int) value;
+        }
+
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+
+        return SUB_BUCKETS + (exponent - SUB_BUCKET_BITS) * SUB_BUCKETS + subBucket;
+    }
+
+    static long getUpperBound(int bucket) {
+        if(bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+
+        int exponent = (bucket - SUB_BUCKETS) / SUB_BUCKETS + SUB_BUCKET_BITS;
+        int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+
+        return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.sql;
+
+import org.piraso.api.sql.SQLStatementStatisticsEntry;
+import org.piraso.api.sql.SQLStatisticsEntry;
+import org.piraso.server.service.StatisticsProvider;
+import org.piraso.server.service.StatisticsProviderManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Collects {@link SQLStatementStatistics} keyed by normalized SQL, served as the <code>sql</code> statistics.
+ * <p>
+ * Statements are only measured while proxied, that is while a monitor has the prepared statement preference
+ * enabled, and rows are only counted when the result set preference is enabled as well. Past
+ * {@link #MAX_STATEMENTS} distinct statements new ones are accumulated under {@link #OTHER_SQL}.
+ * <p>
+ * The module spring configuration creates the instance, so the provider is registered before any sql is executed.
+ */
+public enum SQLStatisticsCollector implements StatisticsProvider {
+    INSTANCE;
+
+    public static final String PROVIDER_NAME = "sql";
+
+    public static final int MAX_STATEMENTS = 1000;
+
+    public static final String OTHER_SQL = "(other)";
+
+    private static final Comparator<SQLStatementStatisticsEntry> TOTAL_TIME_DESCENDING = new Comparator<SQLStatementStatisticsEntry>() {
+        public int compare(SQLStatementStatisticsEntry o1, SQLStatementStatisticsEntry o2) {
+            return o1.getTotalTime() < o2.getTotalTime() ? 1 : (o1.getTotalTime() == o2.getTotalTime() ? 0 : -1);
+        }
+    };
+
+    private final ConcurrentMap<String, SQLStatementStatistics> statements = new ConcurrentHashMap<String, SQLStatementStatistics>();
+
+    private volatile long startTime = System.currentTimeMillis();
+
+    private SQLStatisticsCollector() {
+        StatisticsProviderManager.INSTANCE.addProvider(PROVIDER_NAME, this);
+    }
+
+    /**
+     * Retrieves the statistics the executions of the given sql are accumulated to.
+     *
+     * @param sql the executed sql
+     * @return the statistics of the normalized sql
+     */
+    public SQLStatementStatistics getStatementStatistics(String sql) {
+        return getFingerprintStatistics(normalize(sql));
+    }
+
+    /**
+     * Retrieves the statistics of an already normalized sql.
+     *
+     * @param fingerprint the sql normalized by {@link #normalize(String)}
+     * @return the statistics of the normalized sql
+     */
+    public SQLStatementStatistics getFingerprintStatistics(String fingerprint) {
+        String key = fingerprint;
+        SQLStatementStatistics statistics = statements.get(key);
+
+        if(statistics == null) {
+            if(statements.size() >= MAX_STATEMENTS) {
+                key = OTHER_SQL;
+            }
+
+            SQLStatementStatistics created = new SQLStatementStatistics(key);
+            statistics = statements.putIfAbsent(key, created);
+
+            if(statistics == null) {
+                statistics = created;
+            }
+        }
+
+        return statistics;
+    }
+
+    public SQLStatisticsEntry getStatistics(int limit) {
+        List<SQLStatementStatisticsEntry> entries = new ArrayList<SQLStatementStatisticsEntry>(statements.size());
+
+        for(SQLStatementStatistics statistics : statements.values()) {
+            entries.add(statistics.toEntry());
+        }
+
+        Collections.sort(entries, TOTAL_TIME_DESCENDING);
+
+        if(entries.size() > limit) {
+            entries = entries.subList(0, Math.max(0, limit));
+        }
+
+        return new SQLStatisticsEntry(startTime, entries);
+    }
+
+    public void clear() {
+        statements.clear();
+        startTime = System.currentTimeMillis();
+    }
+
+    /**
+     * Collapses whitespaces and replaces string and numeric literals with <code>?</code> so statements differing only
+     * by their literal values share their statistics.
+     *
+     * @param sql the sql
+     * @return the normalized sql
+     */
+    public static String normalize(String sql) {
+        StringBuilder buf = new StringBuilder(sql.length());
+        boolean space = false;
+
+        for(int i = 0; i < sql.length(); i++) {
+            char c = sql.charAt(i);
+
+            if(Character.isWhitespace(c)) {
+                space = true;
+                continue;
+            }
+
+            if(space && buf.length() > 0) {
+                buf.append(' ');
+            }
+            space = false;
+
+            if(c == '\'') {
+                // skip to the closing quote, doubled quotes being escaped ones
+                i++;
+                while(i < sql.length()) {
+                    if(sql.charAt(i) == '\'') {
+                        if(i + 1 < sql.length() && sql.charAt(i + 1) == '\'') {
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+
+                    i++;
+                }
+
+                buf.append('?');
+            } else if(Character.isDigit(c) && (buf.length() == 0 || !isIdentifierPart(buf.charAt(buf.length() - 1)))) {
+                while(i + 1 < sql.length() && (Character.isDigit(sql.charAt(i + 1)) || sql.charAt(i + 1) == '.')) {
+                    i++;
+                }
+
+                buf.append('?');
+            } else {
+                buf.append(c);
+            }
+        }
+
+        return buf.toString();
+    }
+
+    private static boolean isIdentifierPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$';
+    }
+}
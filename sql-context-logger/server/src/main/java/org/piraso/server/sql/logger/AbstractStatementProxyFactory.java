@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.sql.logger;
+
+import org.piraso.api.Level;
+import org.piraso.api.entry.ElapseTimeEntry;
+import org.piraso.api.sql.SQLPreferenceEnum;
+import org.piraso.api.sql.SQLRepeatedStatementEntry;
+import org.piraso.api.sql.SQLViewEntry;
+import org.piraso.proxy.RegexMethodInterceptorAdapter;
+import org.piraso.proxy.RegexMethodInterceptorEvent;
+import org.piraso.proxy.RegexProxyFactory;
+import org.piraso.server.GroupChainId;
+import org.piraso.server.dispatcher.ContextLogDispatcher;
+import org.piraso.server.logger.MethodCallLoggerListener;
+import org.piraso.server.sql.RepeatedStatementDetector;
+import org.piraso.server.sql.SQLStatementStatistics;
+import org.piraso.server.sql.SQLStatisticsCollector;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Base {@link Statement} proxy logger factory, every statement kind is covered by the prepared statement preferences.
+ * <p>
+ * Each execution is timed and forwarded as a {@link SQLViewEntry} with the collected parameters, and the returned
+ * {@link ResultSet} is wrapped by a {@link ResultSetProxyFactory}. Executions are also accumulated to the
+ * {@link SQLStatisticsCollector} and counted by the request {@link RepeatedStatementDetector}.
+ */
+public abstract class AbstractStatementProxyFactory<T extends Statement> extends AbstractSQLProxyFactory<T> {
+
+    private static final Level METHOD_CALL_LEVEL = Level.get(SQLPreferenceEnum.PREPARED_STATEMENT_METHOD_CALL_ENABLED.getPropertyName());
+
+    protected static final Level BASE_LEVEL = Level.get(SQLPreferenceEnum.PREPARED_STATEMENT_ENABLED.getPropertyName());
+
+    private static final Level SQL_VIEW_LEVEL = Level.get(SQLPreferenceEnum.VIEW_SQL_ENABLED.getPropertyName());
+
+    protected StatementParameterListener<T> parameterListener;
+
+    private String statisticsSQL;
+
+    private String fingerprint;
+
+    private SQLStatementStatistics statistics;
+
+    public AbstractStatementProxyFactory(GroupChainId id, Class<T> statementClass) {
+        super(id, new RegexProxyFactory<T>(statementClass));
+
+        if(getPref().isPreparedStatementMethodCallEnabled()) {
+            factory.addMethodListener(".*", new MethodCallLoggerListener<T>(METHOD_CALL_LEVEL, id));
+        }
+
+        if(getPref().isViewSQLEnabled()) {
+            parameterListener = new StatementParameterListener<T>();
+
+            factory.addMethodListener("set.*", parameterListener);
+        }
+
+        factory.addMethodListener("execute|executeQuery|executeUpdate|executeBatch", new StatisticsListener());
+    }
+
+    /**
+     * Retrieves the statistics of the given sql, kept while the same sql is executed.
+     *
+     * @param sql the executed sql
+     * @return the statistics
+     */
+    protected SQLStatementStatistics getStatistics(String sql) {
+        if(sql != statisticsSQL) {
+            fingerprint = SQLStatisticsCollector.normalize(sql);
+            statistics = SQLStatisticsCollector.INSTANCE.getFingerprintStatistics(fingerprint);
+            statisticsSQL = sql;
+        }
+
+        return statistics;
+    }
+
+    /**
+     * Determines the sql executed by the given statement call.
+     *
+     * @param evt the execute method event
+     * @return the executed sql, <code>null</code> if the call is not an execution to be logged
+     */
+    protected abstract String getExecutedSQL(RegexMethodInterceptorEvent<T> evt);
+
+    protected class ExecuteSQLListener extends RegexMethodInterceptorAdapter<T> {
+        private ElapseTimeEntry elapseTime;
+
+        @Override
+        public void beforeCall(RegexMethodInterceptorEvent<T> evt) {
+            elapseTime = new ElapseTimeEntry();
+            elapseTime.start();
+        }
+
+        @Override
+        public void afterCall(RegexMethodInterceptorEvent<T> evt) {
+            String sql = getExecutedSQL(evt);
+
+            if(sql == null) {
+                return;
+            }
+
+            if(parameterListener != null && getPref().isViewSQLEnabled()) {
+                elapseTime.stop();
+
+                ContextLogDispatcher.forward(SQL_VIEW_LEVEL, id, new SQLViewEntry(sql, parameterListener.getParameters(), elapseTime));
+
+                // to be reused
+                parameterListener.clear();
+            }
+
+            Method method = evt.getInvocation().getMethod();
+            if(getPref().isResultSetEnabled() && ResultSet.class.isAssignableFrom(method.getReturnType())) {
+                ResultSet resultSet = (ResultSet) evt.getReturnedValue();
+                GroupChainId newId = id.create("resultset-", resultSet.hashCode());
+
+                evt.setReturnedValue(new ResultSetProxyFactory(newId, getStatistics(sql)).getProxy(resultSet));
+            }
+        }
+    }
+
+    private class StatisticsListener extends RegexMethodInterceptorAdapter<T> {
+        private long startTime;
+
+        @Override
+        public void beforeCall(RegexMethodInterceptorEvent<T> evt) {
+            startTime = System.nanoTime();
+        }
+
+        @Override
+        public void afterCall(RegexMethodInterceptorEvent<T> evt) {
+            record(evt, false);
+        }
+
+        @Override
+        public void exceptionCall(RegexMethodInterceptorEvent<T> evt) {
+            record(evt, true);
+        }
+
+        private void record(RegexMethodInterceptorEvent<T> evt, boolean error) {
+            long elapsed = System.nanoTime() - startTime;
+            String sql = getExecutedSQL(evt);
+
+            if(sql == null) {
+                return;
+            }
+
+            getStatistics(sql).recordExecution(elapsed, error);
+
+            int threshold = getPref().getRepeatedStatementThreshold();
+            if(threshold > 0) {
+                RepeatedStatementDetector detector = RepeatedStatementDetector.get(getPref().getContext());
+                SQLRepeatedStatementEntry entry = detector != null ? detector.record(fingerprint, elapsed, threshold) : null;
+
+                if(entry != null) {
+                    ContextLogDispatcher.forward(BASE_LEVEL, id, entry);
+                }
+            }
+        }
+    }
+}
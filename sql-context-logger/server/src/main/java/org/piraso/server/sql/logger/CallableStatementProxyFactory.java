@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.sql.logger;
+
+import org.piraso.proxy.RegexMethodInterceptorEvent;
+import org.piraso.server.GroupChainId;
+import org.piraso.server.logger.MessageLoggerListener;
+import org.apache.commons.lang.ArrayUtils;
+
+import java.sql.CallableStatement;
+
+/**
+ * {@link CallableStatement} proxy logger factory, only the parameters set by index are collected.
+ */
+public class CallableStatementProxyFactory extends AbstractStatementProxyFactory<CallableStatement> {
+
+    private String sql;
+
+    public CallableStatementProxyFactory(GroupChainId id, String sql) {
+        super(id, CallableStatement.class);
+
+        this.sql = sql;
+
+        factory.addMethodListener("executeBatch", new MessageLoggerListener<CallableStatement> (BASE_LEVEL, id, "Execution Elapse Time"));
+        factory.addMethodListener("executeQuery|executeUpdate|execute|addBatch", new ExecuteSQLListener());
+    }
+
+    @Override
+    protected String getExecutedSQL(RegexMethodInterceptorEvent<CallableStatement> evt) {
+        // ensure to only listen to method with no arguments
+        if(!ArrayUtils.isEmpty(evt.getInvocation().getMethod().getParameterTypes())) {
+            return null;
+        }
+
+        return sql;
+    }
+}
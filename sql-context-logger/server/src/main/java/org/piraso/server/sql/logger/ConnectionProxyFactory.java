@@ -27,8 +27,10 @@ import org.piraso.server.GroupChainId;
 import org.piraso.server.logger.MethodCallLoggerListener;
 import org.piraso.server.logger.SimpleMethodLoggerListener;
 
+import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.Statement;
 
 /**
  * SQL connection factory, this will create the proxy instance responsible for logging sql connection specific entries.
@@ -51,6 +53,8 @@ public class ConnectionProxyFactory extends AbstractSQLProxyFactory<Connection>
 
             if(getPref().isPreparedStatementEnabled()) {
                 factory.addMethodListener("prepareStatement", new PreparedStatementListener());
+                factory.addMethodListener("prepareCall", new CallableStatementListener());
+                factory.addMethodListener("createStatement", new StatementListener());
             }
         }
     }
@@ -67,4 +71,29 @@ public class ConnectionProxyFactory extends AbstractSQLProxyFactory<Connection>
             evt.setReturnedValue(new PreparedStatementProxyFactory(newId, sql).getProxy(statement));
         }
     }
+
+    private class CallableStatementListener extends RegexMethodInterceptorAdapter<Connection> {
+        @Override
+        public void afterCall(RegexMethodInterceptorEvent<Connection> evt) {
+            CallableStatement statement = (CallableStatement) evt.getReturnedValue();
+            GroupChainId newId = id.create("statement-", statement.hashCode());
+
+            newId.addProperty(Connection.class, wrappedObject);
+            String sql = (String) evt.getInvocation().getArguments()[0];
+
+            evt.setReturnedValue(new CallableStatementProxyFactory(newId, sql).getProxy(statement));
+        }
+    }
+
+    private class StatementListener extends RegexMethodInterceptorAdapter<Connection> {
+        @Override
+        public void afterCall(RegexMethodInterceptorEvent<Connection> evt) {
+            Statement statement = (Statement) evt.getReturnedValue();
+            GroupChainId newId = id.create("statement-", statement.hashCode());
+
+            newId.addProperty(Connection.class, wrappedObject);
+
+            evt.setReturnedValue(new StatementProxyFactory(newId).getProxy(statement));
+        }
+    }
 }
@@ -26,12 +26,15 @@ import org.piraso.proxy.RegexMethodInterceptorEvent;
 import org.piraso.proxy.RegexProxyFactory;
 import org.piraso.server.GroupChainId;
 import org.piraso.server.dispatcher.ContextLogDispatcher;
+import org.piraso.server.logger.MonitoredInterceptionGuard;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 
 /**
  * {@link DataSource} logger proxy factory.
+ * <p>
+ * While no logger is associated the raw connection is returned without going through any listener.
  */
 public class DataSourceProxyFactory extends AbstractSQLProxyFactory<DataSource> {
 
@@ -41,6 +44,7 @@ public class DataSourceProxyFactory extends AbstractSQLProxyFactory<DataSource>
     public DataSourceProxyFactory(Class sourceClass, GroupChainId id) {
         super(id, new RegexProxyFactory(sourceClass));
 
+        factory.setInterceptionGuard(MonitoredInterceptionGuard.INSTANCE);
         factory.addMethodListener("getConnection", new GetConnectionListener());
     }
 
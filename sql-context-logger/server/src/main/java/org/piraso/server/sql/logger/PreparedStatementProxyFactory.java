@@ -18,89 +18,36 @@
 
 package org.piraso.server.sql.logger;
 
-import org.piraso.api.Level;
-import org.piraso.api.entry.ElapseTimeEntry;
-import org.piraso.api.sql.SQLPreferenceEnum;
-import org.piraso.api.sql.SQLViewEntry;
-import org.piraso.proxy.RegexMethodInterceptorAdapter;
 import org.piraso.proxy.RegexMethodInterceptorEvent;
-import org.piraso.proxy.RegexProxyFactory;
 import org.piraso.server.GroupChainId;
-import org.piraso.server.dispatcher.ContextLogDispatcher;
 import org.piraso.server.logger.MessageLoggerListener;
-import org.piraso.server.logger.MethodCallLoggerListener;
 import org.apache.commons.lang.ArrayUtils;
 
-import java.lang.reflect.Method;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 
 /**
  * {@link PreparedStatement} proxy logger factory.
  */
-public class PreparedStatementProxyFactory extends AbstractSQLProxyFactory<PreparedStatement> {
-
-    private static final Level METHOD_CALL_LEVEL = Level.get(SQLPreferenceEnum.PREPARED_STATEMENT_METHOD_CALL_ENABLED.getPropertyName());
-
-    private static final Level BASE_LEVEL = Level.get(SQLPreferenceEnum.PREPARED_STATEMENT_ENABLED.getPropertyName());
-
-    private static final Level SQL_VIEW_LEVEL = Level.get(SQLPreferenceEnum.VIEW_SQL_ENABLED.getPropertyName());
+public class PreparedStatementProxyFactory extends AbstractStatementProxyFactory<PreparedStatement> {
 
     private String sql;
 
-    private StatementParameterListener<PreparedStatement> parameterListener;
-
     public PreparedStatementProxyFactory(GroupChainId id, String sql) {
-        super(id, new RegexProxyFactory<PreparedStatement>(PreparedStatement.class));
+        super(id, PreparedStatement.class);
 
         this.sql = sql;
 
-        if(getPref().isPreparedStatementMethodCallEnabled()) {
-            factory.addMethodListener(".*", new MethodCallLoggerListener<PreparedStatement>(METHOD_CALL_LEVEL, id));
-        }
-
-        if(getPref().isViewSQLEnabled()) {
-            parameterListener = new StatementParameterListener<PreparedStatement>();
-
-            factory.addMethodListener("set.*", parameterListener);
-        }
-
         factory.addMethodListener("executeBatch", new MessageLoggerListener<PreparedStatement> (BASE_LEVEL, id, "Execution Elapse Time"));
         factory.addMethodListener("executeQuery|executeUpdate|execute|addBatch", new ExecuteSQLListener());
     }
 
-    private class ExecuteSQLListener extends RegexMethodInterceptorAdapter<PreparedStatement> {
-        private ElapseTimeEntry elapseTime = new ElapseTimeEntry();
-
-        @Override
-        public void beforeCall(RegexMethodInterceptorEvent<PreparedStatement> evt) {
-            elapseTime.start();
+    @Override
+    protected String getExecutedSQL(RegexMethodInterceptorEvent<PreparedStatement> evt) {
+        // ensure to only listen to method with no arguments
+        if(!ArrayUtils.isEmpty(evt.getInvocation().getMethod().getParameterTypes())) {
+            return null;
         }
 
-        @Override
-        public void afterCall(RegexMethodInterceptorEvent<PreparedStatement> evt) {
-            Method method = evt.getInvocation().getMethod();
-
-            // ensure to only listen to method with no arguments
-            if(!ArrayUtils.isEmpty(method.getParameterTypes())) {
-                return;
-            }
-
-            if(getPref().isViewSQLEnabled()) {
-                elapseTime.stop();
-
-                ContextLogDispatcher.forward(SQL_VIEW_LEVEL, id, new SQLViewEntry(sql, parameterListener.getParameters(), elapseTime));
-
-                // to be reused
-                parameterListener.clear();
-            }
-
-            if(getPref().isResultSetEnabled() && ResultSet.class.isAssignableFrom(method.getReturnType())) {
-                ResultSet resultSet = (ResultSet) evt.getReturnedValue();
-                GroupChainId newId = id.create("resultset-", resultSet.hashCode());
-
-                evt.setReturnedValue(new ResultSetProxyFactory(newId).getProxy(resultSet));
-            }
-        }
+        return sql;
     }
 }
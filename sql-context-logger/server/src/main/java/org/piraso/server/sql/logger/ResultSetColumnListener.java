@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.sql.logger;
+
+import org.piraso.api.converter.ObjectConverterRegistry;
+import org.piraso.api.sql.SQLDataViewEntry;
+import org.piraso.proxy.RegexMethodInterceptorAdapter;
+import org.piraso.proxy.RegexMethodInterceptorEvent;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ResultSet listener collecting the retrieved values column by column, for the compact {@link SQLDataViewEntry}.
+ * <p>
+ * Columns are identified by the index or name passed to the getter, in the order first retrieved. A column not
+ * retrieved for a row is a <code>null</code> value.
+ */
+public class ResultSetColumnListener extends RegexMethodInterceptorAdapter<ResultSet> {
+
+    /**
+     * Approximate per value overhead added to the value length when counting the captured bytes.
+     */
+    private static final int VALUE_OVERHEAD = 4;
+
+    private static final String NOT_SUPPORTED = "@not-supported";
+
+    private final Map<String, Integer> columnIndexes = new HashMap<String, Integer>();
+
+    private final List<String> columnNames = new ArrayList<String>();
+
+    private final List<String> columnTypes = new ArrayList<String>();
+
+    private final List<List<String>> columnValues = new ArrayList<List<String>>();
+
+    private int rowCount;
+
+    private boolean rowStarted;
+
+    private long rowBytes;
+
+    private boolean disabled;
+
+    public void disable() {
+        disabled = true;
+    }
+
+    public boolean isDisabled() {
+        return disabled;
+    }
+
+    /**
+     * Number of complete rows not yet retrieved through {@link #createEntry(long)}.
+     *
+     * @return the buffered row count
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Completes the current row if any value was retrieved.
+     *
+     * @return the approximate number of bytes of the completed row, <code>0</code> if there was none
+     */
+    public long endRow() {
+        if(!rowStarted) {
+            return 0;
+        }
+
+        rowCount++;
+        for(List<String> values : columnValues) {
+            while(values.size() < rowCount) {
+                values.add(null);
+            }
+        }
+
+        long bytes = rowBytes;
+        rowStarted = false;
+        rowBytes = 0;
+
+        return bytes;
+    }
+
+    /**
+     * Creates the compact entry of the buffered rows, and clears them.
+     *
+     * @param resultSetId the result set id
+     * @return the compact entry
+     */
+    public SQLDataViewEntry createEntry(long resultSetId) {
+        String[][] values = new String[columnValues.size()][];
+
+        for(int i = 0; i < values.length; i++) {
+            List<String> column = columnValues.get(i);
+            values[i] = column.subList(0, rowCount).toArray(new String[rowCount]);
+
+            // keeps the values of the row being retrieved
+            column.subList(0, rowCount).clear();
+        }
+
+        rowCount = 0;
+
+        return new SQLDataViewEntry(resultSetId,
+                columnNames.toArray(new String[columnNames.size()]),
+                columnTypes.toArray(new String[columnTypes.size()]),
+                values);
+    }
+
+    @Override
+    public void afterCall(RegexMethodInterceptorEvent<ResultSet> evt) {
+        if(disabled) return;
+
+        MethodInvocation invocation = evt.getInvocation();
+        Method method = invocation.getMethod();
+        Object[] arguments = invocation.getArguments();
+
+        if(arguments.length == 0 || !(arguments[0] instanceof Integer || arguments[0] instanceof String)) {
+            return;
+        }
+
+        String name = String.valueOf(arguments[0]);
+        Integer index = columnIndexes.get(name);
+
+        if(index == null) {
+            index = columnNames.size();
+            columnIndexes.put(name, index);
+            columnNames.add(name);
+            columnTypes.add(method.getReturnType().getName());
+
+            List<String> values = new ArrayList<String>();
+            for(int i = 0; i < rowCount; i++) {
+                values.add(null);
+            }
+
+            columnValues.add(values);
+        }
+
+        String value = toValue(evt.getReturnedValue());
+        List<String> values = columnValues.get(index);
+
+        if(values.size() > rowCount) {
+            // retrieved again for the same row
+            values.set(rowCount, value);
+        } else {
+            values.add(value);
+        }
+
+        rowStarted = true;
+        rowBytes += (value != null ? value.length() : 0) + VALUE_OVERHEAD;
+    }
+
+    private static String toValue(Object value) {
+        if(value == null) {
+            return null;
+        }
+
+        if(!ObjectConverterRegistry.isSupported(value)) {
+            return NOT_SUPPORTED;
+        }
+
+        return String.valueOf(value);
+    }
+}
@@ -21,6 +21,7 @@ package org.piraso.server.sql.logger;
 import org.piraso.api.LongIDGenerator;
 import org.piraso.api.Level;
 import org.piraso.api.entry.ElapseTimeEntry;
+import org.piraso.api.entry.MessageEntry;
 import org.piraso.api.sql.SQLDataTotalRowsEntry;
 import org.piraso.api.sql.SQLDataViewEntry;
 import org.piraso.api.sql.SQLParameterEntry;
@@ -32,6 +33,8 @@ import org.piraso.server.GroupChainId;
 import org.piraso.server.dispatcher.ContextLogDispatcher;
 import org.piraso.server.logger.MessageLoggerListener;
 import org.piraso.server.logger.MethodCallLoggerListener;
+import org.piraso.server.sql.ResultSetDataBudget;
+import org.piraso.server.sql.SQLStatementStatistics;
 import org.apache.commons.collections.CollectionUtils;
 
 import java.lang.reflect.Method;
@@ -41,6 +44,9 @@ import java.util.List;
 
 /**
  * {@link ResultSet} proxy logger factory
+ * <p>
+ * With the compact data preference the values are collected by a {@link ResultSetColumnListener} and dispatched as
+ * compact {@link SQLDataViewEntry}, within the data budget of the request.
  */
 public class ResultSetProxyFactory extends AbstractSQLProxyFactory<ResultSet> {
 
@@ -58,6 +64,10 @@ public class ResultSetProxyFactory extends AbstractSQLProxyFactory<ResultSet> {
 
     private ResultSetParameterListener parameterCollector;
 
+    private ResultSetColumnListener columnCollector;
+
+    private ResultSetDataBudget budget;
+
     /**
      * Stores the record temporarily in memory to be dispatched when
      * the set return size is reached.
@@ -68,9 +78,20 @@ public class ResultSetProxyFactory extends AbstractSQLProxyFactory<ResultSet> {
 
     private int totalRowCount = 0;
 
+    /**
+     * Statistics the fetched rows are added to on close, may be <code>null</code>.
+     */
+    private SQLStatementStatistics statistics;
+
     public ResultSetProxyFactory(GroupChainId id) {
+        this(id, null);
+    }
+
+    public ResultSetProxyFactory(GroupChainId id, SQLStatementStatistics statistics) {
         super(id, new RegexProxyFactory<ResultSet>(ResultSet.class));
 
+        this.statistics = statistics;
+
         ElapseTimeEntry elapseTime = new ElapseTimeEntry();
         elapseTime.start();
 
@@ -80,7 +101,14 @@ public class ResultSetProxyFactory extends AbstractSQLProxyFactory<ResultSet> {
 
         parameterCollector = new ResultSetParameterListener();
         if(getPref().isResultSetDataEnabled()) {
-            factory.addMethodListener("get.*", parameterCollector);
+            if(getPref().isResultSetCompactDataEnabled()) {
+                columnCollector = new ResultSetColumnListener();
+                budget = ResultSetDataBudget.get(getPref().getContext(), getPref().getDataBudget());
+
+                factory.addMethodListener("get.*", columnCollector);
+            } else {
+                factory.addMethodListener("get.*", parameterCollector);
+            }
         }
 
         factory.addMethodListener("close", new MessageLoggerListener<ResultSet>(BASE_LEVEL, id, "Fetch Elapse Time", elapseTime));
@@ -97,7 +125,9 @@ public class ResultSetProxyFactory extends AbstractSQLProxyFactory<ResultSet> {
                 totalRowCount++;
             }
 
-            if(getPref().isResultSetDataEnabled()) {
+            if(columnCollector != null) {
+                collectColumns(method);
+            } else if(getPref().isResultSetDataEnabled()) {
                 if(CollectionUtils.isNotEmpty(parameterCollector.getParameters())) {
                     recordQueue.add(new ArrayList<SQLParameterEntry>(parameterCollector.getParameters()));
                     parameterCollector.clear();
@@ -123,7 +153,43 @@ public class ResultSetProxyFactory extends AbstractSQLProxyFactory<ResultSet> {
 
             if(method.getName().equals("close")) {
                 ContextLogDispatcher.forward(BASE_LEVEL, id, new SQLDataTotalRowsEntry(totalRowCount));
+
+                if(statistics != null) {
+                    statistics.addRows(totalRowCount);
+
+                    // closing again should not count the rows twice
+                    statistics = null;
+                }
             }
         }
+
+        private void collectColumns(Method method) {
+            long bytes = columnCollector.endRow();
+
+            if(bytes > 0 && budget != null && !budget.consume(bytes)) {
+                columnCollector.disable();
+
+                if(budget.exhaust()) {
+                    ContextLogDispatcher.forward(BASE_LEVEL, id, new MessageEntry(String.format(
+                            "Result set data budget of %d bytes reached, no more data captured for this request.",
+                            getPref().getDataBudget())));
+                }
+            }
+
+            int buffered = columnCollector.getRowCount();
+            if(buffered == 0) {
+                return;
+            }
+
+            if(buffered >= getPref().getMaxDataSize() || buffered >= MAX_RETURN_RESULT) {
+                if(totalRowCount >= getPref().getMaxDataSize() && !getPref().isResultSetAllDataEnabled()) {
+                    columnCollector.disable();
+                }
+            } else if(!columnCollector.isDisabled() && !method.getName().equals("close")) {
+                return;
+            }
+
+            ContextLogDispatcher.forward(BASE_LEVEL, id, columnCollector.createEntry(resultSetId));
+        }
     }
 }
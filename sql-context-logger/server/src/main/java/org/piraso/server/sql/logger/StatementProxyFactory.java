@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.sql.logger;
+
+import org.piraso.proxy.RegexMethodInterceptorAdapter;
+import org.piraso.proxy.RegexMethodInterceptorEvent;
+import org.piraso.server.GroupChainId;
+import org.apache.commons.lang.StringUtils;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * {@link Statement} proxy logger factory, the sql is taken from the execute arguments. The statements added through
+ * {@link Statement#addBatch(String)} are logged together when the batch is executed.
+ */
+public class StatementProxyFactory extends AbstractStatementProxyFactory<Statement> {
+
+    private static final String BATCH_SEPARATOR = ";\n";
+
+    private List<String> batch = new ArrayList<String>();
+
+    public StatementProxyFactory(GroupChainId id) {
+        super(id, Statement.class);
+
+        factory.addMethodListener("executeQuery|executeUpdate|execute|executeBatch", new ExecuteSQLListener());
+
+        // listeners are notified in the order added, so the execute listeners read the batch before it is reset
+        factory.addMethodListener("addBatch|clearBatch|executeBatch", new BatchListener());
+    }
+
+    @Override
+    protected String getExecutedSQL(RegexMethodInterceptorEvent<Statement> evt) {
+        if("executeBatch".equals(evt.getInvocation().getMethod().getName())) {
+            return batch.isEmpty() ? null : StringUtils.join(batch, BATCH_SEPARATOR);
+        }
+
+        Object[] arguments = evt.getInvocation().getArguments();
+        if(arguments.length > 0 && arguments[0] instanceof String) {
+            return (String) arguments[0];
+        }
+
+        return null;
+    }
+
+    private class BatchListener extends RegexMethodInterceptorAdapter<Statement> {
+        @Override
+        public void afterCall(RegexMethodInterceptorEvent<Statement> evt) {
+            String name = evt.getInvocation().getMethod().getName();
+
+            if("addBatch".equals(name)) {
+                batch.add((String) evt.getInvocation().getArguments()[0]);
+            } else {
+                batch.clear();
+            }
+        }
+
+        @Override
+        public void exceptionCall(RegexMethodInterceptorEvent<Statement> evt) {
+            // the driver resets the batch whether or not it succeeded
+            if("executeBatch".equals(evt.getInvocation().getMethod().getName())) {
+                batch.clear();
+            }
+        }
+    }
+}
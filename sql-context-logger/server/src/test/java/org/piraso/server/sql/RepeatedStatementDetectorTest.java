@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.sql;
+
+import org.junit.Test;
+import org.piraso.api.sql.SQLRepeatedStatementEntry;
+import org.piraso.server.ContextPreference;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link RepeatedStatementDetector} class.
+ */
+public class RepeatedStatementDetectorTest {
+
+    @Test
+    public void testReportedOnThresholdAndDoubling() throws Exception {
+        RepeatedStatementDetector detector = new RepeatedStatementDetector();
+        int reported = 0;
+
+        for(int i = 1; i <= 100; i++) {
+            SQLRepeatedStatementEntry entry = detector.record("select * from a where id = ?", 2000, 10);
+
+            if(entry != null) {
+                reported++;
+
+                assertTrue(i == 10 || i == 20 || i == 40 || i == 80);
+                assertEquals(i, entry.getCount());
+                assertEquals(i * 2, entry.getTotalTime());
+                assertNotNull(entry.getStackTrace());
+            }
+        }
+
+        assertEquals(4, reported);
+        assertNull(detector.record("select * from b", 2000, 10));
+    }
+
+    @Test
+    public void testDisabled() throws Exception {
+        RepeatedStatementDetector detector = new RepeatedStatementDetector();
+
+        for(int i = 0; i < 10; i++) {
+            assertNull(detector.record("select * from a", 2000, 0));
+        }
+    }
+
+    @Test
+    public void testGetFromContext() throws Exception {
+        ContextPreference context = mock(ContextPreference.class);
+
+        assertNull(RepeatedStatementDetector.get(context));
+        verify(context).addProperty(same(RepeatedStatementDetector.class), anyString(), any(RepeatedStatementDetector.class));
+    }
+
+    @Test
+    public void testGetWithoutContext() throws Exception {
+        assertNull(RepeatedStatementDetector.get(null));
+    }
+}
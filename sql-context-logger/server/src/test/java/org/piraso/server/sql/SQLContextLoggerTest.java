@@ -18,14 +18,127 @@
 
 package org.piraso.server.sql;
 
+import org.junit.After;
+import org.junit.Before;
 import org.junit.Test;
+import org.piraso.server.PirasoContext;
+import org.piraso.server.PirasoContextHolder;
+import org.piraso.server.service.LoggerRegistry;
+import org.piraso.server.service.LoggerRegistrySingleton;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
 
 /**
  * Test for {@link SQLContextLogger} class.
  */
 public class SQLContextLoggerTest {
+
+    private LoggerRegistry registry;
+
+    private PirasoContext context;
+
+    private SimpleDataSource dataSource;
+
+    private Connection connection;
+
+    @Before
+    public void setUp() throws Exception {
+        registry = mock(LoggerRegistry.class);
+        LoggerRegistrySingleton.INSTANCE.setRegistry(registry);
+
+        context = mock(PirasoContext.class);
+        doReturn(true).when(context).isEnabled(anyString());
+        PirasoContextHolder.setContext(context);
+
+        connection = mock(Connection.class);
+        dataSource = new SimpleDataSource(connection);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        LoggerRegistrySingleton.INSTANCE.setRegistry(null);
+        PirasoContextHolder.removeContext();
+    }
+
     @Test
     public void testCreate() throws Exception {
+        doReturn(true).when(registry).hasLoggers();
+
+        DataSource proxy = SQLContextLogger.create(dataSource, "test");
+
+        assertNotSame(connection, proxy.getConnection());
+        assertEquals(1, dataSource.connectionCount);
+    }
+
+    @Test
+    public void testCreateNotMonitored() throws Exception {
+        doReturn(false).when(registry).hasLoggers();
+
+        DataSource proxy = SQLContextLogger.create(dataSource, "test");
+
+        assertSame(connection, proxy.getConnection());
+        verify(context, never()).isEnabled(anyString());
+    }
+
+    /**
+     * Plain data source, cglib proxies can not be generated from mockito mock classes.
+     */
+    public static class SimpleDataSource implements DataSource {
+        private Connection connection;
+
+        private int connectionCount;
+
+        public SimpleDataSource() {
+        }
+
+        public SimpleDataSource(Connection connection) {
+            this.connection = connection;
+        }
+
+        public Connection getConnection() throws SQLException {
+            connectionCount++;
+            return connection;
+        }
+
+        public Connection getConnection(String username, String password) throws SQLException {
+            return connection;
+        }
+
+        public PrintWriter getLogWriter() throws SQLException {
+            return null;
+        }
+
+        public void setLogWriter(PrintWriter out) throws SQLException {
+        }
+
+        public void setLoginTimeout(int seconds) throws SQLException {
+        }
+
+        public int getLoginTimeout() throws SQLException {
+            return 0;
+        }
+
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+
+        public <T> T unwrap(Class<T> iface) throws SQLException {
+            throw new SQLException("not a wrapper");
+        }
 
+        public boolean isWrapperFor(Class<?> iface) throws SQLException {
+            return false;
+        }
     }
 }
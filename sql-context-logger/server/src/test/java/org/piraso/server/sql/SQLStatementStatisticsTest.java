@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.sql;
+
+import org.junit.Test;
+import org.piraso.api.sql.SQLStatementStatisticsEntry;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Test for {@link SQLStatementStatistics} class.
+ */
+public class SQLStatementStatisticsTest {
+
+    @Test
+    public void testBucketBounds() throws Exception {
+        for(long value = 0; value < 100000; value++) {
+            long upperBound = SQLStatementStatistics.getUpperBound(SQLStatementStatistics.getBucket(value));
+
+            assertTrue(value + " > " + upperBound, value <= upperBound);
+            assertTrue(value + " * 1.25 < " + upperBound, upperBound <= value * 1.25);
+        }
+
+        long upperBound = SQLStatementStatistics.getUpperBound(SQLStatementStatistics.getBucket(Long.MAX_VALUE));
+        assertEquals(Long.MAX_VALUE, upperBound);
+    }
+
+    @Test
+    public void testToEntry() throws Exception {
+        SQLStatementStatistics statistics = new SQLStatementStatistics("select ? from a");
+
+        for(int i = 1; i <= 100; i++) {
+            statistics.recordExecution(i * 1000L, i == 100);
+        }
+        statistics.addRows(5);
+        statistics.addRows(7);
+
+        SQLStatementStatisticsEntry entry = statistics.toEntry();
+
+        assertEquals("select ? from a", entry.getSql());
+        assertEquals(100, entry.getExecutionCount());
+        assertEquals(1, entry.getErrorCount());
+        assertEquals(12, entry.getRowCount());
+        assertEquals(5050, entry.getTotalTime());
+        assertEquals(100, entry.getMaxTime());
+        assertEquals(50, entry.getAverageTime());
+        assertTrue(entry.getP99Time() >= 99 && entry.getP99Time() <= 99 * 1.25);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.sql;
+
+import org.junit.After;
+import org.junit.Test;
+import org.piraso.api.sql.SQLStatementStatisticsEntry;
+import org.piraso.api.sql.SQLStatisticsEntry;
+import org.piraso.server.service.StatisticsProviderManager;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.xml.XmlBeanDefinitionReader;
+import org.springframework.core.io.ClassPathResource;
+
+import static org.junit.Assert.*;
+
+/**
+ * Test for {@link SQLStatisticsCollector} class.
+ */
+public class SQLStatisticsCollectorTest {
+
+    @After
+    public void tearDown() throws Exception {
+        SQLStatisticsCollector.INSTANCE.clear();
+    }
+
+    @Test
+    public void testNormalize() throws Exception {
+        assertEquals("select * from t1 where id = ? and name = ?",
+                SQLStatisticsCollector.normalize("select *\n  from t1\twhere id = 12 and name = 'it''s'"));
+        assertEquals("select col_2 from a where x in (?, ?) and y = ?",
+                SQLStatisticsCollector.normalize(" select col_2 from a where x in (1.5, 2) and y = ? "));
+    }
+
+    @Test
+    public void testStatementsGroupedByNormalizedSql() throws Exception {
+        SQLStatementStatistics first = SQLStatisticsCollector.INSTANCE.getStatementStatistics("delete from a where id = 1");
+        SQLStatementStatistics second = SQLStatisticsCollector.INSTANCE.getStatementStatistics("delete from a  where id = 2");
+
+        assertSame(first, second);
+        assertEquals("delete from a where id = ?", first.getSql());
+    }
+
+    @Test
+    public void testStatisticsSortedAndLimited() throws Exception {
+        SQLStatisticsCollector.INSTANCE.getStatementStatistics("select 1 from a").recordExecution(1000000, false);
+        SQLStatisticsCollector.INSTANCE.getStatementStatistics("select 1 from b").recordExecution(3000000, false);
+        SQLStatisticsCollector.INSTANCE.getStatementStatistics("select 1 from c").recordExecution(2000000, true);
+
+        SQLStatisticsEntry entry = SQLStatisticsCollector.INSTANCE.getStatistics(2);
+
+        assertEquals(2, entry.getStatements().size());
+        assertEquals("select ? from b", entry.getStatements().get(0).getSql());
+
+        SQLStatementStatisticsEntry statement = entry.getStatements().get(1);
+        assertEquals("select ? from c", statement.getSql());
+        assertEquals(1, statement.getExecutionCount());
+        assertEquals(1, statement.getErrorCount());
+        assertEquals(2000, statement.getTotalTime());
+    }
+
+    @Test
+    public void testMaxStatements() throws Exception {
+        for(int i = 0; i < SQLStatisticsCollector.MAX_STATEMENTS; i++) {
+            SQLStatisticsCollector.INSTANCE.getStatementStatistics("select * from t" + i);
+        }
+
+        SQLStatementStatistics other = SQLStatisticsCollector.INSTANCE.getStatementStatistics("select * from other");
+
+        assertEquals(SQLStatisticsCollector.OTHER_SQL, other.getSql());
+        assertSame(other, SQLStatisticsCollector.INSTANCE.getStatementStatistics("select * from another"));
+    }
+
+    @Test
+    public void testRegisteredBySpringConfig() throws Exception {
+        DefaultListableBeanFactory factory = new DefaultListableBeanFactory();
+        new XmlBeanDefinitionReader(factory).loadBeanDefinitions(new ClassPathResource("spring/piraso.xml"));
+        factory.preInstantiateSingletons();
+
+        assertSame(SQLStatisticsCollector.INSTANCE, factory.getBean("sqlStatisticsCollector"));
+        assertTrue(StatisticsProviderManager.INSTANCE.getStatistics(10).containsKey(SQLStatisticsCollector.PROVIDER_NAME));
+    }
+
+    @Test
+    public void testRegisteredProvider() throws Exception {
+        SQLStatisticsCollector.INSTANCE.getStatementStatistics("select 1");
+
+        assertTrue(StatisticsProviderManager.INSTANCE.getStatistics(10).get(SQLStatisticsCollector.PROVIDER_NAME) instanceof SQLStatisticsEntry);
+    }
+}
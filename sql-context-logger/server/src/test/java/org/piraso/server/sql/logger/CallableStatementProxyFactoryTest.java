@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.sql.logger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.piraso.api.Level;
+import org.piraso.api.entry.Entry;
+import org.piraso.api.sql.SQLPreferenceEnum;
+import org.piraso.api.sql.SQLViewEntry;
+import org.piraso.server.GroupChainId;
+import org.piraso.server.PirasoContext;
+import org.piraso.server.PirasoContextHolder;
+
+import java.sql.CallableStatement;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link CallableStatementProxyFactory} class.
+ */
+public class CallableStatementProxyFactoryTest {
+
+    private PirasoContext context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = mock(PirasoContext.class);
+        doReturn(true).when(context).isEnabled(SQLPreferenceEnum.VIEW_SQL_ENABLED.getPropertyName());
+        PirasoContextHolder.setContext(context);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        PirasoContextHolder.removeContext();
+    }
+
+    @Test
+    public void testExecute() throws Exception {
+        CallableStatement statement = mock(CallableStatement.class);
+        CallableStatement proxy = new CallableStatementProxyFactory(new GroupChainId("test"), "{call test(?, ?)}").getProxy(statement);
+
+        proxy.setInt(1, 10);
+        proxy.setString(2, "value");
+        proxy.registerOutParameter(2, java.sql.Types.VARCHAR);
+        proxy.execute();
+
+        ArgumentCaptor<Entry> captor = ArgumentCaptor.forClass(Entry.class);
+        verify(context).log(any(Level.class), any(GroupChainId.class), captor.capture());
+
+        SQLViewEntry entry = (SQLViewEntry) captor.getValue();
+        assertEquals("{call test(?, ?)}", entry.getSql());
+        assertEquals(2, entry.getParameters().size());
+        assertEquals("{call test(10, 'value')}", entry.getParameterReplacedSql());
+        verify(statement).setInt(eq(1), eq(10));
+        verify(statement).execute();
+    }
+}
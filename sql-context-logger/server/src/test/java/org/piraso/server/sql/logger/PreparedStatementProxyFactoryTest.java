@@ -18,8 +18,73 @@
 
 package org.piraso.server.sql.logger;
 
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.piraso.api.Level;
+import org.piraso.api.entry.Entry;
+import org.piraso.api.sql.SQLPreferenceEnum;
+import org.piraso.api.sql.SQLRepeatedStatementEntry;
+import org.piraso.server.GroupChainId;
+import org.piraso.server.PirasoContext;
+import org.piraso.server.PirasoContextHolder;
+import org.piraso.server.sql.RepeatedStatementDetector;
+import org.piraso.server.sql.SQLStatisticsCollector;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
 /**
  * Test for {@link PreparedStatementProxyFactory} class.
  */
 public class PreparedStatementProxyFactoryTest {
+
+    private PirasoContext context;
+
+    @Before
+    public void setUp() throws Exception {
+        context = mock(PirasoContext.class);
+        doReturn(new RepeatedStatementDetector()).when(context).getProperty(same(RepeatedStatementDetector.class), anyString());
+        doReturn(3).when(context).getIntValue(SQLPreferenceEnum.REPEATED_STATEMENT_THRESHOLD.getPropertyName());
+        PirasoContextHolder.setContext(context);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        PirasoContextHolder.removeContext();
+        SQLStatisticsCollector.INSTANCE.clear();
+    }
+
+    @Test
+    public void testRepeatedStatement() throws Exception {
+        for(int i = 0; i < 7; i++) {
+            PreparedStatement proxy = new PreparedStatementProxyFactory(new GroupChainId("test"), "select * from a where id = ?")
+                    .getProxy(mock(PreparedStatement.class));
+
+            proxy.setInt(1, i);
+            proxy.executeQuery();
+        }
+
+        ArgumentCaptor<Entry> captor = ArgumentCaptor.forClass(Entry.class);
+        verify(context, atLeast(0)).log(any(Level.class), any(GroupChainId.class), captor.capture());
+
+        List<SQLRepeatedStatementEntry> entries = new ArrayList<SQLRepeatedStatementEntry>();
+        for(Entry entry : captor.getAllValues()) {
+            if(entry instanceof SQLRepeatedStatementEntry) {
+                entries.add((SQLRepeatedStatementEntry) entry);
+            }
+        }
+
+        assertEquals(2, entries.size());
+        assertEquals(3, entries.get(0).getCount());
+        assertEquals(6, entries.get(1).getCount());
+        assertEquals("select * from a where id = ?", entries.get(0).getSql());
+    }
 }
@@ -18,8 +18,130 @@
 
 package org.piraso.server.sql.logger;
 
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.piraso.api.Level;
+import org.piraso.api.entry.Entry;
+import org.piraso.api.entry.MessageEntry;
+import org.piraso.api.sql.SQLDataViewEntry;
+import org.piraso.api.sql.SQLPreferenceEnum;
+import org.piraso.server.GroupChainId;
+import org.piraso.server.PirasoContext;
+import org.piraso.server.PirasoContextHolder;
+import org.piraso.server.sql.ResultSetDataBudget;
+
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
 /**
  * Test for {@link ResultSetProxyFactory} class.
  */
 public class ResultSetProxyFactoryTest {
+
+    private PirasoContext context;
+
+    private ResultSetDataBudget budget;
+
+    @Before
+    public void setUp() throws Exception {
+        budget = new ResultSetDataBudget(1024);
+
+        context = mock(PirasoContext.class);
+        doReturn(true).when(context).isEnabled(SQLPreferenceEnum.RESULTSET_DATA_ENABLED.getPropertyName());
+        doReturn(true).when(context).isEnabled(SQLPreferenceEnum.RESULTSET_COMPACT_DATA_ENABLED.getPropertyName());
+        doReturn(1000).when(context).getIntValue(SQLPreferenceEnum.VIEW_DATA_SIZE.getPropertyName());
+        doReturn(budget).when(context).getProperty(same(ResultSetDataBudget.class), anyString());
+        PirasoContextHolder.setContext(context);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        PirasoContextHolder.removeContext();
+    }
+
+    @Test
+    public void testCompactData() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        doReturn(true).when(resultSet).next();
+        doReturn("value").when(resultSet).getString(1);
+        doReturn(7).when(resultSet).getInt("id");
+
+        ResultSet proxy = new ResultSetProxyFactory(new GroupChainId("test")).getProxy(resultSet);
+
+        proxy.next();
+        proxy.getString(1);
+        proxy.getInt("id");
+        proxy.next();
+        proxy.getString(1);
+        proxy.close();
+
+        List<SQLDataViewEntry> entries = captureEntries(SQLDataViewEntry.class);
+
+        assertEquals(1, entries.size());
+
+        SQLDataViewEntry entry = entries.get(0);
+        assertTrue(entry.isCompact());
+        assertEquals(2, entry.getRowCount());
+        assertArrayEquals(new String[] {"1", "id"}, entry.getColumnNames());
+        assertArrayEquals(new String[] {String.class.getName(), int.class.getName()}, entry.getColumnTypes());
+        assertArrayEquals(new String[] {"value", "value"}, entry.getColumnValues()[0]);
+        assertArrayEquals(new String[] {"7", null}, entry.getColumnValues()[1]);
+    }
+
+    @Test
+    public void testDataBudget() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        doReturn(true).when(resultSet).next();
+        doReturn("0123456789012345678901234567890123456789").when(resultSet).getString(anyInt());
+
+        ResultSet proxy = new ResultSetProxyFactory(new GroupChainId("test")).getProxy(resultSet);
+
+        for(int i = 0; i < 100; i++) {
+            proxy.next();
+            proxy.getString(1);
+        }
+
+        proxy.close();
+
+        List<SQLDataViewEntry> entries = captureEntries(SQLDataViewEntry.class);
+        List<MessageEntry> messages = new ArrayList<MessageEntry>();
+        for(MessageEntry message : captureEntries(MessageEntry.class)) {
+            if(message.getMessage().contains("budget")) {
+                messages.add(message);
+            }
+        }
+
+        int rows = 0;
+        for(SQLDataViewEntry entry : entries) {
+            rows += entry.getRowCount();
+        }
+
+        // 44 bytes per row within the 1024 bytes budget, the exceeding row included
+        assertEquals(24, rows);
+        assertEquals(1, messages.size());
+        assertFalse(budget.exhaust());
+    }
+
+    private <T extends Entry> List<T> captureEntries(Class<T> type) {
+        ArgumentCaptor<Entry> captor = ArgumentCaptor.forClass(Entry.class);
+        verify(context, atLeast(0)).log(any(Level.class), any(GroupChainId.class), captor.capture());
+
+        List<T> entries = new ArrayList<T>();
+        for(Entry entry : captor.getAllValues()) {
+            if(type.isInstance(entry)) {
+                entries.add(type.cast(entry));
+            }
+        }
+
+        return entries;
+    }
 }
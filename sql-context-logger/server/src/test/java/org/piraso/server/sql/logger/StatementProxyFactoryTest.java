@@ -0,0 +1,165 @@
+/*
+ * Copyright (c) 2012. Piraso Alvin R. de Leon. All Rights Reserved.
+ *
+ * See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The Piraso licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.piraso.server.sql.logger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.piraso.api.Level;
+import org.piraso.api.entry.Entry;
+import org.piraso.api.sql.SQLPreferenceEnum;
+import org.piraso.api.sql.SQLStatementStatisticsEntry;
+import org.piraso.api.sql.SQLViewEntry;
+import org.piraso.server.GroupChainId;
+import org.piraso.server.PirasoContext;
+import org.piraso.server.PirasoContextHolder;
+import org.piraso.server.sql.SQLStatisticsCollector;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test for {@link StatementProxyFactory} class.
+ */
+public class StatementProxyFactoryTest {
+
+    private PirasoContext context;
+
+    private Statement statement;
+
+    @Before
+    public void setUp() throws Exception {
+        context = mock(PirasoContext.class);
+        doReturn(true).when(context).isEnabled(SQLPreferenceEnum.VIEW_SQL_ENABLED.getPropertyName());
+        doReturn(true).when(context).isEnabled(SQLPreferenceEnum.RESULTSET_ENABLED.getPropertyName());
+        PirasoContextHolder.setContext(context);
+
+        statement = mock(Statement.class);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        PirasoContextHolder.removeContext();
+        SQLStatisticsCollector.INSTANCE.clear();
+    }
+
+    @Test
+    public void testExecuteQuery() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        doReturn(resultSet).when(statement).executeQuery("select 1");
+
+        Statement proxy = new StatementProxyFactory(new GroupChainId("test")).getProxy(statement);
+
+        assertNotSame(resultSet, proxy.executeQuery("select 1"));
+
+        List<SQLViewEntry> entries = getSQLViewEntries();
+        assertEquals(1, entries.size());
+        assertEquals("select 1", entries.get(0).getSql());
+        assertTrue(entries.get(0).getParameters().isEmpty());
+        assertTrue(entries.get(0).getElapseTime().getEndTime() > 0);
+    }
+
+    @Test
+    public void testStatistics() throws Exception {
+        ResultSet resultSet = mock(ResultSet.class);
+        doReturn(resultSet).when(statement).executeQuery(anyString());
+        doReturn(true).doReturn(true).doReturn(false).when(resultSet).next();
+        doThrow(new SQLException("expected")).when(statement).executeUpdate(anyString());
+
+        Statement proxy = new StatementProxyFactory(new GroupChainId("test")).getProxy(statement);
+
+        ResultSet proxyResultSet = proxy.executeQuery("select * from a where id = 1");
+        while(proxyResultSet.next()) {
+            proxyResultSet.getString(1);
+        }
+        proxyResultSet.close();
+        proxyResultSet.close();
+
+        proxy.executeQuery("select * from a where id = 2");
+
+        try {
+            proxy.executeUpdate("delete from a");
+            fail("expected exception");
+        } catch(SQLException ignored) {}
+
+        List<SQLStatementStatisticsEntry> statements = SQLStatisticsCollector.INSTANCE.getStatistics(10).getStatements();
+        assertEquals(2, statements.size());
+
+        SQLStatementStatisticsEntry select = statements.get(0).getSql().startsWith("select") ? statements.get(0) : statements.get(1);
+        assertEquals("select * from a where id = ?", select.getSql());
+        assertEquals(2, select.getExecutionCount());
+        assertEquals(0, select.getErrorCount());
+        assertEquals(2, select.getRowCount());
+
+        SQLStatementStatisticsEntry delete = statements.get(0) == select ? statements.get(1) : statements.get(0);
+        assertEquals(1, delete.getExecutionCount());
+        assertEquals(1, delete.getErrorCount());
+    }
+
+    @Test
+    public void testExecuteBatch() throws Exception {
+        Statement proxy = new StatementProxyFactory(new GroupChainId("test")).getProxy(statement);
+
+        proxy.addBatch("delete from a");
+        proxy.clearBatch();
+        proxy.addBatch("insert into b values (1)");
+        proxy.addBatch("insert into b values (2)");
+        proxy.executeBatch();
+        proxy.executeBatch();
+
+        List<SQLViewEntry> entries = getSQLViewEntries();
+        assertEquals(1, entries.size());
+        assertEquals("insert into b values (1);\ninsert into b values (2)", entries.get(0).getSql());
+        verify(statement, times(2)).executeBatch();
+    }
+
+    @Test
+    public void testViewSQLDisabled() throws Exception {
+        doReturn(false).when(context).isEnabled(SQLPreferenceEnum.VIEW_SQL_ENABLED.getPropertyName());
+
+        Statement proxy = new StatementProxyFactory(new GroupChainId("test")).getProxy(statement);
+        proxy.executeUpdate("delete from a");
+
+        assertTrue(getSQLViewEntries().isEmpty());
+        verify(statement).executeUpdate("delete from a");
+    }
+
+    private List<SQLViewEntry> getSQLViewEntries() {
+        ArgumentCaptor<Entry> captor = ArgumentCaptor.forClass(Entry.class);
+        verify(context, atLeast(0)).log(any(Level.class), any(GroupChainId.class), captor.capture());
+
+        List<SQLViewEntry> entries = new ArrayList<SQLViewEntry>();
+        for(Entry entry : captor.getAllValues()) {
+            if(entry instanceof SQLViewEntry) {
+                entries.add((SQLViewEntry) entry);
+            }
+        }
+
+        return entries;
+    }
+}